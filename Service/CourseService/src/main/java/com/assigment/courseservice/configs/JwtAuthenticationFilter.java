@@ -1,12 +1,16 @@
 package com.assigment.courseservice.configs;
 
 import com.assigment.courseservice.services.JwtService;
+import com.assigment.jwtcodec.InternalIdentityCodec;
+import com.assigment.jwtcodec.JwtValidationException;
+import com.assigment.jwtcodec.VerifiedClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
@@ -16,16 +20,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
+    private final InternalIdentityCodec identityCodec;
 
-    public JwtAuthenticationFilter(JwtService jwtService) {
+    // Deployed behind the gateway: trust its signed X-Internal-Identity instead of parsing the JWT again
+    private final boolean behindGateway;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   InternalIdentityCodec identityCodec,
+                                   @Value("${internal-identity.behind-gateway:false}") boolean behindGateway) {
         this.jwtService = jwtService;
-        logger.debug("JwtAuthenticationFilter initialized");
+        this.identityCodec = identityCodec;
+        this.behindGateway = behindGateway;
+        logger.debug("JwtAuthenticationFilter initialized (behindGateway={})", behindGateway);
     }
 
     @Override
@@ -35,6 +48,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         logger.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
+        final Optional<VerifiedClaims> forwarded = forwardedIdentity(request);
+        if (forwarded.isPresent()) {
+            authenticate(request, forwarded.get().role());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.debug("No Bearer token found in Authorization header");
@@ -46,15 +66,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
         logger.trace("JWT token extracted: {}", jwt.substring(0, Math.min(20, jwt.length())) + "...");
 
-        if (!jwtService.isTokenValid(jwt)) {
+        // Single parse: expiry and signature are checked once, the role is read from the result
+        final Optional<VerifiedClaims> claims = jwtService.verify(jwt);
+        if (claims.isEmpty()) {
             logger.warn("Invalid JWT token received");
             filterChain.doFilter(request, response);
             return;
         }
 
         logger.debug("JWT token is valid");
-        final String role = jwtService.extractRole(jwt);
-        logger.debug("Extracted role from JWT: {}", role);
+        authenticate(request, claims.get().role());
+
+        logger.debug("Continuing filter chain");
+        filterChain.doFilter(request, response);
+    }
+
+    // Gateway-verified identity; empty for direct calls or a header that does not verify (then the JWT decides)
+    private Optional<VerifiedClaims> forwardedIdentity(HttpServletRequest request) {
+        final String header = request.getHeader(InternalIdentityCodec.HEADER);
+        if (!behindGateway || header == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(identityCodec.decode(header));
+        } catch (JwtValidationException e) {
+            logger.warn("Ignoring internal identity header ({}): {}", e.getReason(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void authenticate(HttpServletRequest request, String role) {
+        logger.debug("Extracted role: {}", role);
 
         if (role != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             logger.debug("Creating authentication token for role: {}", role);
@@ -78,8 +120,5 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } else {
             logger.debug("No authentication context update needed");
         }
-
-        logger.debug("Continuing filter chain");
-        filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
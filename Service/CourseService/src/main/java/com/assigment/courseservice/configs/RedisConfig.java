@@ -0,0 +1,39 @@
+package com.assigment.courseservice.configs;
+
+import com.assigment.courseservice.events.CourseEventStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_EVENTS_CHANNEL;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisConnectionFactory redisConnectionFactory(
+            @Value("${redis.host:localhost}") String redisHost,
+            @Value("${redis.port:6379}") int redisPort) {
+        return new LettuceConnectionFactory(redisHost, redisPort);
+    }
+
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    // Course changes committed on any instance, fanned out to this instance's SSE subscribers
+    @Bean
+    public RedisMessageListenerContainer courseEventsListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       CourseEventStream courseEventStream) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(courseEventStream, new ChannelTopic(COURSE_EVENTS_CHANNEL));
+        return container;
+    }
+}
@@ -1,5 +1,6 @@
 package com.assigment.courseservice.configs;
 
+import jakarta.servlet.DispatcherType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -35,6 +36,8 @@ public class SecurityConfig {
                         logger.debug("CSRF protection disabled");
                     })
                     .authorizeHttpRequests(auth -> {
+                        // SSE: the stream was authorized on the original request; its async dispatch carries no token
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
                         auth.requestMatchers("/auth/**").permitAll();
                         logger.debug("Public endpoints configured: /auth/**");
                         auth.anyRequest().authenticated();
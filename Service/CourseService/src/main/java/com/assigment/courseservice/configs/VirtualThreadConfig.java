@@ -0,0 +1,36 @@
+package com.assigment.courseservice.configs;
+
+import com.assigment.common.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/* ============================
+   Virtual-thread mode only (spring.threads.virtual.enabled): reports threads pinned to their carrier
+   through the shared VirtualThreadPinningMonitor, from the moment the service is ready.
+   ============================ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${course.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+            @Value("${course.virtual-threads.pinned-log-every:100}") long logEvery
+    ) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold, logEvery);
+    }
+
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> virtualThreadPinningMonitorStarter(VirtualThreadPinningMonitor monitor) {
+        return event -> monitor.start();
+    }
+}
@@ -0,0 +1,16 @@
+package com.assigment.courseservice.constants;
+
+public class RedisKeyConstant {
+
+    // Catalog version, bumped on every committed course mutation; the gateway keys cached responses by it
+    public static final String COURSE_VERSION_KEY = "COURSE:VERSION";
+
+    // Pub/sub channel carrying the new catalog version to every gateway instance
+    public static final String COURSE_INVALIDATION_CHANNEL = "course.invalidation";
+
+    // Redis stream of committed course changes (trimmed to the replay window); its ids are the SSE event ids
+    public static final String COURSE_EVENTS_STREAM_KEY = "COURSE:EVENTS";
+
+    // Pub/sub channel fanning each new change out to every CourseService instance's SSE subscribers
+    public static final String COURSE_EVENTS_CHANNEL = "course.events";
+}
@@ -1,19 +1,30 @@
 package com.assigment.courseservice.controllers;
 
+import com.assigment.common.ContentEncoding;
+import com.assigment.courseservice.constants.Status;
 import com.assigment.courseservice.dto.request.CreateCourseRequest;
 import com.assigment.courseservice.dto.request.UpdateCourseRequest;
 import com.assigment.courseservice.dto.response.*;
+import com.assigment.courseservice.events.CourseEventStream;
+import com.assigment.courseservice.events.CourseStreamEvent;
+import com.assigment.courseservice.services.CourseExportService;
 import com.assigment.courseservice.services.CourseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/course")
@@ -22,6 +33,8 @@ public class CourseController {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseController.class);
     private final CourseService courseService;
+    private final CourseEventStream courseEventStream;
+    private final CourseExportService courseExportService;
 
     // =====================================================
     // 🔹 Create course
@@ -55,6 +68,17 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCourseById(courseID));
     }
 
+    // =====================================================
+    // 🔹 Stream of course changes (SSE), instead of polling the list
+    // =====================================================
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CourseStreamEvent>> streamCourseEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Opening course event stream (Last-Event-ID: {})", lastEventId);
+        return courseEventStream.subscribe(lastEventId);
+    }
+
     // =====================================================
     // 🔹 Get enabled courses (for everyone)
     // =====================================================
@@ -65,22 +89,23 @@ public class CourseController {
             @RequestParam(defaultValue = "5") int size) {
         logger.debug("Fetching ENABLED courses - page: {}, size: {}", page, size);
         Page<CourseResponse> pagedCourses = courseService.getEnabledCourses(page, size);
+        return ResponseEntity.ok(CoursePaginationResponse.of(
+                pagedCourses, "Enabled courses fetched successfully", "/course", size));
+    }
 
-        CoursePaginationResponse response = CoursePaginationResponse.builder()
-                .status(200)
-                .message("Enabled courses fetched successfully")
-                .courses(pagedCourses.getContent())
-                .currentPage(pagedCourses.getNumber())
-                .totalPages(pagedCourses.getTotalPages())
-                .totalElements(pagedCourses.getTotalElements())
-                .hasNext(pagedCourses.hasNext())
-                .hasPrevious(pagedCourses.hasPrevious())
-                .nextPageUrl(pagedCourses.hasNext() ? "/course?page=" + (pagedCourses.getNumber() + 1) + "&size=" + size : null)
-                .previousPageUrl(pagedCourses.hasPrevious() ? "/course?page=" + (pagedCourses.getNumber() - 1) + "&size=" + size : null)
-                .details(null)
-                .build();
-
-        return ResponseEntity.ok(response);
+    // =====================================================
+    // 🔹 Get enabled courses, keyset pagination: ?cursor= (empty for the first page), then nextCursor/previousCursor
+    //    Same cost at any depth; size is capped at 100; totalElements only with includeTotal=true.
+    //    A cursor this service did not issue is answered 400
+    // =====================================================
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CourseCursorPageResponse> getEnabledCoursesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        logger.debug("Fetching ENABLED courses - cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(courseService.getEnabledCoursesByCursor(cursor, size, includeTotal));
     }
 
     // =====================================================
@@ -93,22 +118,52 @@ public class CourseController {
             @RequestParam(defaultValue = "5") int size) {
         logger.debug("Fetching ALL courses - page: {}, size: {}", page, size);
         Page<CourseResponse> pagedCourses = courseService.getAllCourses(page, size);
+        return ResponseEntity.ok(CoursePaginationResponse.of(
+                pagedCourses, "All courses fetched successfully", "/course/all", size));
+    }
 
-        CoursePaginationResponse response = CoursePaginationResponse.builder()
-                .status(200)
-                .message("All courses fetched successfully")
-                .courses(pagedCourses.getContent())
-                .currentPage(pagedCourses.getNumber())
-                .totalPages(pagedCourses.getTotalPages())
-                .totalElements(pagedCourses.getTotalElements())
-                .hasNext(pagedCourses.hasNext())
-                .hasPrevious(pagedCourses.hasPrevious())
-                .nextPageUrl(pagedCourses.hasNext() ? "/course/all?page=" + (pagedCourses.getNumber() + 1) + "&size=" + size : null)
-                .previousPageUrl(pagedCourses.hasPrevious() ? "/course/all?page=" + (pagedCourses.getNumber() - 1) + "&size=" + size : null)
-                .details(null)
-                .build();
-
-        return ResponseEntity.ok(response);
+    // =====================================================
+    // 🔹 Get ALL courses (admin only), keyset pagination: see getEnabledCoursesByCursor
+    // =====================================================
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/all", params = "cursor")
+    public ResponseEntity<CourseCursorPageResponse> getAllCoursesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        logger.debug("Fetching ALL courses - cursor: {}, size: {}", cursor, size);
+        return ResponseEntity.ok(courseService.getAllCoursesByCursor(cursor, size, includeTotal));
+    }
+
+    // =====================================================
+    // 🔹 Export courses as NDJSON (admin only), streamed from a database cursor
+    //    Example: GET /course/export?status=ENABLE&fetchSize=1000 (gzip when accepted)
+    // =====================================================
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Integer fetchSize,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.info("Exporting courses - status: {}", status);
+        boolean gzip = ContentEncoding.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"courses.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                courseExportService.exportCourses(compressed, status, fetchSize);
+                compressed.finish();
+            } else {
+                courseExportService.exportCourses(out, status, fetchSize);
+            }
+        });
     }
 
     // =====================================================
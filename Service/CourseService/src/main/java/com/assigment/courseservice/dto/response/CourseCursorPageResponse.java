@@ -0,0 +1,26 @@
+package com.assigment.courseservice.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseCursorPageResponse {
+    private int status;
+    private String message;
+    private List<CourseResponse> courses;
+    private int size;
+    private boolean hasNext;
+    private boolean hasPrevious;
+    // opaque; pass back as ?cursor= (null when there is no such page)
+    private String nextCursor;
+    private String previousCursor;
+    private String nextPageUrl;
+    private String previousPageUrl;
+    // only counted when requested with includeTotal=true
+    private Long totalElements;
+}
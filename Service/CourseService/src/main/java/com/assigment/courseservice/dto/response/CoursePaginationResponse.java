@@ -1,6 +1,7 @@
 package com.assigment.courseservice.dto.response;
 
 import lombok.*;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 
@@ -21,4 +22,24 @@ public class CoursePaginationResponse {
     private String nextPageUrl;
     private String previousPageUrl;
     private Object details;
+
+    /**
+     * One page of a course listing served at {@code path}, with links to the neighbouring pages.
+     * Shared by the controller and the static catalog pages, so both produce the same JSON.
+     */
+    public static CoursePaginationResponse of(Page<CourseResponse> page, String message, String path, int size) {
+        return CoursePaginationResponse.builder()
+                .status(200)
+                .message(message)
+                .courses(page.getContent())
+                .currentPage(page.getNumber())
+                .totalPages(page.getTotalPages())
+                .totalElements(page.getTotalElements())
+                .hasNext(page.hasNext())
+                .hasPrevious(page.hasPrevious())
+                .nextPageUrl(page.hasNext() ? path + "?page=" + (page.getNumber() + 1) + "&size=" + size : null)
+                .previousPageUrl(page.hasPrevious() ? path + "?page=" + (page.getNumber() - 1) + "&size=" + size : null)
+                .details(null)
+                .build();
+    }
 }
@@ -20,7 +20,11 @@ import java.util.Date;
 @Accessors(chain = true)
 @Validated
 @Entity
-@Table(name = "courses_table")
+// Keyset pagination order (created_at, id): one index for the whole listing, one for a single status
+@Table(name = "courses_table", indexes = {
+        @Index(name = "idx_courses_created_id", columnList = "created_at, courseID"),
+        @Index(name = "idx_courses_status_created_id", columnList = "courseStatus, created_at, courseID")
+})
 public class CourseEntity implements Serializable {
 
     @Id
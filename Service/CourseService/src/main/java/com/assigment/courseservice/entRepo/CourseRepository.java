@@ -4,7 +4,42 @@ import com.assigment.courseservice.constants.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
 
 public interface CourseRepository extends JpaRepository<CourseEntity, String> {
     Page<CourseEntity> findByCourseStatus(Status courseStatus, Pageable pageable);
+
+    long countByCourseStatusIn(Collection<Status> statuses);
+
+    /* ============================
+       KEYSET PAGES, ordered by (created_at, course_id)
+       Row-value comparisons let Postgres seek straight into idx_courses_*_created_id: a page costs the same
+       at any depth. Native because the comparison must reach SQL as written.
+       ============================ */
+
+    @Query(value = "select * from courses_table where course_status in (:statuses) " +
+            "order by created_at, course_id limit :limit", nativeQuery = true)
+    List<CourseEntity> findFirstPage(@Param("statuses") Collection<String> statuses, @Param("limit") int limit);
+
+    @Query(value = "select * from courses_table where course_status in (:statuses) " +
+            "and (created_at, course_id) > (:createdAt, :id) " +
+            "order by created_at, course_id limit :limit", nativeQuery = true)
+    List<CourseEntity> findPageAfter(@Param("statuses") Collection<String> statuses,
+                                     @Param("createdAt") Timestamp createdAt,
+                                     @Param("id") String id,
+                                     @Param("limit") int limit);
+
+    // Newest first: the caller reverses the rows back into listing order
+    @Query(value = "select * from courses_table where course_status in (:statuses) " +
+            "and (created_at, course_id) < (:createdAt, :id) " +
+            "order by created_at desc, course_id desc limit :limit", nativeQuery = true)
+    List<CourseEntity> findPageBefore(@Param("statuses") Collection<String> statuses,
+                                      @Param("createdAt") Timestamp createdAt,
+                                      @Param("id") String id,
+                                      @Param("limit") int limit);
 }
@@ -0,0 +1,279 @@
+package com.assigment.courseservice.events;
+
+import com.assigment.courseservice.dto.response.CoursePaginationResponse;
+import com.assigment.courseservice.dto.response.CourseResponse;
+import com.assigment.courseservice.services.CourseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_VERSION_KEY;
+
+/* ============================
+   Materializes the GET /course pages (enabled courses, identical for every caller) as files the gateway
+   serves straight from disk, so the common listing never reaches this service or the database.
+   Layout under course.static-catalog.dir:
+     CURRENT                            catalog version the gateway may serve
+     v<version>/manifest.properties     page count per size and the length of every file
+     v<version>/size-<s>/page-<p>.json  the exact body GET /course?page=p&size=s returns (+ .json.gz)
+   A version directory is written aside and renamed into place, then CURRENT is replaced atomically:
+   readers never see a half-written page. Versions are the catalog versions the gateway already follows
+   (COURSE:VERSION), so it only serves files built for the catalog it knows to be current.
+   ============================ */
+@Component
+public class CatalogPageMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogPageMaterializer.class);
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String MANIFEST_FILE = "manifest.properties";
+
+    // Same message as GET /course, so a served file is byte-for-byte what the controller would answer
+    private static final String ENABLED_COURSES_MESSAGE = "Enabled courses fetched successfully";
+    private static final String ENABLED_COURSES_PATH = "/course";
+
+    private final CourseService courseService;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final List<Integer> pageSizes;
+    private final int maxPages;
+    private final Duration debounce;
+
+    // One rebuild at a time; a burst of changes within the debounce window costs one rebuild
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-pages");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public CatalogPageMaterializer(CourseService courseService,
+                                   StringRedisTemplate redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${course.static-catalog.enabled:true}") boolean enabled,
+                                   @Value("${course.static-catalog.dir:${java.io.tmpdir}/course-catalog}") Path directory,
+                                   @Value("${course.static-catalog.page-sizes:5,10,20}") List<Integer> pageSizes,
+                                   @Value("${course.static-catalog.max-pages:100}") int maxPages,
+                                   @Value("${course.static-catalog.debounce:200ms}") Duration debounce) {
+        this.courseService = courseService;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.pageSizes = pageSizes;
+        this.maxPages = maxPages;
+        this.debounce = debounce;
+    }
+
+    /* ============================
+       TRIGGERS
+       ============================ */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        schedule();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCourseChanged(CourseChangedEvent event) {
+        schedule();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule() {
+        if (enabled && scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::rebuild, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /* ============================
+       REBUILD (catalog-pages thread)
+       ============================ */
+
+    private void rebuild() {
+        // Changes committed from here on schedule another run
+        scheduled.set(false);
+
+        long version;
+        try {
+            version = currentVersion();
+        } catch (Exception e) {
+            // Without the version the gateway could not tell these pages are current; it keeps routing
+            logger.warn("Could not read the catalog version, static pages not rebuilt: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            long started = System.nanoTime();
+            materialize(version);
+            publish(version);
+            logger.info("Static catalog pages published for version {} in {} ms",
+                    version, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+            // The version is bumped by another after-commit listener; if it moved while we were reading,
+            // these pages may already be outdated for the version the gateway now expects
+            if (currentVersion() != version) {
+                schedule();
+            }
+        } catch (Exception e) {
+            // The gateway falls back to the dynamic route while its version and ours differ
+            logger.warn("Could not publish static catalog pages for version {}: {}", version, e.getMessage());
+        }
+    }
+
+    private void materialize(long version) throws IOException {
+        Path target = directory.resolve("v" + version);
+        if (Files.isDirectory(target)) {
+            return; // built by another instance sharing the directory
+        }
+
+        Files.createDirectories(directory);
+        Path staging = Files.createTempDirectory(directory, ".staging-v" + version + "-");
+        try {
+            Properties manifest = new Properties();
+            manifest.setProperty("version", String.valueOf(version));
+            manifest.setProperty("sizes", pageSizes.stream().map(String::valueOf).collect(Collectors.joining(",")));
+
+            for (int size : pageSizes) {
+                Path sizeDirectory = Files.createDirectory(staging.resolve("size-" + size));
+
+                Page<CourseResponse> page = courseService.getEnabledCourses(0, size);
+                // Page 0 always exists (an empty catalog still answers with an empty page); later ones fall back
+                int pages = Math.max(1, Math.min(page.getTotalPages(), maxPages));
+                manifest.setProperty("size." + size + ".pages", String.valueOf(pages));
+
+                for (int number = 0; number < pages; number++) {
+                    if (number > 0) {
+                        page = courseService.getEnabledCourses(number, size);
+                    }
+                    byte[] json = objectMapper.writeValueAsBytes(
+                            CoursePaginationResponse.of(page, ENABLED_COURSES_MESSAGE, ENABLED_COURSES_PATH, size));
+
+                    Path plain = sizeDirectory.resolve("page-" + number + ".json");
+                    Files.write(plain, json);
+                    Path gzip = sizeDirectory.resolve("page-" + number + ".json.gz");
+                    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+                        out.write(json);
+                    }
+
+                    manifest.setProperty("size." + size + ".page." + number + ".json", String.valueOf(Files.size(plain)));
+                    manifest.setProperty("size." + size + ".page." + number + ".gz", String.valueOf(Files.size(gzip)));
+                }
+            }
+
+            try (OutputStream out = Files.newOutputStream(staging.resolve(MANIFEST_FILE))) {
+                manifest.store(out, "Static catalog pages");
+            }
+
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileSystemException e) {
+                if (!Files.isDirectory(target)) {
+                    throw e;
+                }
+                // Another instance renamed its copy first; both hold the same version
+            }
+        } finally {
+            deleteRecursively(staging);
+        }
+    }
+
+    /**
+     * Points CURRENT at {@code version} (never backwards) and drops versions older than the one it replaces;
+     * that one is kept for gateways that have not picked up the switch yet.
+     */
+    private void publish(long version) throws IOException {
+        long previous = readCurrent();
+        if (previous > version) {
+            return;
+        }
+
+        Path temp = Files.createTempFile(directory, ".current-", ".tmp");
+        try {
+            Files.writeString(temp, String.valueOf(version));
+            Files.move(temp, directory.resolve(CURRENT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (previous >= 0) {
+            prune(Math.min(previous, version));
+        }
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private long currentVersion() {
+        String version = redisTemplate.opsForValue().get(COURSE_VERSION_KEY);
+        return version == null ? 0 : Long.parseLong(version.trim());
+    }
+
+    private long readCurrent() throws IOException {
+        Path current = directory.resolve(CURRENT_FILE);
+        if (!Files.exists(current)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(Files.readString(current).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void prune(long keepFrom) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : entries.toList()) {
+                String name = entry.getFileName().toString();
+                if (name.matches("v\\d+") && Long.parseLong(name.substring(1)) < keepFrom) {
+                    deleteRecursively(entry);
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
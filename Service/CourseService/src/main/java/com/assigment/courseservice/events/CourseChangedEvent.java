@@ -0,0 +1,14 @@
+package com.assigment.courseservice.events;
+
+/**
+ * Published inside the transaction of every course mutation; delivered to listeners after commit.
+ */
+public record CourseChangedEvent(String courseId, Action action) {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+}
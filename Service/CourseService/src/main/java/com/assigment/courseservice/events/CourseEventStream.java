@@ -0,0 +1,264 @@
+package com.assigment.courseservice.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_EVENTS_CHANNEL;
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_EVENTS_STREAM_KEY;
+
+/* ============================
+   Live course changes for GET /course/events (Server-Sent Events).
+   Every committed change is appended to a Redis stream (bounded history, one id space for all instances)
+   and published on course.events. Each instance feeds what it receives into ONE multicast sink shared by
+   all of its SSE subscribers, and keeps the last replay-size changes in memory so a reconnecting client
+   (Last-Event-ID) is sent what it missed without a Redis call.
+   Each subscriber drains its own bounded queue: a client too slow to keep up has its stream ended and
+   resumes from its last id on reconnect, instead of holding memory or delaying the others.
+   ============================ */
+@Component
+public class CourseEventStream implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseEventStream.class);
+
+    private static final String SEPARATOR = "|";
+    private static final String RESYNC = "resync";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int replaySize;
+    private final int maxPending;
+    private final Duration heartbeat;
+    private final Duration maxConnection;
+    private final Duration reconnectDelay;
+
+    // Guards recent, recentIds and every emission into live: a subscriber's replay and its live feed never leave a gap
+    private final Object lock = new Object();
+    private final ArrayDeque<CourseStreamEvent> recent = new ArrayDeque<>();
+    // Ids in recent: duplicates and replay positions are found without scanning the buffer
+    private final Set<String> recentIds = new HashSet<>();
+    private final Sinks.Many<CourseStreamEvent> live = Sinks.many().multicast().directBestEffort();
+
+    public CourseEventStream(StringRedisTemplate redisTemplate,
+                             @Value("${course.events.replay-size:1000}") int replaySize,
+                             @Value("${course.events.max-pending:256}") int maxPending,
+                             @Value("${course.events.heartbeat:15s}") Duration heartbeat,
+                             @Value("${course.events.max-connection:30m}") Duration maxConnection,
+                             @Value("${course.events.reconnect-delay:3s}") Duration reconnectDelay) {
+        this.redisTemplate = redisTemplate;
+        this.replaySize = replaySize;
+        this.maxPending = maxPending;
+        this.heartbeat = heartbeat;
+        this.maxConnection = maxConnection;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    /* ============================
+       PUBLISH (write path, after commit)
+       ============================ */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCourseChanged(CourseChangedEvent event) {
+        try {
+            RecordId id = redisTemplate.opsForStream().add(
+                    StreamRecords.string(Map.of("courseId", event.courseId(), "action", event.action().name()))
+                            .withStreamKey(COURSE_EVENTS_STREAM_KEY),
+                    XAddOptions.maxlen(replaySize).approximateTrimming(true));
+            redisTemplate.convertAndSend(COURSE_EVENTS_CHANNEL,
+                    id.getValue() + SEPARATOR + event.courseId() + SEPARATOR + event.action().name());
+        } catch (Exception e) {
+            // The mutation is already committed; subscribers pick it up on their next page load
+            logger.warn("Could not publish course event {} {}: {}", event.courseId(), event.action(), e.getMessage());
+        }
+    }
+
+    /* ============================
+       RECEIVE (every instance)
+       ============================ */
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR);
+        try {
+            accept(new CourseStreamEvent(parts[0], parts[1], CourseChangedEvent.Action.valueOf(parts[2])));
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed course event on {}: {}", COURSE_EVENTS_CHANNEL, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecent() {
+        List<CourseStreamEvent> loaded = new ArrayList<>();
+        Set<String> loadedIds = new HashSet<>();
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .reverseRange(COURSE_EVENTS_STREAM_KEY, Range.unbounded(), Limit.limit().count(replaySize));
+            for (MapRecord<String, Object, Object> record : records == null ? List.<MapRecord<String, Object, Object>>of() : records) {
+                loaded.add(new CourseStreamEvent(record.getId().getValue(),
+                        String.valueOf(record.getValue().get("courseId")),
+                        CourseChangedEvent.Action.valueOf(String.valueOf(record.getValue().get("action")))));
+                loadedIds.add(record.getId().getValue());
+            }
+        } catch (Exception e) {
+            // Clients resuming from an id this instance does not know are told to resync
+            logger.warn("Could not load recent course events: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (lock) {
+            for (CourseStreamEvent event : recent) {
+                if (loadedIds.add(event.id())) {
+                    loaded.add(event);
+                }
+            }
+            loaded.sort(Comparator.comparing(CourseStreamEvent::id, CourseEventStream::compareIds));
+            recent.clear();
+            recentIds.clear();
+            for (CourseStreamEvent event : loaded.subList(Math.max(0, loaded.size() - replaySize), loaded.size())) {
+                recent.addLast(event);
+                recentIds.add(event.id());
+            }
+        }
+        logger.info("Loaded {} recent course event(s) for SSE replay", loaded.size());
+    }
+
+    void accept(CourseStreamEvent event) {
+        synchronized (lock) {
+            if (!recentIds.add(event.id())) {
+                return;
+            }
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recentIds.remove(recent.removeFirst().id());
+            }
+            live.tryEmitNext(event); // FAIL_ZERO_SUBSCRIBER is fine: nobody is listening
+        }
+    }
+
+    /* ============================
+       SUBSCRIBE
+       ============================ */
+
+    /**
+     * Changes after {@code lastEventId} (all new ones when null), then live changes, with heartbeat comments.
+     * An id this instance cannot replay from is answered with a {@code resync} event: reload, then resume
+     * from the id it carries. The stream ends after {@code max-connection}; clients reconnect and resume.
+     */
+    public Flux<ServerSentEvent<CourseStreamEvent>> subscribe(String lastEventId) {
+        Flux<ServerSentEvent<CourseStreamEvent>> events = Flux.defer(() -> {
+            // Room for a full replay on top of the live backlog a slow client may build up
+            // (set up on subscription, before any demand, so nothing published from now on is missed)
+            Sinks.Many<ServerSentEvent<CourseStreamEvent>> pending = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<CourseStreamEvent>>get(replaySize + maxPending).get());
+
+            pending.tryEmitNext(ServerSentEvent.<CourseStreamEvent>builder().comment("connected").retry(reconnectDelay).build());
+
+            Disposable feed;
+            synchronized (lock) {
+                replay(lastEventId).forEach(pending::tryEmitNext);
+                feed = live.asFlux().subscribe(event -> {
+                    if (pending.tryEmitNext(toSse(event)).isFailure() && pending.tryEmitComplete().isSuccess()) {
+                        logger.debug("Ending SSE stream of a slow client at {}; it resumes from its last id", event.id());
+                    }
+                });
+            }
+            return pending.asFlux().doFinally(signal -> feed.dispose());
+        });
+
+        ServerSentEvent<CourseStreamEvent> heartbeatFrame = ServerSentEvent.<CourseStreamEvent>builder().comment("heartbeat").build();
+        return events
+                // Prefetch 1: the client's backlog stays in its bounded queue instead of operator buffers
+                .publish(shared -> Flux.merge(1, shared,
+                        Flux.interval(heartbeat).onBackpressureDrop().map(tick -> heartbeatFrame)
+                                .takeUntilOther(shared.then())), 1)
+                .take(maxConnection);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    // Called with the lock held
+    private List<ServerSentEvent<CourseStreamEvent>> replay(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+
+        if (recentIds.contains(lastEventId)) {
+            // Walked from the newest end: costs the events missed, not the whole buffer
+            List<ServerSentEvent<CourseStreamEvent>> missed = new ArrayList<>();
+            Iterator<CourseStreamEvent> newestFirst = recent.descendingIterator();
+            for (CourseStreamEvent event = newestFirst.next(); !event.id().equals(lastEventId); event = newestFirst.next()) {
+                missed.add(toSse(event));
+            }
+            Collections.reverse(missed);
+            return missed;
+        }
+
+        CourseStreamEvent newest = recent.peekLast();
+        if (newest != null && isValidId(lastEventId) && compareIds(lastEventId, newest.id()) >= 0) {
+            return List.of(); // already up to date (e.g. this instance has not seen the newest change yet)
+        }
+
+        // Older than what is retained, or not an id of ours: the client must reload
+        String resumeFrom = newest == null ? null : newest.id();
+        return List.of(ServerSentEvent.builder(new CourseStreamEvent(resumeFrom, null, null))
+                .id(resumeFrom)
+                .event(RESYNC)
+                .build());
+    }
+
+    private static ServerSentEvent<CourseStreamEvent> toSse(CourseStreamEvent event) {
+        return ServerSentEvent.builder(event)
+                .id(event.id())
+                .event("course." + event.action().name().toLowerCase(Locale.ROOT))
+                .build();
+    }
+
+    private static boolean isValidId(String id) {
+        try {
+            return !RecordId.of(id).shouldBeAutoGenerated();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Redis stream ids are "<millis>-<sequence>"
+    private static int compareIds(String a, String b) {
+        RecordId left = RecordId.of(a);
+        RecordId right = RecordId.of(b);
+        int byTime = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return byTime != 0 ? byTime : Long.compare(left.getSequence(), right.getSequence());
+    }
+}
@@ -0,0 +1,39 @@
+package com.assigment.courseservice.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_INVALIDATION_CHANNEL;
+import static com.assigment.courseservice.constants.RedisKeyConstant.COURSE_VERSION_KEY;
+
+/* ============================
+   Tells the gateway its cached course responses are stale.
+   Runs after commit so a gateway that refetches right away sees the new row.
+   ============================ */
+@Component
+public class CourseInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseInvalidationPublisher.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public CourseInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCourseChanged(CourseChangedEvent event) {
+        try {
+            Long version = redisTemplate.opsForValue().increment(COURSE_VERSION_KEY);
+            redisTemplate.convertAndSend(COURSE_INVALIDATION_CHANNEL, String.valueOf(version));
+            logger.debug("Course {} {}: published catalog version {}", event.courseId(), event.action(), version);
+        } catch (Exception e) {
+            // The mutation is already committed; gateway entries still age out on their TTL
+            logger.warn("Could not publish invalidation for course {} {}: {}", event.courseId(), event.action(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.assigment.courseservice.events;
+
+/**
+ * A committed course change as sent on {@code GET /course/events}. {@code id} is the Redis stream id of the
+ * change, the same on every instance, so a client can resume from it on any instance (Last-Event-ID).
+ */
+public record CourseStreamEvent(String id, String courseId, CourseChangedEvent.Action action) {
+}
@@ -1,5 +1,6 @@
 package com.assigment.courseservice.exceptions;
 
+import com.assigment.common.InvalidCursorException;
 import com.assigment.courseservice.dto.response.CourseErrorResponse;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -48,4 +49,17 @@ public class GlobalExceptionHandler {
                 .build();
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<CourseErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        CourseErrorResponse response = CourseErrorResponse.builder()
+                .status(HttpStatus.BAD_REQUEST.value())
+                .message("Invalid page cursor")
+                .details(CourseErrorResponse.ErrorDetails.builder()
+                        .error("InvalidCursorException")
+                        .message(ex.getMessage())
+                        .build())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
 }
@@ -0,0 +1,17 @@
+package com.assigment.courseservice.services;
+
+import com.assigment.courseservice.constants.Status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CourseExportService {
+
+    /**
+     * Writes every course with {@code status} (null = any) to {@code out} as NDJSON, one CourseResponse per line,
+     * read through a database cursor {@code fetchSize} rows at a time (null = configured default).
+     *
+     * @return the number of courses written
+     */
+    long exportCourses(OutputStream out, Status status, Integer fetchSize) throws IOException;
+}
@@ -2,6 +2,7 @@ package com.assigment.courseservice.services;
 
 import com.assigment.courseservice.dto.request.CreateCourseRequest;
 import com.assigment.courseservice.dto.request.UpdateCourseRequest;
+import com.assigment.courseservice.dto.response.CourseCursorPageResponse;
 import com.assigment.courseservice.dto.response.CoursePaginationResponse;
 import com.assigment.courseservice.dto.response.CourseStandardResponse;
 import com.assigment.courseservice.dto.response.CourseResponse;
@@ -21,6 +22,11 @@ public interface CourseService {
 
     Page<CourseResponse> getAllCourses(int page, int size);
 
+    // Keyset alternatives to the two listings above: cursor null/blank = first page; totals only on request
+    CourseCursorPageResponse getEnabledCoursesByCursor(String cursor, int size, boolean includeTotal);
+
+    CourseCursorPageResponse getAllCoursesByCursor(String cursor, int size, boolean includeTotal);
+
     CourseStandardResponse updateCourseStatus(String courseId, boolean enabled);
 
     CourseStandardResponse deleteCourse(String courseId);
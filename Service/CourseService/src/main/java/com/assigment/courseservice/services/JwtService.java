@@ -1,6 +1,11 @@
 package com.assigment.courseservice.services;
 
+import com.assigment.jwtcodec.VerifiedClaims;
+
+import java.util.Optional;
+
 public interface JwtService {
+    Optional<VerifiedClaims> verify(String token);
     String extractRole(String token);
     boolean isTokenValid(String token);
 }
@@ -0,0 +1,107 @@
+package com.assigment.courseservice.services.impl;
+
+import com.assigment.courseservice.constants.Status;
+import com.assigment.courseservice.dto.mapper.CourseMapper;
+import com.assigment.courseservice.entRepo.CourseEntity;
+import com.assigment.courseservice.services.CourseExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/* ============================
+   Full course dumps without paging: one query, read through a forward-only cursor fetch-size rows at a time
+   (Postgres only streams inside a transaction), each row mapped and written as it arrives and then detached,
+   so memory stays constant whatever the table size. Paging through /course/all costs an OFFSET scan and a
+   count(*) per page.
+   ============================ */
+@Service
+public class CourseExportServiceImpl implements CourseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseExportServiceImpl.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter ndjsonWriter;
+    private final int defaultFetchSize;
+    private final int maxFetchSize;
+
+    public CourseExportServiceImpl(EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${course.export.fetch-size:500}") int defaultFetchSize,
+                                   @Value("${course.export.max-fetch-size:5000}") int maxFetchSize) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The servlet stream buffers already; flushing after every line would send one tiny chunk per course
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.defaultFetchSize = defaultFetchSize;
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    @Override
+    public long exportCourses(OutputStream out, Status status, Integer fetchSize) throws IOException {
+        int rowsPerFetch = fetchSize == null ? defaultFetchSize : Math.max(1, Math.min(fetchSize, maxFetchSize));
+        long started = System.nanoTime();
+
+        try {
+            Long written = readOnlyTransaction.execute(tx -> {
+                try (Stream<CourseEntity> courses = query(status, rowsPerFetch).getResultStream();
+                     SequenceWriter lines = ndjsonWriter.writeValues(out)) {
+                    long count = 0;
+                    for (CourseEntity course : (Iterable<CourseEntity>) courses::iterator) {
+                        lines.write(CourseMapper.toResponse(course));
+                        entityManager.detach(course);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (written != null && written > 0) {
+                out.write('\n'); // the separator only goes between lines
+            }
+
+            logger.info("Exported {} courses (status={}) in {} ms",
+                    written, status, (System.nanoTime() - started) / 1_000_000);
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+    }
+
+    private TypedQuery<CourseEntity> query(Status status, int fetchSize) {
+        String where = status == null ? "" : " where c.courseStatus = :status";
+        TypedQuery<CourseEntity> query = entityManager
+                .createQuery("select c from CourseEntity c" + where + " order by c.courseID", CourseEntity.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        return query;
+    }
+}
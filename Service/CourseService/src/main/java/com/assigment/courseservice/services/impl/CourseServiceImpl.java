@@ -1,30 +1,44 @@
 package com.assigment.courseservice.services.impl;
 
+import com.assigment.common.PageCursor;
 import com.assigment.courseservice.constants.Status;
 import com.assigment.courseservice.dto.mapper.CourseMapper;
 import com.assigment.courseservice.dto.request.CreateCourseRequest;
 import com.assigment.courseservice.dto.request.UpdateCourseRequest;
+import com.assigment.courseservice.dto.response.CourseCursorPageResponse;
 import com.assigment.courseservice.dto.response.CourseResponse;
 import com.assigment.courseservice.dto.response.CourseStandardResponse;
 import com.assigment.courseservice.entRepo.CourseEntity;
 import com.assigment.courseservice.entRepo.CourseRepository;
+import com.assigment.courseservice.events.CourseChangedEvent;
 import com.assigment.courseservice.exceptions.ResourceNotFoundException;
 import com.assigment.courseservice.services.CourseService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class CourseServiceImpl implements CourseService {
 
     private static final Logger logger = LoggerFactory.getLogger(CourseServiceImpl.class);
 
+    // Largest keyset page; bigger requests get this many rows
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CourseRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Create course
     @Override
@@ -33,6 +47,7 @@ public class CourseServiceImpl implements CourseService {
         CourseEntity entity = CourseMapper.toEntity(request);
         entity.setCourseStatus(Status.ENABLE); // default enabled
         repository.save(entity);
+        eventPublisher.publishEvent(new CourseChangedEvent(entity.getCourseID(), CourseChangedEvent.Action.CREATED));
 
         return CourseStandardResponse.builder()
                 .status(200)
@@ -50,6 +65,7 @@ public class CourseServiceImpl implements CourseService {
 
         CourseMapper.updateEntity(course, request);
         repository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Action.UPDATED));
 
         return CourseStandardResponse.builder()
                 .status(200)
@@ -92,6 +108,20 @@ public class CourseServiceImpl implements CourseService {
                 .map(CourseMapper::toResponse);
     }
 
+    // Get enabled courses, keyset pagination
+    @Override
+    public CourseCursorPageResponse getEnabledCoursesByCursor(String cursor, int size, boolean includeTotal) {
+        return cursorPage(EnumSet.of(Status.ENABLE), cursor, size, includeTotal,
+                "Enabled courses fetched successfully", "/course");
+    }
+
+    // Get all courses, keyset pagination
+    @Override
+    public CourseCursorPageResponse getAllCoursesByCursor(String cursor, int size, boolean includeTotal) {
+        return cursorPage(EnumSet.allOf(Status.class), cursor, size, includeTotal,
+                "All courses fetched successfully", "/course/all");
+    }
+
     // Update course status (PATCH)
     @Override
     @Transactional
@@ -101,6 +131,7 @@ public class CourseServiceImpl implements CourseService {
 
         course.setCourseStatus(enabled ? Status.ENABLE : Status.DISABLE);
         repository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Action.STATUS_CHANGED));
 
         return CourseStandardResponse.builder()
                 .status(200)
@@ -117,6 +148,7 @@ public class CourseServiceImpl implements CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id " + courseId));
 
         repository.delete(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Action.DELETED));
 
         return CourseStandardResponse.builder()
                 .status(200)
@@ -124,4 +156,60 @@ public class CourseServiceImpl implements CourseService {
                 .course(CourseMapper.toResponse(course))
                 .build();
     }
+
+    // One page after/before the cursor, read one row further to learn whether the listing goes on
+    private CourseCursorPageResponse cursorPage(Set<Status> statuses, String cursor, int size, boolean includeTotal,
+                                                String message, String path) {
+        size = size <= 0 ? 5 : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        List<String> statusNames = statuses.stream().map(Status::name).toList();
+        PageCursor position = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+
+        List<CourseEntity> rows;
+        boolean hasNext;
+        boolean hasPrevious;
+        if (position == null) {
+            rows = new ArrayList<>(repository.findFirstPage(statusNames, size + 1));
+            hasNext = rows.size() > size;
+            hasPrevious = false;
+        } else if (position.direction() == PageCursor.Direction.AFTER) {
+            rows = new ArrayList<>(repository.findPageAfter(
+                    statusNames, position.createdAtTimestamp(), position.id(), size + 1));
+            hasNext = rows.size() > size;
+            hasPrevious = true;
+        } else {
+            rows = new ArrayList<>(repository.findPageBefore(
+                    statusNames, position.createdAtTimestamp(), position.id(), size + 1));
+            hasPrevious = rows.size() > size;
+            hasNext = true;
+        }
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+        }
+        if (position != null && position.direction() == PageCursor.Direction.BEFORE) {
+            Collections.reverse(rows);
+        }
+
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!rows.isEmpty()) {
+            CourseEntity first = rows.get(0);
+            CourseEntity last = rows.get(rows.size() - 1);
+            nextCursor = hasNext ? PageCursor.after(last.getCreatedAt(), last.getCourseID()).encode() : null;
+            previousCursor = hasPrevious ? PageCursor.before(first.getCreatedAt(), first.getCourseID()).encode() : null;
+        }
+
+        return CourseCursorPageResponse.builder()
+                .status(200)
+                .message(message)
+                .courses(rows.stream().map(CourseMapper::toResponse).toList())
+                .size(size)
+                .hasNext(nextCursor != null)
+                .hasPrevious(previousCursor != null)
+                .nextCursor(nextCursor)
+                .previousCursor(previousCursor)
+                .nextPageUrl(nextCursor != null ? path + "?cursor=" + nextCursor + "&size=" + size : null)
+                .previousPageUrl(previousCursor != null ? path + "?cursor=" + previousCursor + "&size=" + size : null)
+                .totalElements(includeTotal ? repository.countByCourseStatusIn(statuses) : null)
+                .build();
+    }
 }
@@ -0,0 +1,141 @@
+package com.assigment.courseservice.events;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+class CourseEventStreamTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void reconnectingClientIsSentWhatItMissedFromLastEventId() {
+        CourseEventStream stream = stream(10, 16);
+        accept(stream, "1-0", "2-0", "3-0");
+
+        List<ServerSentEvent<CourseStreamEvent>> frames = stream.subscribe("1-0").take(3).collectList().block(TIMEOUT);
+
+        assertThat(frames.get(0).comment()).isEqualTo("connected");
+        assertThat(frames.subList(1, 3)).extracting(ServerSentEvent::id).containsExactly("2-0", "3-0");
+        assertThat(frames.get(1).event()).isEqualTo("course.updated");
+        assertThat(frames.get(1).data().courseId()).isEqualTo("c-2-0");
+    }
+
+    @Test
+    void replayIsFollowedByLiveEventsWithoutGapOrDuplicate() {
+        CourseEventStream stream = stream(10, 16);
+        accept(stream, "1-0", "2-0", "3-0");
+        List<String> ids = new CopyOnWriteArrayList<>();
+
+        Disposable subscription = stream.subscribe("2-0").subscribe(frame -> record(ids, frame));
+        try {
+            accept(stream, "3-0", "4-0", "4-0", "5-0");
+
+            await().atMost(TIMEOUT).until(() -> ids.size() == 3);
+            assertThat(ids).containsExactly("3-0", "4-0", "5-0");
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    void idOlderThanTheReplayBufferIsAnsweredWithResync() {
+        CourseEventStream stream = stream(3, 16);
+        accept(stream, "1-0", "2-0", "3-0", "4-0", "5-0");
+
+        List<ServerSentEvent<CourseStreamEvent>> frames = stream.subscribe("1-0").take(2).collectList().block(TIMEOUT);
+
+        ServerSentEvent<CourseStreamEvent> resync = frames.get(1);
+        assertThat(resync.event()).isEqualTo("resync");
+        assertThat(resync.id()).isEqualTo("5-0");
+        assertThat(resync.data().id()).isEqualTo("5-0");
+    }
+
+    @Test
+    void unknownOrMissingIdReplaysNothingButStaysLive() {
+        CourseEventStream stream = stream(10, 16);
+        accept(stream, "1-0", "2-0");
+
+        for (String lastEventId : new String[]{null, "9-0"}) {
+            List<String> ids = new CopyOnWriteArrayList<>();
+            Disposable subscription = stream.subscribe(lastEventId).subscribe(frame -> record(ids, frame));
+            try {
+                String next = lastEventId == null ? "3-0" : "10-0";
+                accept(stream, next);
+
+                await().atMost(TIMEOUT).until(() -> !ids.isEmpty());
+                assertThat(ids).containsExactly(next);
+            } finally {
+                subscription.dispose();
+            }
+        }
+    }
+
+    @Test
+    void slowClientHasItsStreamEndedInsteadOfBufferingWithoutBound() {
+        CourseEventStream stream = stream(4, 4);
+        List<String> ids = new CopyOnWriteArrayList<>();
+        AtomicBoolean completed = new AtomicBoolean();
+        BaseSubscriber<ServerSentEvent<CourseStreamEvent>> slowClient = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1); // the "connected" comment, then nothing
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<CourseStreamEvent> frame) {
+                record(ids, frame);
+            }
+
+            @Override
+            protected void hookFinally(SignalType type) {
+                completed.set(type == SignalType.ON_COMPLETE);
+            }
+        };
+        stream.subscribe(null).subscribe(slowClient);
+
+        for (int i = 1; i <= 100; i++) {
+            stream.accept(event(i + "-0"));
+        }
+        slowClient.request(Long.MAX_VALUE);
+
+        await().atMost(TIMEOUT).untilTrue(completed);
+        assertThat(ids).isNotEmpty().hasSizeLessThan(100);
+        assertThat(ids.get(0)).isEqualTo("1-0");
+    }
+
+    private static CourseEventStream stream(int replaySize, int maxPending) {
+        return new CourseEventStream(mock(StringRedisTemplate.class), replaySize, maxPending,
+                Duration.ofHours(1), Duration.ofHours(1), Duration.ofSeconds(3));
+    }
+
+    private static void accept(CourseEventStream stream, String... ids) {
+        for (String id : ids) {
+            stream.accept(event(id));
+        }
+    }
+
+    private static CourseStreamEvent event(String id) {
+        return new CourseStreamEvent(id, "c-" + id, CourseChangedEvent.Action.UPDATED);
+    }
+
+    // Course events only: the connected and heartbeat comments carry no id
+    private static void record(List<String> ids, ServerSentEvent<CourseStreamEvent> frame) {
+        if (frame.id() != null) {
+            ids.add(frame.id());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.assigment.courseservice.services.impl;
+
+import com.assigment.common.InvalidCursorException;
+import com.assigment.courseservice.constants.Status;
+import com.assigment.courseservice.dto.response.CourseCursorPageResponse;
+import com.assigment.courseservice.dto.response.CourseResponse;
+import com.assigment.courseservice.entRepo.CourseEntity;
+import com.assigment.courseservice.entRepo.CourseRepository;
+import com.assigment.courseservice.exceptions.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseServiceImplCursorTests {
+
+    private static final Comparator<CourseEntity> LISTING_ORDER =
+            Comparator.comparing((CourseEntity course) -> ((Timestamp) course.getCreatedAt()).toInstant())
+                    .thenComparing(CourseEntity::getCourseID);
+
+    private final CourseRepository repository = mock(CourseRepository.class);
+    private final CourseServiceImpl service = new CourseServiceImpl(repository, mock(ApplicationEventPublisher.class));
+
+    // c-2 to c-5 were created in the same microsecond: only the id orders them. c-4 is disabled
+    private final List<CourseEntity> table = List.of(
+            course("c-5", "2024-01-01T10:00:00.000001Z", Status.ENABLE),
+            course("c-1", "2024-01-01T09:00:00Z", Status.ENABLE),
+            course("c-3", "2024-01-01T10:00:00.000001Z", Status.ENABLE),
+            course("c-6", "2024-01-01T11:00:00Z", Status.ENABLE),
+            course("c-4", "2024-01-01T10:00:00.000001Z", Status.DISABLE),
+            course("c-2", "2024-01-01T10:00:00.000001Z", Status.ENABLE));
+
+    @BeforeEach
+    void keysetQueries() {
+        when(repository.findFirstPage(anyCollection(), anyInt())).thenAnswer(invocation ->
+                ascending(invocation.getArgument(0), course -> true, invocation.getArgument(1)));
+        when(repository.findPageAfter(anyCollection(), any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            CourseEntity cursor = course(invocation.getArgument(2), invocation.<Timestamp>getArgument(1), null);
+            return ascending(invocation.getArgument(0),
+                    course -> LISTING_ORDER.compare(course, cursor) > 0, invocation.getArgument(3));
+        });
+        when(repository.findPageBefore(anyCollection(), any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            Collection<String> statuses = invocation.getArgument(0);
+            CourseEntity cursor = course(invocation.getArgument(2), invocation.<Timestamp>getArgument(1), null);
+            return table.stream()
+                    .filter(course -> statuses.contains(course.getCourseStatus().name()))
+                    .filter(course -> LISTING_ORDER.compare(course, cursor) < 0)
+                    .sorted(LISTING_ORDER.reversed())
+                    .limit(invocation.<Integer>getArgument(3))
+                    .toList();
+        });
+    }
+
+    @Test
+    void forwardPagesVisitEveryEnabledCourseOnceAcrossCreatedAtTies() {
+        List<String> seen = new ArrayList<>();
+        CourseCursorPageResponse page = service.getEnabledCoursesByCursor("", 2, false);
+        seen.addAll(ids(page));
+        while (page.isHasNext()) {
+            page = service.getEnabledCoursesByCursor(page.getNextCursor(), 2, false);
+            seen.addAll(ids(page));
+        }
+
+        assertThat(seen).containsExactly("c-1", "c-2", "c-3", "c-5", "c-6");
+    }
+
+    @Test
+    void backwardPagesReturnTheSamePagesInListingOrder() {
+        CourseCursorPageResponse first = service.getAllCoursesByCursor("", 2, false);
+        CourseCursorPageResponse second = service.getAllCoursesByCursor(first.getNextCursor(), 2, false);
+        CourseCursorPageResponse third = service.getAllCoursesByCursor(second.getNextCursor(), 2, false);
+        assertThat(ids(third)).containsExactly("c-5", "c-6");
+        assertThat(third.isHasNext()).isFalse();
+
+        CourseCursorPageResponse back = service.getAllCoursesByCursor(third.getPreviousCursor(), 2, false);
+        assertThat(ids(back)).isEqualTo(ids(second)).containsExactly("c-3", "c-4");
+
+        CourseCursorPageResponse start = service.getAllCoursesByCursor(back.getPreviousCursor(), 2, false);
+        assertThat(ids(start)).isEqualTo(ids(first)).containsExactly("c-1", "c-2");
+        assertThat(start.isHasPrevious()).isFalse();
+    }
+
+    @Test
+    void oversizedPageIsCapped() {
+        CourseCursorPageResponse page = service.getAllCoursesByCursor("", 1_000_000, false);
+
+        verify(repository).findFirstPage(anyCollection(), eq(CourseServiceImpl.MAX_CURSOR_PAGE_SIZE + 1));
+        assertThat(page.getSize()).isEqualTo(CourseServiceImpl.MAX_CURSOR_PAGE_SIZE);
+    }
+
+    @Test
+    void malformedCursorsAreRejectedAsBadRequest() {
+        List<String> cursors = List.of(
+                "not a cursor!",
+                token("1:a:1704103200"),
+                token("1:x:1704103200:0:c-1"),
+                token("2:a:1704103200:0:c-1"),
+                token("1:a:yesterday:0:c-1"),
+                token("1:b:" + Long.MAX_VALUE + ":" + Long.MAX_VALUE + ":c-1"));
+
+        for (String cursor : cursors) {
+            assertThatThrownBy(() -> service.getEnabledCoursesByCursor(cursor, 5, false))
+                    .as(cursor)
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+        assertThat(new GlobalExceptionHandler()
+                .handleInvalidCursor(new InvalidCursorException("Malformed page cursor"))
+                .getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private List<CourseEntity> ascending(Collection<String> statuses, Predicate<CourseEntity> filter, int limit) {
+        return table.stream()
+                .filter(course -> statuses.contains(course.getCourseStatus().name()))
+                .filter(filter)
+                .sorted(LISTING_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<String> ids(CourseCursorPageResponse page) {
+        return page.getCourses().stream().map(CourseResponse::getCourseID).toList();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CourseEntity course(String id, String createdAt, Status status) {
+        return course(id, Timestamp.from(Instant.parse(createdAt)), status);
+    }
+
+    private static CourseEntity course(String id, Timestamp createdAt, Status status) {
+        return CourseEntity.builder().courseID(id).createdAt(createdAt).courseStatus(status).build();
+    }
+}
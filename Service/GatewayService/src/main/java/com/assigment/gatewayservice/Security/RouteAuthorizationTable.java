@@ -0,0 +1,314 @@
+package com.assigment.gatewayservice.Security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Authorization rules compiled into one path-segment trie per HTTP method (plus one for rules on any method).
+ *
+ * <p>Rules keep the semantics of an ordered {@code pathMatchers} list: the first declared rule that matches
+ * wins. Every leaf remembers its rule's declaration order and every node the lowest order below it, so the
+ * walk only descends into branches that can still beat the best match found so far. Literal children are
+ * found by hashing the segment in place, so {@link #match} allocates nothing and its cost depends on the
+ * depth of the path, not on the number of rules.
+ *
+ * <p>Rule syntax: {@code METHOD PATH ACCESS}, e.g. {@code GET /course/{id} USER,ADMIN}.
+ * METHOD is an HTTP method or {@code *}. PATH segments are literals, {@code {name}} or {@code *} for one
+ * segment, or a final {@code **} for zero or more. ACCESS is {@code permitAll}, {@code authenticated},
+ * {@code denyAll} or a comma-separated list of roles. Instances are immutable and thread-safe.
+ */
+public final class RouteAuthorizationTable {
+
+    public enum Access { PERMIT_ALL, AUTHENTICATED, DENY_ALL, ROLES }
+
+    /**
+     * A compiled rule; {@code order} is its position in the rule list ({@code Integer.MAX_VALUE} for the default).
+     */
+    public static final class Rule {
+
+        private final String source;
+        private final int order;
+        private final Access access;
+        private final long roleMask;
+
+        private Rule(String source, int order, Access access, long roleMask) {
+            this.source = source;
+            this.order = order;
+            this.access = access;
+            this.roleMask = roleMask;
+        }
+
+        public Access access() {
+            return access;
+        }
+
+        /**
+         * Whether an authenticated caller holding the roles in {@code callerMask} is let through.
+         */
+        public boolean permits(long callerMask) {
+            return switch (access) {
+                case PERMIT_ALL, AUTHENTICATED -> true;
+                case DENY_ALL -> false;
+                case ROLES -> (roleMask & callerMask) != 0;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return source;
+        }
+    }
+
+    private static final String ANY_METHOD = "*";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final Map<String, Node> roots;
+    private final Node anyMethodRoot;
+    private final Rule defaultRule;
+    private final Map<String, Long> roleBits;
+    private final int size;
+
+    private RouteAuthorizationTable(Map<String, Node> roots, Node anyMethodRoot, Rule defaultRule,
+                                    Map<String, Long> roleBits, int size) {
+        this.roots = roots;
+        this.anyMethodRoot = anyMethodRoot;
+        this.defaultRule = defaultRule;
+        this.roleBits = roleBits;
+        this.size = size;
+    }
+
+    /* ============================
+       COMPILE
+       ============================ */
+
+    /**
+     * @throws IllegalArgumentException naming the first rule that cannot be parsed
+     */
+    public static RouteAuthorizationTable compile(List<String> rules, String defaultAccess) {
+        Map<String, Long> roleBits = new HashMap<>();
+        Map<String, Node> roots = new LinkedHashMap<>();
+        Node anyMethodRoot = new Node();
+
+        for (int order = 0; order < rules.size(); order++) {
+            String source = rules.get(order).trim();
+            String[] parts = source.split("\\s+");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Authorization rule must be 'METHOD PATH ACCESS': " + source);
+            }
+
+            String method = parts[0].toUpperCase(Locale.ROOT);
+            Node root = ANY_METHOD.equals(method) ? anyMethodRoot : roots.computeIfAbsent(method, m -> new Node());
+            Rule rule = parseAccess(source, order, parts[2], roleBits);
+            insert(root, parts[1], rule, source);
+        }
+
+        Rule defaultRule = parseAccess("default " + defaultAccess, Integer.MAX_VALUE, defaultAccess, roleBits);
+
+        roots.values().forEach(Node::freeze);
+        anyMethodRoot.freeze();
+        return new RouteAuthorizationTable(Map.copyOf(roots), anyMethodRoot, defaultRule, Map.copyOf(roleBits), rules.size());
+    }
+
+    private static Rule parseAccess(String source, int order, String access, Map<String, Long> roleBits) {
+        switch (access) {
+            case "permitAll":
+                return new Rule(source, order, Access.PERMIT_ALL, 0);
+            case "authenticated":
+                return new Rule(source, order, Access.AUTHENTICATED, 0);
+            case "denyAll":
+                return new Rule(source, order, Access.DENY_ALL, 0);
+            default:
+                long mask = 0;
+                for (String role : access.split(",")) {
+                    String authority = role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+                    Long bit = roleBits.get(authority);
+                    if (bit == null) {
+                        if (roleBits.size() == Long.SIZE) {
+                            throw new IllegalArgumentException("More than " + Long.SIZE + " distinct roles: " + source);
+                        }
+                        bit = 1L << roleBits.size();
+                        roleBits.put(authority, bit);
+                    }
+                    mask |= bit;
+                }
+                return new Rule(source, order, Access.ROLES, mask);
+        }
+    }
+
+    private static void insert(Node root, String pattern, Rule rule, String source) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Authorization rule path must start with '/': " + source);
+        }
+
+        Node node = root;
+        String[] segments = pattern.substring(1).split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only supported as the last segment: " + source);
+                }
+                // An earlier rule for the same place keeps precedence, as in an ordered matcher list
+                if (node.rest == null) {
+                    node.rest = rule;
+                }
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("Partial wildcards are not supported: " + source);
+            } else {
+                node = node.building.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        if (node.terminal == null) {
+            node.terminal = rule;
+        }
+    }
+
+    /* ============================
+       MATCH
+       ============================ */
+
+    /**
+     * The first rule (in declaration order) matching {@code method} and {@code path}, or the default rule.
+     */
+    public Rule match(String method, String path) {
+        Rule best = walk(roots.get(method), path, 0, null);
+        best = walk(anyMethodRoot, path, 0, best);
+        return best != null ? best : defaultRule;
+    }
+
+    /**
+     * Bits of the caller's roles known to this table; roles no rule mentions are ignored.
+     */
+    public long roleMask(Authentication authentication) {
+        long mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Long bit = roleBits.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static Rule walk(Node node, String path, int pos, Rule best) {
+        if (node == null || (best != null && node.minOrder >= best.order)) {
+            return best;
+        }
+        best = better(best, node.rest);
+
+        int length = path.length();
+        while (pos < length && path.charAt(pos) == '/') {
+            pos++;
+        }
+        if (pos == length) {
+            return better(best, node.terminal);
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = length;
+        }
+        best = walk(node.child(path, pos, end), path, end, best);
+        return walk(node.wildcard, path, end, best);
+    }
+
+    private static Rule better(Rule best, Rule candidate) {
+        return candidate != null && (best == null || candidate.order < best.order) ? candidate : best;
+    }
+
+    /* ============================
+       TRIE NODE
+       ============================ */
+    private static final class Node {
+
+        // Only used while compiling; replaced by the open-addressing table below
+        private Map<String, Node> building = new HashMap<>();
+
+        private String[] keys = new String[0];
+        private int[] hashes = new int[0];
+        private Node[] children = new Node[0];
+        private int tableMask;
+
+        private Node wildcard;
+        private Rule terminal;
+        private Rule rest;
+        private int minOrder = Integer.MAX_VALUE;
+
+        private int freeze() {
+            List<Node> all = new ArrayList<>(building.values());
+            if (wildcard != null) {
+                all.add(wildcard);
+            }
+
+            int capacity = Integer.highestOneBit(Math.max(1, building.size()) * 2) * 2;
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            children = new Node[capacity];
+            tableMask = capacity - 1;
+            building.forEach((key, child) -> {
+                int hash = spread(key.hashCode());
+                int slot = hash & tableMask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & tableMask;
+                }
+                keys[slot] = key;
+                hashes[slot] = hash;
+                children[slot] = child;
+            });
+            building = null;
+
+            for (Node child : all) {
+                minOrder = Math.min(minOrder, child.freeze());
+            }
+            if (terminal != null) {
+                minOrder = Math.min(minOrder, terminal.order);
+            }
+            if (rest != null) {
+                minOrder = Math.min(minOrder, rest.order);
+            }
+            return minOrder;
+        }
+
+        // Same hash as path.substring(start, end).hashCode(), without creating the substring
+        private Node child(String path, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + path.charAt(i);
+            }
+            int hash = spread(h);
+            int length = end - start;
+            for (int slot = hash & tableMask; keys[slot] != null; slot = (slot + 1) & tableMask) {
+                String key = keys[slot];
+                if (hashes[slot] == hash && key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[slot];
+                }
+            }
+            return null;
+        }
+
+        private static int spread(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+}
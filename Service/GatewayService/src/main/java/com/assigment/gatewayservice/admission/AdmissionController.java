@@ -0,0 +1,206 @@
+package com.assigment.gatewayservice.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* ============================
+   Overload state of the gateway, from event-loop lag and requests in flight (streaming routes excluded).
+   Level 0 admits everything, level 1 sheds BULK, level 2 sheds BULK and NORMAL; CRITICAL is always admitted.
+   Hysteresis: a level is entered as soon as either signal crosses its threshold, and left only after
+   both stayed below recover-ratio x threshold for cool-down, so the gateway does not flap at the edge.
+   Re-evaluated every probe-interval on its own thread: requests only read a volatile level.
+   ============================ */
+@Component
+public class AdmissionController {
+
+    private static final Logger logger = LogManager.getLogger(AdmissionController.class);
+
+    static final int ADMIT_ALL = 0;
+    static final int SHED_BULK = 1;
+    static final int SHED_NORMAL = 2;
+
+    private final EventLoopLagProbe lagProbe;
+    private final boolean enabled;
+    private final Duration interval;
+
+    // Indexed by level: [unused, SHED_BULK, SHED_NORMAL]
+    private final long[] lagThresholdNanos;
+    private final int[] inFlightThresholds;
+    private final double recoverRatio;
+    private final long coolDownNanos;
+    private final Duration retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<PriorityTier, Counter> shed = new EnumMap<>(PriorityTier.class);
+
+    private volatile int level = ADMIT_ALL;
+    private long calmSince = -1;
+
+    private ScheduledExecutorService evaluator;
+
+    public AdmissionController(
+            EventLoopLagProbe lagProbe,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.admission.enabled:true}") boolean enabled,
+            @Value("${gateway.admission.probe-interval:100ms}") Duration interval,
+            @Value("${gateway.admission.lag.shed-bulk:50ms}") Duration lagShedBulk,
+            @Value("${gateway.admission.lag.shed-normal:250ms}") Duration lagShedNormal,
+            @Value("${gateway.admission.inflight.shed-bulk:2000}") int inFlightShedBulk,
+            @Value("${gateway.admission.inflight.shed-normal:5000}") int inFlightShedNormal,
+            @Value("${gateway.admission.recover-ratio:0.5}") double recoverRatio,
+            @Value("${gateway.admission.cool-down:5s}") Duration coolDown,
+            @Value("${gateway.admission.retry-after:2s}") Duration retryAfter
+    ) {
+        this.lagProbe = lagProbe;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.lagThresholdNanos = new long[]{0, lagShedBulk.toNanos(), lagShedNormal.toNanos()};
+        this.inFlightThresholds = new int[]{0, inFlightShedBulk, inFlightShedNormal};
+        this.recoverRatio = recoverRatio;
+        this.coolDownNanos = coolDown.toNanos();
+        this.retryAfter = retryAfter;
+
+        for (PriorityTier tier : PriorityTier.values()) {
+            shed.put(tier, Counter.builder("gateway.admission.shed")
+                    .tag("tier", tier.name().toLowerCase())
+                    .description("Requests rejected with 503 by the admission controller")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("gateway.admission.level", this, controller -> controller.level).register(meterRegistry);
+        Gauge.builder("gateway.admission.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("gateway.admission.eventloop.lag", lagProbe, probe -> probe.maxLagNanos() / 1_000_000.0)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || evaluator != null) {
+            return;
+        }
+        evaluator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admission-evaluator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toNanos();
+        evaluator.scheduleAtFixedRate(this::evaluateSafely, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (evaluator != null) {
+            evaluator.shutdownNow();
+            evaluator = null;
+        }
+    }
+
+    /* ============================
+       REQUEST PATH
+       ============================ */
+
+    /**
+     * Admits the request (and counts it in flight) or records it as shed. Admitted requests must call
+     * {@link #release()} exactly once.
+     */
+    public boolean tryAdmit(PriorityTier tier) {
+        if (isShed(tier, level)) {
+            shed.get(tier).increment();
+            return false;
+        }
+        inFlight.incrementAndGet();
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    /* ============================
+       EVALUATION
+       ============================ */
+
+    private void evaluateSafely() {
+        try {
+            evaluate(lagProbe.maxLagNanos(), inFlight.get(), System.nanoTime());
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            logger.error("Admission evaluation failed: {}", e.toString());
+        }
+    }
+
+    synchronized void evaluate(long lagNanos, int currentInFlight, long now) {
+        int target = ADMIT_ALL;
+        for (int candidate = SHED_NORMAL; candidate > ADMIT_ALL; candidate--) {
+            if (lagNanos >= lagThresholdNanos[candidate] || currentInFlight >= inFlightThresholds[candidate]) {
+                target = candidate;
+                break;
+            }
+        }
+
+        int current = level;
+        if (target >= current) {
+            calmSince = -1;
+            if (target > current) {
+                changeLevel(current, target, lagNanos, currentInFlight);
+            }
+            return;
+        }
+
+        // Below the current level's threshold; step down one level once calm for the cool-down
+        boolean calm = lagNanos < lagThresholdNanos[current] * recoverRatio
+                && currentInFlight < inFlightThresholds[current] * recoverRatio;
+        if (!calm) {
+            calmSince = -1;
+            return;
+        }
+        if (calmSince < 0) {
+            calmSince = now;
+        } else if (now - calmSince >= coolDownNanos) {
+            calmSince = -1;
+            changeLevel(current, current - 1, lagNanos, currentInFlight);
+        }
+    }
+
+    int level() {
+        return level;
+    }
+
+    private void changeLevel(int from, int to, long lagNanos, int currentInFlight) {
+        level = to;
+        logger.warn("Admission level {} -> {} (event loop lag {} ms, in flight {})",
+                from, to, lagNanos / 1_000_000, currentInFlight);
+    }
+
+    private static boolean isShed(PriorityTier tier, int level) {
+        return switch (tier) {
+            case CRITICAL -> false;
+            case NORMAL -> level >= SHED_NORMAL;
+            case BULK -> level >= SHED_BULK;
+        };
+    }
+}
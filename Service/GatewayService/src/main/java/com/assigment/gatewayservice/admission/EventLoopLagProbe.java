@@ -0,0 +1,114 @@
+package com.assigment.gatewayservice.admission;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/* ============================
+   Scheduling lag of the server event loops: every probe-interval each loop runs a task that was scheduled
+   for "now"; how late it runs is the time a request callback would have waited in the loop's queue.
+   A probe that has not run yet counts with its current delay, so a wedged loop shows up immediately.
+   ============================ */
+@Component
+public class EventLoopLagProbe {
+
+    private static final Logger logger = LogManager.getLogger(EventLoopLagProbe.class);
+
+    private final ReactorResourceFactory resourceFactory;
+    private final long intervalNanos;
+
+    private final List<Probe> probes = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public EventLoopLagProbe(
+            ReactorResourceFactory resourceFactory,
+            @Value("${gateway.admission.probe-interval:100ms}") Duration interval
+    ) {
+        this.resourceFactory = resourceFactory;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        EventLoopGroup loops = resourceFactory.getLoopResources().onServer(true);
+        for (EventExecutor loop : loops) {
+            Probe probe = new Probe(loop);
+            probes.add(probe);
+            probe.schedule();
+        }
+        logger.info("Event loop lag probe started on {} loop(s), interval {} ms", probes.size(), intervalNanos / 1_000_000);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        probes.forEach(Probe::cancel);
+        probes.clear();
+    }
+
+    /**
+     * Worst current lag over all server event loops, 0 before the probe started.
+     */
+    public long maxLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (Probe probe : probes) {
+            max = Math.max(max, probe.lagNanos(now));
+        }
+        return max;
+    }
+
+    private final class Probe implements Runnable {
+
+        private final EventExecutor loop;
+        private volatile long expectedAt;
+        private volatile long lastLag;
+        private volatile ScheduledFuture<?> future;
+
+        private Probe(EventExecutor loop) {
+            this.loop = loop;
+        }
+
+        private void schedule() {
+            expectedAt = System.nanoTime() + intervalNanos;
+            future = loop.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            lastLag = Math.max(0, System.nanoTime() - expectedAt);
+            if (running) {
+                schedule();
+            }
+        }
+
+        private long lagNanos(long now) {
+            return Math.max(lastLag, now - expectedAt);
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.assigment.gatewayservice.admission;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+
+/* ============================
+   Maps a request to its PriorityTier from gateway.admission.tiers.{critical,bulk}: lists of "METHOD PATH"
+   (METHOD may be *). CRITICAL is checked first; anything unlisted is NORMAL.
+   Matches against the request's already parsed path, so classifying allocates nothing.
+   ============================ */
+@Component
+public class PriorityClassifier {
+
+    private record TierRule(String method, PathPattern pattern) {
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+
+    private final List<TierRule> critical;
+    private final List<TierRule> bulk;
+
+    public PriorityClassifier(Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.critical = parse(binder.bind("gateway.admission.tiers.critical", Bindable.listOf(String.class)).orElse(List.of()));
+        this.bulk = parse(binder.bind("gateway.admission.tiers.bulk", Bindable.listOf(String.class)).orElse(List.of()));
+    }
+
+    public PriorityTier classify(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        PathContainer path = request.getPath().pathWithinApplication();
+
+        for (TierRule rule : critical) {
+            if (rule.matches(method, path)) {
+                return PriorityTier.CRITICAL;
+            }
+        }
+        for (TierRule rule : bulk) {
+            if (rule.matches(method, path)) {
+                return PriorityTier.BULK;
+            }
+        }
+        return PriorityTier.NORMAL;
+    }
+
+    private static List<TierRule> parse(List<String> rules) {
+        PathPatternParser parser = new PathPatternParser();
+        return rules.stream()
+                .map(rule -> rule.trim().split("\\s+"))
+                .map(parts -> {
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Admission tier rule must be 'METHOD PATH': " + String.join(" ", parts));
+                    }
+                    String method = parts[0].equals("*") ? null : parts[0].toUpperCase(Locale.ROOT);
+                    return new TierRule(method, parser.parse(parts[1]));
+                })
+                .toList();
+    }
+}
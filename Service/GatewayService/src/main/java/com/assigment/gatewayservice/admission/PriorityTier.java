@@ -0,0 +1,10 @@
+package com.assigment.gatewayservice.admission;
+
+/**
+ * Shedding order under overload: BULK goes first, then NORMAL; CRITICAL (login, token refresh) is never shed.
+ */
+public enum PriorityTier {
+    CRITICAL,
+    NORMAL,
+    BULK
+}
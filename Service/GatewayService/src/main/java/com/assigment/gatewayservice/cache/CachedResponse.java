@@ -0,0 +1,8 @@
+package com.assigment.gatewayservice.cache;
+
+/**
+ * A fully buffered downstream response: enough to replay it without calling the service again.
+ * The body array is shared between readers and must not be modified.
+ */
+public record CachedResponse(int status, String contentType, byte[] body) {
+}
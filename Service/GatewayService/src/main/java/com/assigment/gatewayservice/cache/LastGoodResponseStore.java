@@ -0,0 +1,52 @@
+package com.assigment.gatewayservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/* ============================
+   Last successful response per request key, served by the Resilience filter when a read route's
+   circuit is open or its downstream call fails.
+   Unlike ResponseCache it ignores catalog invalidations: while the downstream is unavailable an
+   outdated page is still better than an error.
+   ============================ */
+@Component
+public class LastGoodResponseStore {
+
+    public record Entry(CachedResponse response, long storedAt) {
+
+        public long ageSeconds(long now) {
+            return Math.max(0, (now - storedAt) / 1000);
+        }
+    }
+
+    private final Cache<String, Entry> entries;
+
+    public LastGoodResponseStore(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.resilience.last-good.max-entries:10000}") long maxEntries,
+            @Value("${gateway.resilience.last-good.max-age:1h}") Duration maxAge
+    ) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(maxAge)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.response.last-good");
+    }
+
+    public void put(String key, CachedResponse response) {
+        entries.put(key, new Entry(response, System.currentTimeMillis()));
+    }
+
+    public Optional<Entry> get(String key) {
+        return Optional.ofNullable(entries.getIfPresent(key));
+    }
+}
@@ -0,0 +1,232 @@
+package com.assigment.gatewayservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* ============================
+   Two-tier response cache for read routes.
+   Local tier: bounded Caffeine map. Shared tier (optional): Redis, keyed by catalog version
+   so an invalidation orphans every old entry without a SCAN/DEL.
+   ============================ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = LogManager.getLogger(ResponseCache.class);
+
+    private static final String REDIS_PREFIX = "GW_RESPONSE:";
+
+    public enum Result { HIT, STALE, REVALIDATE, MISS }
+
+    /**
+     * Fresh until {@code freshUntil}; served stale (while one request refreshes it) until {@code staleUntil}.
+     */
+    public record Entry(CachedResponse response, long freshUntil, long staleUntil) {
+
+        public boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        public boolean isUsable(long now) {
+            return now < staleUntil;
+        }
+    }
+
+    private final Cache<String, Entry> local;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean redisTierEnabled;
+    private final Duration redisTimeout;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    public ResponseCache(
+            MeterRegistry meterRegistry,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${gateway.response-cache.max-entries:10000}") long maxEntries,
+            @Value("${gateway.response-cache.max-age:10m}") Duration maxAge,
+            @Value("${gateway.response-cache.redis-tier.enabled:false}") boolean redisTierEnabled,
+            @Value("${gateway.redis.timeout:200ms}") Duration redisTimeout
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisTierEnabled = redisTierEnabled;
+        this.redisTimeout = redisTimeout;
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(maxAge)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "gateway.response.local");
+
+        this.hits = resultCounter(meterRegistry, Result.HIT);
+        this.staleHits = resultCounter(meterRegistry, Result.STALE);
+        this.revalidations = resultCounter(meterRegistry, Result.REVALIDATE);
+        this.misses = resultCounter(meterRegistry, Result.MISS);
+
+        // Share of cacheable requests answered without calling the downstream service
+        Gauge.builder("gateway.response.cache.hit.ratio", this, ResponseCache::hitRatio)
+                .register(meterRegistry);
+
+        logger.info("ResponseCache initialized (maxEntries={}, maxAge={}, redisTier={})", maxEntries, maxAge, redisTierEnabled);
+    }
+
+    /* ============================
+       LOOKUP / STORE
+       ============================ */
+
+    /**
+     * Returns a still-usable entry from the local tier, then from Redis; empty on a miss or a Redis failure.
+     */
+    public Mono<Entry> lookup(String key) {
+        Entry entry = local.getIfPresent(key);
+        if (entry != null && entry.isUsable(System.currentTimeMillis())) {
+            return Mono.just(entry);
+        }
+        if (!redisTierEnabled) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.opsForValue().get(redisKey(key, version.get()))
+                .timeout(redisTimeout)
+                .map(this::decode)
+                .filter(shared -> shared.isUsable(System.currentTimeMillis()))
+                .doOnNext(shared -> local.put(key, shared))
+                .onErrorResume(e -> {
+                    logger.debug("Shared response cache lookup failed for '{}': {}", key, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Stores a captured response unless the catalog changed since the request started
+     * ({@code versionAtStart}), in which case the body may already be outdated.
+     */
+    public void store(String key, CachedResponse response, Duration ttl, Duration staleWhileRevalidate, long versionAtStart) {
+        if (version.get() != versionAtStart) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(response, now + ttl.toMillis(), now + ttl.toMillis() + staleWhileRevalidate.toMillis());
+        local.put(key, entry);
+
+        if (redisTierEnabled) {
+            redisTemplate.opsForValue()
+                    .set(redisKey(key, versionAtStart), encode(entry), ttl.plus(staleWhileRevalidate))
+                    .timeout(redisTimeout)
+                    .subscribe(
+                            stored -> { },
+                            e -> logger.debug("Shared response cache store failed for '{}': {}", key, e.toString()));
+        }
+    }
+
+    /* ============================
+       STALE-WHILE-REVALIDATE
+       ============================ */
+
+    /**
+     * True for exactly one caller per key until {@link #endRevalidation(String)}; the others keep serving stale.
+     */
+    public boolean tryBeginRevalidation(String key) {
+        return revalidating.add(key);
+    }
+
+    public void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+
+    /* ============================
+       INVALIDATION
+       ============================ */
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Applies the catalog version published by the owning service; any increase drops the local tier.
+     * The version never goes backwards: a startup/reconnect read of COURSE:VERSION can complete after a
+     * newer pub/sub message, and applying it would serve Redis-tier entries of the older version.
+     */
+    public void onVersion(long newVersion) {
+        long previous = version.getAndAccumulate(newVersion, Math::max);
+        if (newVersion > previous) {
+            local.invalidateAll();
+            logger.debug("Response cache invalidated (version {} -> {})", previous, newVersion);
+        }
+    }
+
+    /* ============================
+       METRICS
+       ============================ */
+
+    public void record(Result result) {
+        switch (result) {
+            case HIT -> hits.increment();
+            case STALE -> staleHits.increment();
+            case REVALIDATE -> revalidations.increment();
+            case MISS -> misses.increment();
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + staleHits.count();
+        double total = served + revalidations.count() + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, Result result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .tag("result", result.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private static String redisKey(String key, long version) {
+        return REDIS_PREFIX + version + ":" + key;
+    }
+
+    private String encode(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode cached response", e);
+        }
+    }
+
+    private Entry decode(String json) {
+        try {
+            return objectMapper.readValue(json, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot decode cached response", e);
+        }
+    }
+}
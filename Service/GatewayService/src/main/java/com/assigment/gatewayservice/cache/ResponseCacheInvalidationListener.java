@@ -0,0 +1,86 @@
+package com.assigment.gatewayservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/* ============================
+   Follows the catalog version CourseService publishes after every committed mutation.
+   On every (re)subscribe the current version is read back, so messages missed while
+   disconnected still invalidate the cache.
+   ============================ */
+@Component
+public class ResponseCacheInvalidationListener {
+
+    private static final Logger logger = LogManager.getLogger(ResponseCacheInvalidationListener.class);
+
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ResponseCache responseCache;
+    private final String channel;
+    private final String versionKey;
+
+    private Disposable subscription;
+
+    public ResponseCacheInvalidationListener(
+            ReactiveRedisMessageListenerContainer listenerContainer,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ResponseCache responseCache,
+            @Value("${gateway.response-cache.invalidation.channel:course.invalidation}") String channel,
+            @Value("${gateway.response-cache.invalidation.version-key:COURSE:VERSION}") String versionKey
+    ) {
+        this.listenerContainer = listenerContainer;
+        this.redisTemplate = redisTemplate;
+        this.responseCache = responseCache;
+        this.channel = channel;
+        this.versionKey = versionKey;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscription = listenerContainer.receiveLater(ChannelTopic.of(channel))
+                // Subscribed first, then read the version: nothing published in between is lost
+                .flatMapMany(messages -> syncVersion().thenMany(messages))
+                .map(message -> message.getMessage())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> logger.warn("Invalidation channel '{}' lost, resubscribing: {}",
+                                channel, signal.failure().toString())))
+                .subscribe(this::applyVersion);
+
+        logger.info("Listening for response cache invalidations on '{}'", channel);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Void> syncVersion() {
+        return redisTemplate.opsForValue().get(versionKey)
+                .doOnNext(this::applyVersion)
+                .then();
+    }
+
+    private void applyVersion(String version) {
+        try {
+            responseCache.onVersion(Long.parseLong(version.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed catalog version '{}' on '{}'", version, channel);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.assigment.gatewayservice.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/* ============================
+   The catalog pages CourseService materializes on disk (see its CatalogPageMaterializer), as seen by
+   this gateway. A background thread polls the CURRENT pointer and, when it moves, loads that version's
+   manifest into an immutable snapshot; the request path only reads the snapshot and never touches the
+   disk except to send a file.
+   ============================ */
+@Component
+public class StaticCatalog {
+
+    private static final Logger logger = LogManager.getLogger(StaticCatalog.class);
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String MANIFEST_FILE = "manifest.properties";
+
+    /**
+     * One page file: where it is and how many bytes to send.
+     */
+    public record PageFile(Path path, long length) {
+    }
+
+    /**
+     * Files of one published version, keyed by {@code size/page} and {@code size/page.gz}.
+     */
+    public record Snapshot(long version, Map<String, PageFile> files) {
+
+        public PageFile find(int size, int page, boolean gzip) {
+            return files.get(size + "/" + page + (gzip ? ".gz" : ""));
+        }
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration pollInterval;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "static-catalog-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+
+    public StaticCatalog(
+            @Value("${gateway.static-catalog.enabled:true}") boolean enabled,
+            @Value("${gateway.static-catalog.dir:${java.io.tmpdir}/course-catalog}") Path directory,
+            @Value("${gateway.static-catalog.poll-interval:500ms}") Duration pollInterval
+    ) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        poller.scheduleWithFixedDelay(this::refresh, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Serving static catalog pages from {} (poll every {})", directory, pollInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * The last loaded version, or null when none is available (disabled, not built yet, unreadable).
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /* ============================
+       POLLING (static-catalog-poll thread)
+       ============================ */
+
+    public void refresh() {
+        try {
+            long current = Long.parseLong(Files.readString(directory.resolve(CURRENT_FILE)).trim());
+            Snapshot loaded = snapshot;
+            if (loaded == null || loaded.version() != current) {
+                snapshot = load(current);
+                logger.debug("Static catalog version {} loaded ({} files)", current, snapshot.files().size());
+            }
+        } catch (NoSuchFileException e) {
+            snapshot = null; // not built yet, or the directory was cleared
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the loaded version: the filter only uses it while it matches the catalog version
+            logger.warn("Could not refresh static catalog from {}: {}", directory, e.toString());
+        }
+    }
+
+    private Snapshot load(long version) throws IOException {
+        Path base = directory.resolve("v" + version);
+        Properties manifest = new Properties();
+        try (InputStream in = Files.newInputStream(base.resolve(MANIFEST_FILE))) {
+            manifest.load(in);
+        }
+
+        Map<String, PageFile> files = new HashMap<>();
+        for (String size : manifest.getProperty("sizes", "").split(",")) {
+            if (size.isBlank()) {
+                continue;
+            }
+            int pages = Integer.parseInt(manifest.getProperty("size." + size + ".pages", "0"));
+            for (int page = 0; page < pages; page++) {
+                Path sizeDirectory = base.resolve("size-" + size);
+                String prefix = "size." + size + ".page." + page;
+                files.put(size + "/" + page, new PageFile(
+                        sizeDirectory.resolve("page-" + page + ".json"),
+                        Long.parseLong(manifest.getProperty(prefix + ".json"))));
+                files.put(size + "/" + page + ".gz", new PageFile(
+                        sizeDirectory.resolve("page-" + page + ".json.gz"),
+                        Long.parseLong(manifest.getProperty(prefix + ".gz"))));
+            }
+        }
+        return new Snapshot(version, Map.copyOf(files));
+    }
+}
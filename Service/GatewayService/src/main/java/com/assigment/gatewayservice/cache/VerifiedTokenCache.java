@@ -0,0 +1,87 @@
+package com.assigment.gatewayservice.cache;
+
+import com.assigment.jwtcodec.VerifiedClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.function.Function;
+
+/* ============================
+   Token digest -> verified claims.
+   Bounded by size, and every entry expires at min(max-ttl, token exp).
+   ============================ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Cache<TokenDigest, VerifiedClaims> cache;
+
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.jwt.cache.max-size:100000}") long maxSize,
+            @Value("${gateway.jwt.cache.max-ttl:10m}") Duration maxTtl
+    ) {
+        long maxTtlNanos = maxTtl.toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedClaims value, long currentTime) {
+                        long untilExp = Duration.ofMillis(value.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExp));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt.verified");
+    }
+
+    /**
+     * Returns the cached claims for this token, running {@code verifier} at most once per token
+     * while it stays cached. A null result from the verifier (invalid token) is not cached.
+     */
+    public VerifiedClaims get(String token, Function<String, VerifiedClaims> verifier) {
+        return cache.get(TokenDigest.of(token), digest -> verifier.apply(token));
+    }
+
+    /* ============================
+       KEY
+       ============================ */
+    record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            MessageDigest sha256 = SHA_256.get();
+            ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
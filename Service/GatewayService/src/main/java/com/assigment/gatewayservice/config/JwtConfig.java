@@ -0,0 +1,27 @@
+package com.assigment.gatewayservice.config;
+
+import com.assigment.jwtcodec.InternalIdentityCodec;
+import com.assigment.jwtcodec.JwtCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class JwtConfig {
+
+    // Key decoded and Mac provider checked once at startup
+    @Bean
+    public JwtCodec jwtCodec(@Value("${spring.security.jwt.secret-key}") String secretKey) {
+        return JwtCodec.fromBase64Secret(secretKey);
+    }
+
+    // Signs the X-Internal-Identity header forwarded to the services
+    @Bean
+    public InternalIdentityCodec internalIdentityCodec(
+            @Value("${internal-identity.secret-key}") String secretKey,
+            @Value("${internal-identity.max-age:30s}") Duration maxAge) {
+        return InternalIdentityCodec.fromBase64Secret(secretKey, maxAge);
+    }
+}
@@ -0,0 +1,65 @@
+package com.assigment.gatewayservice.config;
+
+import com.assigment.gatewayservice.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+
+@Configuration
+public class MetricsConfig {
+
+    private final AtomicLong activeConnections = new AtomicLong();
+
+    // Safety net: a misconfigured or dynamically discovered route set can never explode the series count
+    @Bean
+    public MeterFilter routeTagLimit(@Value("${gateway.metrics.max-routes:100}") int maxRoutes) {
+        return MeterFilter.maximumAllowableTags(GatewayMetrics.ROUTE_REQUESTS, "route", maxRoutes, MeterFilter.deny());
+    }
+
+    @Bean
+    public NettyServerCustomizer connectionCountingCustomizer() {
+        return httpServer -> httpServer.doOnConnection(connection -> {
+            activeConnections.incrementAndGet();
+            connection.onDispose(activeConnections::decrementAndGet);
+        });
+    }
+
+    // A growing task queue means the event loops cannot keep up, before latency shows it
+    @Bean
+    public MeterBinder nettyServerMetrics(ReactorResourceFactory resourceFactory) {
+        return registry -> {
+            Gauge.builder("gateway.http.server.connections.active", activeConnections, AtomicLong::get)
+                    .description("Open client connections to the gateway")
+                    .register(registry);
+
+            EventLoopGroup loops = resourceFactory.getLoopResources().onServer(true);
+            Gauge.builder("gateway.netty.eventloop.pending.tasks", loops, group -> pendingTasks(group, Long::sum))
+                    .tag("stat", "total")
+                    .register(registry);
+            Gauge.builder("gateway.netty.eventloop.pending.tasks", loops, group -> pendingTasks(group, Math::max))
+                    .tag("stat", "max")
+                    .register(registry);
+        };
+    }
+
+    private static double pendingTasks(EventLoopGroup group, LongBinaryOperator combine) {
+        long result = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor loop) {
+                result = combine.applyAsLong(result, loop.pendingTasks());
+            }
+        }
+        return result;
+    }
+}
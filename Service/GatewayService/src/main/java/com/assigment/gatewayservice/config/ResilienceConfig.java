@@ -0,0 +1,61 @@
+package com.assigment.gatewayservice.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/* ============================
+   Registries behind the Resilience route filter: one circuit breaker and one bulkhead per route,
+   created on first use. Breaker state, call outcomes and rejections are published as
+   resilience4j.circuitbreaker.* / resilience4j.bulkhead.* meters tagged with the route id.
+   ============================ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${gateway.resilience.circuit-breaker.slow-call-duration:2s}") Duration slowCallDuration,
+            @Value("${gateway.resilience.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${gateway.resilience.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${gateway.resilience.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${gateway.resilience.circuit-breaker.open-duration:15s}") Duration openDuration,
+            @Value("${gateway.resilience.circuit-breaker.half-open-calls:5}") int halfOpenCalls
+    ) {
+        CircuitBreakerConfig defaults = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(defaults);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    // Per-route limits come from the filter's maxConcurrent; this is only the fallback
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(100)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
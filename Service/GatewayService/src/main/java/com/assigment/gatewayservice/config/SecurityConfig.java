@@ -2,12 +2,12 @@ package com.assigment.gatewayservice.config;
 
 import com.assigment.gatewayservice.Security.CustomAccessDeniedHandler;
 import com.assigment.gatewayservice.Security.CustomAuthenticationEntryPoint;
+import com.assigment.gatewayservice.Security.RouteAuthorizationManager;
 import com.assigment.gatewayservice.filter.JwtAuthenticationWebFilter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -24,7 +24,8 @@ public class SecurityConfig {
             ServerHttpSecurity http,
             JwtAuthenticationWebFilter jwtFilter,
             CustomAuthenticationEntryPoint authEntryPoint,
-            CustomAccessDeniedHandler accessDeniedHandler) {
+            CustomAccessDeniedHandler accessDeniedHandler,
+            RouteAuthorizationManager routeAuthorizationManager) {
 
         logger.info("Initializing SecurityWebFilterChain with JWT filter at AUTHENTICATION order");
 
@@ -34,21 +35,8 @@ public class SecurityConfig {
                         .authenticationEntryPoint(authEntryPoint)
                         .accessDeniedHandler(accessDeniedHandler)
                 )
-                .authorizeExchange(exchange -> exchange
-                        .pathMatchers("/auth/**").permitAll()
-                        .pathMatchers(HttpMethod.GET, "/api/user").hasAnyRole("USER", "ADMIN")
-                        .pathMatchers(HttpMethod.POST, "/api/user").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.PUT, "/api/user/{userID}").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.GET, "/api/users/verification/{userID}").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.DELETE, "/api/user/{userID}").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.POST, "/course/**").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.PUT, "/course/**").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.PATCH, "/course/{id}/status").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.GET, "/course/all").hasRole("ADMIN")
-                        .pathMatchers(HttpMethod.GET, "/course/{id}").hasAnyRole("ADMIN", "USER")
-                        .pathMatchers(HttpMethod.GET, "/course").hasAnyRole("USER", "ADMIN")
-                        .anyExchange().authenticated()
-                )
+                // Rules compiled once into a method + path-segment trie (gateway.authorization.rules)
+                .authorizeExchange(exchange -> exchange.anyExchange().access(routeAuthorizationManager))
                 .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                 .build();
 
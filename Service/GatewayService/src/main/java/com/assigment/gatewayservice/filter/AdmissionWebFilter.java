@@ -0,0 +1,62 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.admission.AdmissionController;
+import com.assigment.gatewayservice.admission.PriorityClassifier;
+import com.assigment.gatewayservice.admission.PriorityTier;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control ahead of security, JWT verification and routing: a shed request costs one
+ * classification and an empty 503 with Retry-After. Runs right after {@link RouteMetricsWebFilter}
+ * so shed requests are still timed. Exchanges routed to a streaming route give their in-flight slot back
+ * early, through {@link StreamingAdmissionGlobalFilter}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AdmissionWebFilter implements WebFilter {
+
+    // Runnable giving back this exchange's in-flight slot; runs admission.release() at most once
+    static final String RELEASE_ATTR = AdmissionWebFilter.class.getName() + ".release";
+
+    private final AdmissionController admission;
+    private final PriorityClassifier classifier;
+    private final String retryAfterSeconds;
+
+    public AdmissionWebFilter(AdmissionController admission, PriorityClassifier classifier) {
+        this.admission = admission;
+        this.classifier = classifier;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, admission.retryAfter().toSeconds()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PriorityTier tier = classifier.classify(exchange.getRequest());
+
+        if (!admission.tryAdmit(tier)) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return response.setComplete();
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                admission.release();
+            }
+        };
+        exchange.getAttributes().put(RELEASE_ATTR, release);
+        return chain.filter(exchange).doFinally(signal -> release.run());
+    }
+}
@@ -0,0 +1,172 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.dto.response.GatewayErrorResponse;
+import com.assigment.gatewayservice.ratelimit.AuthRateLimiter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+
+/**
+ * Route filter {@code AuthRateLimit}: per-IP and per-email limits in front of the credential endpoints.
+ *
+ * <p>The (small) JSON body is buffered once to read the top-level {@code email} field and then replayed
+ * downstream. Rejected requests get a 429 with {@code Retry-After} straight from the gateway; they never
+ * reach UserService, so a credential-stuffing burst costs no BCrypt, DB or RabbitMQ work.
+ */
+@Component
+public class AuthRateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private static final Logger logger = LogManager.getLogger(AuthRateLimitGatewayFilterFactory.class);
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final AuthRateLimiter rateLimiter;
+    private final RemoteAddressResolver addressResolver;
+    private final int maxBodyBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthRateLimitGatewayFilterFactory(
+            AuthRateLimiter rateLimiter,
+            @Value("${gateway.rate-limit.trusted-proxies:0}") int trustedProxies,
+            @Value("${gateway.rate-limit.max-body-bytes:4096}") int maxBodyBytes
+    ) {
+        this.rateLimiter = rateLimiter;
+        // X-Forwarded-For is only believed for hops we put in front of the gateway ourselves
+        this.addressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() { };
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String clientIp = clientIp(exchange);
+
+            if (request.getHeaders().getContentLength() > maxBodyBytes) {
+                return reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large", 0);
+            }
+
+            return DataBufferUtils.join(request.getBody(), maxBodyBytes)
+                    .map(AuthRateLimitGatewayFilterFactory::toBytes)
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(body -> rateLimiter.tryAcquire(clientIp, extractEmail(body))
+                            .flatMap(decision -> {
+                                if (!decision.allowed()) {
+                                    logger.debug("Rate limited {} {} from {}", request.getMethod(), request.getPath(), clientIp);
+                                    return reject(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                                            "Too many requests, please retry later", decision.retryAfterMillis());
+                                }
+                                ServerHttpRequest replayed = replay(request, exchange.getResponse().bufferFactory(), body);
+                                return chain.filter(exchange.mutate().request(replayed).build());
+                            }))
+                    .onErrorResume(DataBufferLimitException.class,
+                            e -> reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "Request body too large", 0));
+        };
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    // Top-level "email" only, lower-cased; anything unreadable just means no per-email bucket
+    private static String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("email".equals(field) && value == JsonToken.VALUE_STRING) {
+                    String email = parser.getText().trim().toLowerCase(Locale.ROOT);
+                    return email.isEmpty() ? null : email;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    // Same bytes, so the original Content-Length stays valid
+    private static ServerHttpRequest replay(ServerHttpRequest request, DataBufferFactory bufferFactory, byte[] body) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body.length == 0 ? Flux.empty() : Flux.defer(() -> Flux.just(bufferFactory.wrap(body)));
+            }
+        };
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message, long retryAfterMillis) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (retryAfterMillis > 0) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000));
+        }
+
+        GatewayErrorResponse error = GatewayErrorResponse.builder()
+                .status(status.value())
+                .message(message)
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(error);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.CachedResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.Collectors;
+
+/* ============================
+   Shared by the filters that replay a buffered response to more than one caller
+   (ResponseCache, Coalesce): what makes two requests equivalent, and which responses may be shared.
+   ============================ */
+final class CacheSupport {
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private CacheSupport() {
+    }
+
+    /**
+     * Path, raw query and the caller's sorted roles. The course routes answer differently per role
+     * but never per user, so requests with the same key can share one response.
+     */
+    static Mono<String> requestKey(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        String pathAndQuery = request.getPath().value() + (query == null ? "" : "?" + query);
+
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(context -> context.getAuthentication())
+                .filter(authentication -> authentication.isAuthenticated())
+                .map(authentication -> authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .sorted()
+                        .collect(Collectors.joining(",")))
+                .defaultIfEmpty(ANONYMOUS)
+                .map(roles -> pathAndQuery + "|" + roles);
+    }
+
+    /**
+     * 200 JSON without per-client markers; never event streams or NDJSON.
+     */
+    static boolean isShareable(ServerHttpResponse response) {
+        if (!HttpStatus.OK.equals(response.getStatusCode())) {
+            return false;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        MediaType contentType = headers.getContentType();
+        if (contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return false; // also rules out text/event-stream and application/x-ndjson
+        }
+
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        return !headers.containsKey(HttpHeaders.SET_COOKIE);
+    }
+
+    static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+
+        HttpHeaders headers = response.getHeaders();
+        if (cached.contentType() != null) {
+            headers.setContentType(MediaType.parseMediaType(cached.contentType()));
+        }
+        headers.setContentLength(cached.body().length);
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+}
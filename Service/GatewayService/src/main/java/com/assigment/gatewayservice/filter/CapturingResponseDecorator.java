@@ -0,0 +1,101 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.CachedResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Streams the downstream body to the client unchanged while keeping a copy of it.
+ *
+ * <p>Only responses accepted by {@code capturable} (checked once status and headers are known)
+ * and no larger than {@code maxBodyBytes} are handed to {@code onCaptured}, after the body has
+ * been written completely. Streaming writes ({@code writeAndFlushWith}) are never captured.
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final int maxBodyBytes;
+    private final Predicate<ServerHttpResponse> capturable;
+    private final Consumer<CachedResponse> onCaptured;
+
+    public CapturingResponseDecorator(
+            ServerHttpResponse delegate,
+            int maxBodyBytes,
+            Predicate<ServerHttpResponse> capturable,
+            Consumer<CachedResponse> onCaptured) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.capturable = capturable;
+        this.onCaptured = onCaptured;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        long contentLength = getHeaders().getContentLength();
+        if (!capturable.test(getDelegate()) || contentLength > maxBodyBytes) {
+            return super.writeWith(body);
+        }
+
+        BodyCopy copy = new BodyCopy(maxBodyBytes);
+        return super.writeWith(Flux.from(body).doOnNext(copy::append))
+                .doOnSuccess(done -> {
+                    byte[] bytes = copy.toByteArray();
+                    if (bytes != null) {
+                        MediaType contentType = getHeaders().getContentType();
+                        onCaptured.accept(new CachedResponse(
+                                getStatusCode() == null ? 200 : getStatusCode().value(),
+                                contentType == null ? null : contentType.toString(),
+                                bytes));
+                    }
+                });
+    }
+
+    /* ============================
+       BODY COPY
+       ============================ */
+    private static final class BodyCopy {
+
+        private final int limit;
+        private ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+        BodyCopy(int limit) {
+            this.limit = limit;
+        }
+
+        // Copies the readable bytes without moving the buffer's read position
+        void append(DataBuffer buffer) {
+            if (out == null) {
+                return;
+            }
+            if (out.size() + buffer.readableByteCount() > limit) {
+                out = null; // too large: give up on the copy, the client still gets everything
+                return;
+            }
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer chunk = iterator.next();
+                    if (chunk.hasArray()) {
+                        out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                    } else {
+                        byte[] bytes = new byte[chunk.remaining()];
+                        chunk.get(bytes);
+                        out.write(bytes, 0, bytes.length);
+                    }
+                }
+            }
+        }
+
+        byte[] toByteArray() {
+            return out == null ? null : out.toByteArray();
+        }
+    }
+}
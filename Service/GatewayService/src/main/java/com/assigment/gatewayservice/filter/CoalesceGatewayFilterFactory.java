@@ -0,0 +1,165 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Route filter {@code Coalesce}: single-flight for identical GETs.
+ *
+ * <p>The first request for a key (path, query, roles; see {@link CacheSupport#requestKey}) goes downstream;
+ * identical requests arriving while it is in flight wait up to {@code maxWait} and are answered with its
+ * buffered body. If the leader's response is not shareable (not a 200 JSON, larger than {@code maxBodyBytes},
+ * failed or cancelled) or the wait times out, each waiter makes its own downstream call as before.
+ */
+@Component
+public class CoalesceGatewayFilterFactory extends AbstractGatewayFilterFactory<CoalesceGatewayFilterFactory.Config> {
+
+    private static final Logger logger = LogManager.getLogger(CoalesceGatewayFilterFactory.class);
+
+    private static final String COALESCED = "COALESCED";
+
+    private final ConcurrentHashMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter fallbacks;
+
+    public CoalesceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+
+        this.leaders = roleCounter(meterRegistry, "leader");
+        this.shared = roleCounter(meterRegistry, "shared");
+        this.fallbacks = roleCounter(meterRegistry, "fallback");
+
+        // Share of requests answered by another request's downstream call
+        Gauge.builder("gateway.coalesce.collapse.ratio", this, CoalesceGatewayFilterFactory::collapseRatio)
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalesce.inflight", inFlight, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWait", "maxBodyBytes");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Wraps the response before NettyWriteResponseFilter writes it, like ResponseCache
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            return CacheSupport.requestKey(exchange).flatMap(key -> {
+                Sinks.One<CachedResponse> flight = Sinks.one();
+                Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, flight);
+
+                return existing == null
+                        ? lead(exchange, chain, key, flight, config)
+                        : follow(exchange, chain, key, existing, config);
+            });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain,
+                            String key, Sinks.One<CachedResponse> flight, Config config) {
+        leaders.increment();
+
+        CapturingResponseDecorator capturing = new CapturingResponseDecorator(
+                exchange.getResponse(),
+                config.getMaxBodyBytes(),
+                CacheSupport::isShareable,
+                captured -> {
+                    // Requests arriving from now on start a new flight rather than reuse this answer
+                    inFlight.remove(key, flight);
+                    flight.tryEmitValue(captured);
+                });
+
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    flight.tryEmitEmpty(); // no-op if already answered; otherwise releases the waiters
+                });
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain,
+                              String key, Sinks.One<CachedResponse> flight, Config config) {
+        return flight.asMono()
+                .timeout(config.getMaxWait())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(TimeoutException.class, e -> {
+                    logger.debug("Coalesced request for '{}' waited {} without an answer", key, config.getMaxWait());
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(response -> {
+                    if (response.isPresent()) {
+                        shared.increment();
+                        return CacheSupport.write(exchange, response.get(), COALESCED);
+                    }
+                    fallbacks.increment();
+                    return chain.filter(exchange);
+                });
+    }
+
+    private double collapseRatio() {
+        double total = leaders.count() + shared.count() + fallbacks.count();
+        return total == 0 ? 0 : shared.count() / total;
+    }
+
+    private static Counter roleCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalesce.requests")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /* ============================
+       CONFIG
+       ============================ */
+    public static class Config {
+
+        private Duration maxWait = Duration.ofSeconds(2);
+        private int maxBodyBytes = 256 * 1024;
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
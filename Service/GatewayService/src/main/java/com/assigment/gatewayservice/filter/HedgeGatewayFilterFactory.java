@@ -0,0 +1,448 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.metrics.LatencyWindow;
+import com.assigment.gatewayservice.ratelimit.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Route filter {@code Hedge}: cuts the tail latency of idempotent GETs on {@code lb://} routes.
+ *
+ * <p>The first attempt goes to the instance the route's load balancer picks. If it has not answered
+ * (status and headers) after the route's recent {@code percentile} latency, clamped to
+ * {@code [minDelay, maxDelay]}, a second attempt goes to a different instance and whichever answers
+ * first is streamed to the client; the other one is cancelled. Hedges are paid from a per-route
+ * {@link RetryBudget}, so they add at most {@code gateway.hedge.budget.ratio} of the route's load.
+ *
+ * <p>The filter sends hedged GETs itself (gateway {@link HttpClient}, header filters and load-balancer
+ * lifecycle, as the routing filter would) and ends the chain there: list it last on a route, after
+ * {@code Resilience}, and only on routes without path-rewriting filters. Other methods pass through.
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final Logger logger = LogManager.getLogger(HedgeGatewayFilterFactory.class);
+
+    private static final int WINDOW_SIZE = 1024;
+    // Until then the percentile is noise and maxDelay is used instead
+    private static final int MIN_SAMPLES = 50;
+    // Picks in a row that may return the first attempt's instance before giving up on a hedge
+    private static final int ALTERNATE_PICKS = 3;
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory;
+    private final HttpClient httpClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+
+    // Survive route refreshes, like the budgets in ResilienceGatewayFilterFactory
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    private final double budgetRatio;
+    private final int budgetMaxBalance;
+    private final int budgetReservePerSecond;
+
+    public HedgeGatewayFilterFactory(
+            ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory,
+            HttpClient httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.hedge.budget.ratio:0.1}") double budgetRatio,
+            @Value("${gateway.hedge.budget.max-balance:10}") int budgetMaxBalance,
+            @Value("${gateway.hedge.budget.reserve-per-second:0}") int budgetReservePerSecond
+    ) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.httpClient = httpClient;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+        this.budgetRatio = budgetRatio;
+        this.budgetMaxBalance = budgetMaxBalance;
+        this.budgetReservePerSecond = budgetReservePerSecond;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("percentile", "minDelay", "maxDelay");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getPercentile() <= 0 || config.getPercentile() >= 1) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1: " + config.getPercentile());
+        }
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        RouteHedging hedging = routes.computeIfAbsent(routeId, this::newRouteHedging);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET
+                    || route == null || !"lb".equals(route.getUri().getScheme())) {
+                return chain.filter(exchange);
+            }
+            return hedged(exchange, route, hedging, config);
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private Mono<Void> hedged(ServerWebExchange exchange, Route route, RouteHedging hedging, Config config) {
+        String serviceId = route.getUri().getHost();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = clientFactory.getInstance(serviceId);
+        if (loadBalancer == null) {
+            return Mono.error(NotFoundException.create(false, "No loadbalancer available for " + serviceId));
+        }
+
+        Call call = new Call(exchange, lifecycles(serviceId),
+                HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange));
+        hedging.budget().recordRequest();
+
+        Attempt primary = new Attempt(call);
+        Mono<Answer> first = choose(loadBalancer, primary, null, 1)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(false, "Unable to find instance for " + serviceId)))
+                .flatMap(lbResponse -> send(call, primary, lbResponse))
+                .doOnSuccess(answer -> hedging.window().record(System.nanoTime() - primary.startNanos))
+                // Lost the race: its real latency is at least this long
+                .doOnCancel(() -> hedging.window().record(System.nanoTime() - primary.startNanos));
+
+        AtomicReference<Counter> outcome = new AtomicReference<>(hedging.primaryOnly());
+        Mono<Answer> second = Mono.delay(Duration.ofNanos(hedging.delayNanos(config)))
+                .then(Mono.defer(() -> {
+                    if (!hedging.budget().tryRetry()) {
+                        outcome.set(hedging.budgetExhausted());
+                        return Mono.empty();
+                    }
+                    Attempt hedge = new Attempt(call);
+                    return choose(loadBalancer, hedge, primary.instance(), ALTERNATE_PICKS)
+                            .doOnSuccess(lbResponse -> outcome.set(lbResponse == null ? hedging.noAlternate() : hedging.hedged()))
+                            .flatMap(lbResponse -> send(call, hedge, lbResponse));
+                }));
+
+        Mono<Answer> race = Mono.firstWithValue(first, second)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e);
+
+        Duration timeout = responseTimeout(route);
+        if (timeout != null) {
+            race = race.timeout(timeout, Mono.error(() -> new ResponseStatusException(
+                    HttpStatus.GATEWAY_TIMEOUT, "Response took longer than timeout: " + timeout)));
+        }
+
+        return race
+                .doOnNext(answer -> {
+                    if (outcome.get() == hedging.hedged()) {
+                        (answer.attempt() == primary ? hedging.primaryWon() : hedging.hedgeWon()).increment();
+                    }
+                })
+                .doFinally(signal -> outcome.get().increment())
+                .flatMap(answer -> write(exchange, answer));
+    }
+
+    private Mono<Response<ServiceInstance>> choose(ReactiveLoadBalancer<ServiceInstance> loadBalancer, Attempt attempt,
+                                                   ServiceInstance avoid, int picksLeft) {
+        return Mono.from(loadBalancer.choose(attempt.lbRequest)).flatMap(lbResponse -> {
+            if (lbResponse.hasServer() && (avoid == null || !sameInstance(avoid, lbResponse.getServer()))) {
+                attempt.lbResponse = lbResponse;
+                return Mono.just(lbResponse);
+            }
+            if (picksLeft > 1 && lbResponse.hasServer()) {
+                return choose(loadBalancer, attempt, avoid, picksLeft - 1);
+            }
+            attempt.complete(new CompletionContext<>(CompletionContext.Status.DISCARD, attempt.lbRequest, lbResponse));
+            return Mono.empty();
+        });
+    }
+
+    private Mono<Answer> send(Call call, Attempt attempt, Response<ServiceInstance> lbResponse) {
+        AtomicBoolean answered = new AtomicBoolean();
+        return Mono.defer(() -> {
+            call.lifecycles().forEach(lifecycle -> lifecycle.onStartRequest(attempt.lbRequest, lbResponse));
+            attempt.startNanos = System.nanoTime();
+
+            return httpClient
+                    .headers(headers -> {
+                        call.requestHeaders().forEach(headers::add);
+                        // Set by Netty from the instance URI
+                        headers.remove(HttpHeaders.HOST);
+                    })
+                    .request(io.netty.handler.codec.http.HttpMethod.GET)
+                    .uri(LoadBalancerUriTools.reconstructURI(lbResponse.getServer(), call.exchange().getRequest().getURI()))
+                    .responseConnection((response, connection) -> Mono.just(new Answer(response, connection, attempt)))
+                    .next();
+        }).flatMap(answer -> {
+            answered.set(true);
+            attempt.complete(new CompletionContext<>(CompletionContext.Status.SUCCESS, attempt.lbRequest, lbResponse,
+                    responseData(call, answer.response())));
+            if (!call.decided().compareAndSet(false, true)) {
+                // Both answered at the same moment; the other one is already being written
+                answer.connection().dispose();
+                return Mono.empty();
+            }
+            return Mono.just(answer);
+        }).doOnError(e -> attempt.complete(new CompletionContext<>(CompletionContext.Status.FAILED, e,
+                attempt.lbRequest, lbResponse)))
+                // Cancelled loser: completed so the instance's in-flight count is released, without a failure
+                .doOnCancel(() -> {
+                    if (!answered.get()) {
+                        attempt.complete(new CompletionContext<>(CompletionContext.Status.SUCCESS,
+                                attempt.lbRequest, lbResponse));
+                    }
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Answer answer) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders received = new HttpHeaders();
+        answer.response().responseHeaders().forEach(header -> received.add(header.getKey(), header.getValue()));
+
+        response.setStatusCode(HttpStatusCode.valueOf(answer.response().status().code()));
+        response.getHeaders().addAll(HttpHeadersFilter.filter(headersFilters.getIfAvailable(), received, exchange,
+                HttpHeadersFilter.Type.RESPONSE));
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+        Connection connection = answer.connection();
+        return response.writeWith(connection.inbound().receive().retain().map(buffer -> wrap(buffer, response)))
+                .doOnError(e -> connection.dispose())
+                .doOnCancel(connection::dispose);
+    }
+
+    // As NettyWriteResponseFilter: zero-copy on Netty, copied for any other buffer factory
+    private static DataBuffer wrap(ByteBuf buffer, ServerHttpResponse response) {
+        DataBufferFactory factory = response.bufferFactory();
+        if (factory instanceof NettyDataBufferFactory netty) {
+            return netty.wrap(buffer);
+        }
+        try {
+            return factory.wrap(ByteBufUtil.getBytes(buffer));
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static ResponseData responseData(Call call, HttpClientResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.responseHeaders().forEach(header -> headers.add(header.getKey(), header.getValue()));
+        return new ResponseData(HttpStatusCode.valueOf(response.status().code()), headers,
+                new LinkedMultiValueMap<>(), new RequestData(call.exchange().getRequest()));
+    }
+
+    // The validator keeps only lifecycles supporting exactly these three types, so the cast is safe
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Set<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles(String serviceId) {
+        Set supported = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                clientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        return (Set<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>>) supported;
+    }
+
+    private static Duration responseTimeout(Route route) {
+        Object value = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (value == null) {
+            return null;
+        }
+        long millis = value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+        return millis < 0 ? null : Duration.ofMillis(millis);
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private RouteHedging newRouteHedging(String route) {
+        RouteHedging hedging = new RouteHedging(
+                new LatencyWindow(WINDOW_SIZE),
+                new RetryBudget(budgetRatio, budgetMaxBalance, budgetReservePerSecond),
+                outcomeCounter(route, "primary"),
+                outcomeCounter(route, "hedged"),
+                outcomeCounter(route, "budget_exhausted"),
+                outcomeCounter(route, "no_alternate"),
+                winCounter(route, "primary"),
+                winCounter(route, "hedge"));
+
+        // Share of requests that sent a second attempt, and share of those the second attempt won
+        Gauge.builder("gateway.hedge.rate", hedging, RouteHedging::hedgeRate)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.hedge.win.ratio", hedging, RouteHedging::winRatio)
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("gateway.hedge.budget.balance", hedging.budget(), RetryBudget::balance)
+                .tag("route", route)
+                .register(meterRegistry);
+        logger.debug("Hedging enabled on route {}", route);
+        return hedging;
+    }
+
+    private Counter outcomeCounter(String route, String outcome) {
+        return Counter.builder("gateway.hedge.requests")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter winCounter(String route, String winner) {
+        return Counter.builder("gateway.hedge.wins")
+                .tag("route", route)
+                .tag("winner", winner)
+                .register(meterRegistry);
+    }
+
+    private record RouteHedging(LatencyWindow window, RetryBudget budget,
+                                Counter primaryOnly, Counter hedged, Counter budgetExhausted, Counter noAlternate,
+                                Counter primaryWon, Counter hedgeWon) {
+
+        long delayNanos(Config config) {
+            long min = config.getMinDelay().toNanos();
+            long max = config.getMaxDelay().toNanos();
+            long percentile = window.percentileNanos(config.getPercentile(), MIN_SAMPLES);
+            return percentile < 0 ? max : Math.max(min, Math.min(max, percentile));
+        }
+
+        double hedgeRate() {
+            double total = primaryOnly.count() + hedged.count() + budgetExhausted.count() + noAlternate.count();
+            return total == 0 ? 0 : hedged.count() / total;
+        }
+
+        double winRatio() {
+            double total = primaryWon.count() + hedgeWon.count();
+            return total == 0 ? 0 : hedgeWon.count() / total;
+        }
+    }
+
+    // One client request: what both attempts share
+    private record Call(ServerWebExchange exchange,
+                        Set<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles,
+                        HttpHeaders requestHeaders, AtomicBoolean decided) {
+
+        Call(ServerWebExchange exchange, Set<LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance>> lifecycles,
+             HttpHeaders requestHeaders) {
+            this(exchange, lifecycles, requestHeaders, new AtomicBoolean());
+        }
+    }
+
+    // One downstream attempt, with its own load-balancer request so lifecycle timings are per instance
+    private static final class Attempt {
+
+        private final Call call;
+        private final DefaultRequest<RequestDataContext> lbRequest;
+        private volatile Response<ServiceInstance> lbResponse;
+        private volatile long startNanos = System.nanoTime();
+
+        private Attempt(Call call) {
+            this.call = call;
+            this.lbRequest = new DefaultRequest<>(new RequestDataContext(new RequestData(call.exchange().getRequest())));
+            call.lifecycles().forEach(lifecycle -> lifecycle.onStart(lbRequest));
+        }
+
+        private ServiceInstance instance() {
+            Response<ServiceInstance> chosen = lbResponse;
+            return chosen == null ? null : chosen.getServer();
+        }
+
+        private void complete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+            call.lifecycles().forEach(lifecycle -> lifecycle.onComplete(completion));
+        }
+    }
+
+    private record Answer(HttpClientResponse response, Connection connection, Attempt attempt) {
+    }
+
+    /* ============================
+       CONFIG
+       ============================ */
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.assigment.gatewayservice.filter;
 
+import com.assigment.gatewayservice.metrics.GatewayMetrics;
+import com.assigment.gatewayservice.revocation.RevocationRegistry;
 import com.assigment.gatewayservice.service.JwtService;
+import com.assigment.gatewayservice.service.RedisService;
+import com.assigment.jwtcodec.InternalIdentityCodec;
+import com.assigment.jwtcodec.VerifiedClaims;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,7 +23,7 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationWebFilter implements WebFilter {
@@ -26,63 +31,109 @@ public class JwtAuthenticationWebFilter implements WebFilter {
     private static final Logger logger = LogManager.getLogger(JwtAuthenticationWebFilter.class);
 
     private final JwtService jwtService;
-    private final RedisTemplate<String, String> redisTemplate;
-
-    public JwtAuthenticationWebFilter(JwtService jwtService, RedisTemplate<String, String> redisTemplate) {
+    private final RedisService redisService;
+    private final RevocationRegistry revocationRegistry;
+    private final GatewayMetrics metrics;
+    private final InternalIdentityCodec identityCodec;
+
+    // local: in-memory revocation set (no Redis on the hot path); redis: per-request session lookup
+    private final boolean localRevocation;
+
+    public JwtAuthenticationWebFilter(
+            JwtService jwtService,
+            RedisService redisService,
+            RevocationRegistry revocationRegistry,
+            GatewayMetrics metrics,
+            InternalIdentityCodec identityCodec,
+            @Value("${gateway.auth.revocation-mode:local}") String revocationMode
+    ) {
         this.jwtService = jwtService;
-        this.redisTemplate = redisTemplate;
+        this.redisService = redisService;
+        this.revocationRegistry = revocationRegistry;
+        this.metrics = metrics;
+        this.identityCodec = identityCodec;
+        this.localRevocation = !"redis".equalsIgnoreCase(revocationMode);
+        logger.info("JwtAuthenticationWebFilter initialized (revocationMode={})", localRevocation ? "local" : "redis");
     }
 
     @Override
-    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    public Mono<Void> filter(ServerWebExchange original, WebFilterChain chain) {
+
+        // Only this filter may vouch for an identity downstream; never forward a client's own
+        ServerWebExchange exchange = original.getRequest().getHeaders().containsKey(InternalIdentityCodec.HEADER)
+                ? original.mutate().request(request -> request.headers(headers -> headers.remove(InternalIdentityCodec.HEADER))).build()
+                : original;
 
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("No Authorization header found or header invalid for request: {}", exchange.getRequest().getPath());
-            return chain.filter(exchange); // no token
+            // Normal for /auth/** and probes: per-request noise, not a warning
+            logger.debug("No Authorization header found or header invalid for request: {}", exchange.getRequest().getPath());
+            return anonymous(exchange, chain); // no token
         }
 
         String accessToken = authHeader.substring(7);
 
-        // Validate Access Token signature and expiration
-        if (!jwtService.isTokenValid(accessToken)) {
-            logger.warn("Invalid or expired access token for request: {}", exchange.getRequest().getPath());
-            return chain.filter(exchange); // invalid token
+        // Validate Access Token signature and expiration (cached per token digest)
+        long verifyStart = System.nanoTime();
+        Optional<VerifiedClaims> verified = jwtService.verify(accessToken);
+        metrics.recordJwtVerify(verifyStart, verified.isPresent());
+        if (verified.isEmpty()) {
+            logger.debug("Invalid or expired access token for request: {}", exchange.getRequest().getPath());
+            return anonymous(exchange, chain); // invalid token
         }
 
-        // Extract username and role from Access Token
-        String usernameFromAccessToken = jwtService.extractUsername(accessToken);
-        String roleFromAccessToken = jwtService.extractRole(accessToken);
-
-        // Check Redis for any REFRESH token with this username as value
-        Set<String> refreshKeys = redisTemplate.keys("REFRESH:*");
-        boolean valid = false;
+        // Username and role come from the single verification above
+        VerifiedClaims claims = verified.get();
 
-        for (String key : refreshKeys) {
-            String usernameInRedis = redisTemplate.opsForValue().get(key);
-            if (usernameFromAccessToken.equals(usernameInRedis)) {
-                valid = true;
-                break;
+        // Local revocation set once it is in sync; the Redis session index until then (startup, outage)
+        if (localRevocation && revocationRegistry.isSynced()) {
+            if (revocationRegistry.isRevoked(claims.subject(), claims.issuedAtMillis())) {
+                logger.warn("Revoked access token for user: {}", claims.subject());
+                return anonymous(exchange, chain); // revoked by logout, delete, disable or password reset
             }
+            return authenticate(exchange, chain, claims);
         }
 
-        if (!valid) {
-            logger.warn("No valid refresh token found in Redis for user: {}", usernameFromAccessToken);
-            return chain.filter(exchange); // no valid refresh token found
-        }
+        // Check the per-user session index for a live refresh token without leaving the event loop
+        long lookupStart = System.nanoTime();
+        return redisService.hasActiveSession(claims.subject())
+                .flatMap(active -> {
+                    metrics.recordRedisLookup(lookupStart, active);
+                    if (!active) {
+                        logger.warn("No valid refresh token found in Redis for user: {}", claims.subject());
+                        return anonymous(exchange, chain); // no valid refresh token found
+                    }
+                    return authenticate(exchange, chain, claims);
+                });
+    }
 
+    private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain, VerifiedClaims claims) {
         // Build Authorities from role
-        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + roleFromAccessToken));
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + claims.role()));
 
         UsernamePasswordAuthenticationToken authentication =
-                new UsernamePasswordAuthenticationToken(usernameFromAccessToken, null, authorities);
+                new UsernamePasswordAuthenticationToken(claims.subject(), null, authorities);
 
         SecurityContext context = new SecurityContextImpl(authentication);
 
-        logger.info("Authenticated user '{}' with role '{}' for request: {}", usernameFromAccessToken, roleFromAccessToken, exchange.getRequest().getPath());
+        logger.debug("Authenticated user '{}' with role '{}' for request: {}", claims.subject(), claims.role(), exchange.getRequest().getPath());
 
-        return chain.filter(exchange)
+        // Services behind the gateway trust this instead of verifying the JWT again
+        ServerWebExchange identified = exchange.mutate()
+                .request(request -> request.header(InternalIdentityCodec.HEADER, identityCodec.encode(claims)))
+                .build();
+
+        long downstreamStart = System.nanoTime();
+        return chain.filter(identified)
+                .doFinally(signal -> metrics.recordDownstream(downstreamStart, true))
                 .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(context)));
     }
+
+    // Rest of the chain without an authentication; security decides whether that is allowed
+    private Mono<Void> anonymous(ServerWebExchange exchange, WebFilterChain chain) {
+        long downstreamStart = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> metrics.recordDownstream(downstreamStart, false));
+    }
 }
@@ -0,0 +1,35 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.loadbalancer.InstanceStatsRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gives back the instance in-flight slot of an exchange that ends without the load-balancer lifecycle
+ * completing. {@link ReactiveLoadBalancerClientFilter} only completes it on success or error, so a client
+ * disconnect or a timeout would otherwise leave the chosen instance one request busier for good, and
+ * PeakEwma and LeastOutstanding would steer traffic away from it. Runs just outside that filter, so every
+ * retry attempt passes through it; the slot is released at most once.
+ */
+@Component
+public class LoadBalancerInFlightGlobalFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal -> {
+            if (exchange.getAttributes().remove(InstanceStatsRegistry.IN_FLIGHT_ATTR) instanceof Runnable release) {
+                release.run();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,308 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.LastGoodResponseStore;
+import com.assigment.gatewayservice.ratelimit.RetryBudget;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route filter {@code Resilience}: keeps one slow or failing downstream from tying up the gateway.
+ *
+ * <ul>
+ *   <li>Bulkhead: at most {@code maxConcurrent} calls in flight on the route; extra calls are rejected at once.</li>
+ *   <li>Circuit breaker per route: errors, 5xx answers and slow calls open it; while open no call is sent.</li>
+ *   <li>Retries (opt-in, {@code retries} defaults to 0): GETs that failed before any response byte was sent are
+ *       retried up to {@code retries} times, but only while the route's {@link RetryBudget} allows it. Only for
+ *       routes whose GETs have no side effects: a retry after a lost response repeats the call.</li>
+ *   <li>Fallback ({@code fallback: true}, GET only): a rejected or failed call is answered with the last
+ *       successful response for the same request key ({@code X-Cache: FALLBACK}), otherwise 503 with Retry-After.
+ *       Only for routes whose responses do not depend on the user (see {@link CacheSupport#requestKey}).</li>
+ * </ul>
+ */
+@Component
+public class ResilienceGatewayFilterFactory extends AbstractGatewayFilterFactory<ResilienceGatewayFilterFactory.Config> {
+
+    private static final Logger logger = LogManager.getLogger(ResilienceGatewayFilterFactory.class);
+
+    private static final String FALLBACK = "FALLBACK";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final LastGoodResponseStore lastGood;
+    private final MeterRegistry meterRegistry;
+
+    // Survive route refreshes, like the breakers and bulkheads in their registries
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    private final double retryRatio;
+    private final int retryMaxBalance;
+    private final int retryReservePerSecond;
+
+    public ResilienceGatewayFilterFactory(
+            CircuitBreakerRegistry circuitBreakers,
+            BulkheadRegistry bulkheads,
+            LastGoodResponseStore lastGood,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.resilience.retry-budget.ratio:0.2}") double retryRatio,
+            @Value("${gateway.resilience.retry-budget.max-balance:20}") int retryMaxBalance,
+            @Value("${gateway.resilience.retry-budget.reserve-per-second:1}") int retryReservePerSecond
+    ) {
+        super(Config.class);
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.lastGood = lastGood;
+        this.meterRegistry = meterRegistry;
+        this.retryRatio = retryRatio;
+        this.retryMaxBalance = retryMaxBalance;
+        this.retryReservePerSecond = retryReservePerSecond;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxConcurrent", "retries", "fallback");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String route = config.getRouteId() == null ? "default" : config.getRouteId();
+
+        Guard guard = new Guard(
+                route,
+                circuitBreakers.circuitBreaker(route),
+                bulkheads.bulkhead(route, BulkheadConfig.custom()
+                        .maxConcurrentCalls(config.getMaxConcurrent())
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                budgets.computeIfAbsent(route, this::newBudget));
+
+        // Wraps the response before NettyWriteResponseFilter writes it; listed after ResponseCache and
+        // Coalesce on a route so that only calls which really go downstream pass the breaker
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            boolean read = exchange.getRequest().getMethod() == HttpMethod.GET;
+            if (!read || !config.isFallback()) {
+                return guarded(exchange, chain, guard, read ? config.getRetries() : 0)
+                        .onErrorResume(e -> isRejection(e) && !exchange.getResponse().isCommitted(),
+                                e -> unavailable(exchange, guard, e));
+            }
+
+            return CacheSupport.requestKey(exchange).flatMap(key -> {
+                CapturingResponseDecorator capturing = new CapturingResponseDecorator(
+                        exchange.getResponse(),
+                        config.getMaxBodyBytes(),
+                        CacheSupport::isShareable,
+                        captured -> lastGood.put(key, captured));
+
+                ServerWebExchange capturingExchange = exchange.mutate().response(capturing).build();
+                return guarded(capturingExchange, chain, guard, config.getRetries())
+                        .onErrorResume(e -> !exchange.getResponse().isCommitted(),
+                                e -> fallback(exchange, guard, key, e));
+            });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private record Guard(String route, CircuitBreaker breaker, Bulkhead bulkhead, RetryBudget budget) {
+    }
+
+    private Mono<Void> guarded(ServerWebExchange exchange, GatewayFilterChain chain, Guard guard, int retries) {
+        return Mono.defer(() -> {
+            if (!guard.bulkhead().tryAcquirePermission()) {
+                reject(guard, "bulkhead_full");
+                return Mono.error(BulkheadFullException.createBulkheadFullException(guard.bulkhead()));
+            }
+            guard.budget().recordRequest();
+
+            return attempt(exchange, chain, guard, retries)
+                    .doFinally(signal -> guard.bulkhead().onComplete());
+        });
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Guard guard, int retriesLeft) {
+        return Mono.defer(() -> {
+            CircuitBreaker breaker = guard.breaker();
+            if (!breaker.tryAcquirePermission()) {
+                reject(guard, "circuit_open");
+                return Mono.error(CallNotPermittedException.createCallNotPermittedException(breaker));
+            }
+
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doOnSuccess(done -> {
+                        long elapsed = System.nanoTime() - start;
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && status.is5xxServerError()) {
+                            // Already written to the client, so counted against the breaker but never retried
+                            breaker.onError(elapsed, TimeUnit.NANOSECONDS, new ResponseStatusException(status));
+                        } else {
+                            breaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnCancel(breaker::releasePermission)
+                    .onErrorResume(e -> {
+                        breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+
+                        if (retriesLeft <= 0 || !isRetryable(exchange, e)) {
+                            return Mono.error(e);
+                        }
+                        if (!guard.budget().tryRetry()) {
+                            retryCounter(guard, "budget_exhausted");
+                            return Mono.error(e);
+                        }
+
+                        retryCounter(guard, "retried");
+                        logger.debug("Retrying {} on route {} after: {}", exchange.getRequest().getPath(), guard.route(), e.toString());
+                        ServerWebExchangeUtils.reset(exchange);
+                        return attempt(exchange, chain, guard, retriesLeft - 1);
+                    });
+        });
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, Guard guard, String key, Throwable error) {
+        return lastGood.get(key)
+                .map(entry -> {
+                    fallbackCounter(guard, "served");
+                    exchange.getResponse().getHeaders().set(HttpHeaders.AGE,
+                            String.valueOf(entry.ageSeconds(System.currentTimeMillis())));
+                    return CacheSupport.write(exchange, entry.response(), FALLBACK);
+                })
+                .orElseGet(() -> {
+                    fallbackCounter(guard, "missing");
+                    return isRejection(error) ? unavailable(exchange, guard, error) : Mono.error(error);
+                });
+    }
+
+    private RetryBudget newBudget(String route) {
+        RetryBudget budget = new RetryBudget(retryRatio, retryMaxBalance, retryReservePerSecond);
+        Gauge.builder("gateway.retry.budget.balance", budget, RetryBudget::balance)
+                .tag("route", route)
+                .register(meterRegistry);
+        return budget;
+    }
+
+    private Mono<Void> unavailable(ServerWebExchange exchange, Guard guard, Throwable rejection) {
+        // Open breaker: retry once it may let a probe through; full bulkhead: almost at once
+        long retryAfter = rejection instanceof CallNotPermittedException
+                ? Math.max(1, guard.breaker().getCircuitBreakerConfig()
+                        .getWaitIntervalFunctionInOpenState().apply(1) / 1000)
+                : 1;
+
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * Errors that happened before any response byte was sent, on a call that can be repeated.
+     * "No instance" is not retried: another attempt would find the same empty list.
+     */
+    private static boolean isRetryable(ServerWebExchange exchange, Throwable e) {
+        return !exchange.getResponse().isCommitted()
+                && !isRejection(e)
+                && !(e instanceof NotFoundException);
+    }
+
+    private static boolean isRejection(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    private void reject(Guard guard, String reason) {
+        meterRegistry.counter("gateway.resilience.rejections", "route", guard.route(), "reason", reason).increment();
+    }
+
+    private void retryCounter(Guard guard, String result) {
+        meterRegistry.counter("gateway.retry.attempts", "route", guard.route(), "result", result).increment();
+    }
+
+    private void fallbackCounter(Guard guard, String result) {
+        meterRegistry.counter("gateway.resilience.fallbacks", "route", guard.route(), "result", result).increment();
+    }
+
+    /* ============================
+       CONFIG
+       ============================ */
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+        private int maxConcurrent = 100;
+        private int retries = 0;
+        private boolean fallback = false;
+        private int maxBodyBytes = 256 * 1024;
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public boolean isFallback() {
+            return fallback;
+        }
+
+        public void setFallback(boolean fallback) {
+            this.fallback = fallback;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
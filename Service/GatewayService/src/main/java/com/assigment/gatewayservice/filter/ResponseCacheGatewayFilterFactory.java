@@ -0,0 +1,139 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.ResponseCache;
+import com.assigment.gatewayservice.cache.ResponseCache.Entry;
+import com.assigment.gatewayservice.cache.ResponseCache.Result;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Route filter {@code ResponseCache}: serves repeated GETs from {@link ResponseCache}.
+ *
+ * <p>Keyed by path, raw query and the caller's roles, since the course routes answer differently
+ * per role but never per user. Only {@code 200 application/json} bodies up to {@code maxBodyBytes}
+ * are stored; event streams, NDJSON and {@code Cache-Control: no-store/private} responses pass through.
+ * Once an entry is past {@code ttl} and within {@code staleWhileRevalidate}, one request refreshes it
+ * while concurrent requests are still answered from the stale copy.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "staleWhileRevalidate");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes it, like ModifyResponseBody does
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            return CacheSupport.requestKey(exchange).flatMap(key -> {
+                long versionAtStart = responseCache.version();
+
+                return responseCache.lookup(key)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(cached -> {
+                            if (cached.isEmpty()) {
+                                responseCache.record(Result.MISS);
+                                return fetchAndStore(exchange, chain, key, versionAtStart, config, Result.MISS);
+                            }
+
+                            Entry entry = cached.get();
+                            if (entry.isFresh(System.currentTimeMillis())) {
+                                responseCache.record(Result.HIT);
+                                return CacheSupport.write(exchange, entry.response(), Result.HIT.name());
+                            }
+                            if (!responseCache.tryBeginRevalidation(key)) {
+                                responseCache.record(Result.STALE);
+                                return CacheSupport.write(exchange, entry.response(), Result.STALE.name());
+                            }
+
+                            responseCache.record(Result.REVALIDATE);
+                            return fetchAndStore(exchange, chain, key, versionAtStart, config, Result.REVALIDATE)
+                                    .doFinally(signal -> responseCache.endRevalidation(key));
+                        });
+            });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private Mono<Void> fetchAndStore(ServerWebExchange exchange,
+                                     GatewayFilterChain chain,
+                                     String key, long versionAtStart, Config config, Result result) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            response.getHeaders().set(CacheSupport.CACHE_STATUS_HEADER, result.name());
+            return Mono.empty();
+        });
+
+        CapturingResponseDecorator capturing = new CapturingResponseDecorator(
+                response,
+                config.getMaxBodyBytes(),
+                CacheSupport::isShareable,
+                captured -> responseCache.store(key, captured, config.getTtl(), config.getStaleWhileRevalidate(), versionAtStart));
+
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    /* ============================
+       CONFIG
+       ============================ */
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+        private int maxBodyBytes = 256 * 1024;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.metrics.GatewayMetrics;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every exchange end to end, tagged with the matched route id and final status.
+ *
+ * <p>Runs as the outermost WebFilter so requests rejected by security (401/403) or the rate limiter
+ * are measured too; those never reach route matching and are tagged {@code route=none}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RouteMetricsWebFilter implements WebFilter {
+
+    private static final String NO_ROUTE = "none";
+
+    private final GatewayMetrics metrics;
+
+    public RouteMetricsWebFilter(GatewayMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    metrics.recordRoute(
+                            route != null ? route.getId() : NO_ROUTE,
+                            exchange.getRequest().getMethod(),
+                            statusTag(exchange, signal),
+                            start);
+                });
+    }
+
+    private static String statusTag(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED"; // client went away before the response completed
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? String.valueOf(status.value()) : "200";
+    }
+}
@@ -0,0 +1,209 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.common.ContentEncoding;
+import com.assigment.gatewayservice.cache.ResponseCache;
+import com.assigment.gatewayservice.cache.StaticCatalog;
+import com.assigment.gatewayservice.cache.StaticCatalog.PageFile;
+import com.assigment.gatewayservice.cache.StaticCatalog.Snapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Route filter {@code StaticCatalog}: answers {@code GET <path>?page=&size=} from the pages CourseService
+ * materialized on disk ({@link StaticCatalog}), sent with {@code sendfile} when the server supports it.
+ *
+ * <p>A page is served only while its version equals the catalog version this gateway follows
+ * ({@link ResponseCache#version()}); during a rebuild, for sizes or pages that were not materialized,
+ * and for any other query, the request continues down the route. ETags are strong
+ * ({@code "c<version>-<size>-<page>"}, {@code -gz} for the gzip variant) and answer
+ * {@code If-None-Match} with 304. List it first on the route so served requests skip the other filters.
+ */
+@Component
+public class StaticCatalogGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<StaticCatalogGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS = "STATIC";
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final StaticCatalog staticCatalog;
+    private final ResponseCache responseCache;
+
+    private final Counter served;
+    private final Counter notModified;
+    private final Counter fallback;
+
+    public StaticCatalogGatewayFilterFactory(StaticCatalog staticCatalog,
+                                             ResponseCache responseCache,
+                                             MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.staticCatalog = staticCatalog;
+        this.responseCache = responseCache;
+        this.served = resultCounter(meterRegistry, "served");
+        this.notModified = resultCounter(meterRegistry, "not_modified");
+        this.fallback = resultCounter(meterRegistry, "fallback");
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("path", "defaultSize");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !config.getPath().equals(request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+
+            Snapshot snapshot = staticCatalog.snapshot();
+            int[] pageAndSize = pageAndSize(request.getQueryParams(), config.getDefaultSize());
+            if (snapshot == null || snapshot.version() != responseCache.version() || pageAndSize == null) {
+                fallback.increment();
+                return chain.filter(exchange);
+            }
+
+            int page = pageAndSize[0];
+            int size = pageAndSize[1];
+            boolean gzip = ContentEncoding.acceptsGzip(String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING)));
+            PageFile file = snapshot.find(size, page, gzip);
+            if (file == null) {
+                fallback.increment();
+                return chain.filter(exchange);
+            }
+
+            ServerHttpResponse response = exchange.getResponse();
+            HttpHeaders headers = response.getHeaders();
+            String etag = "\"c" + snapshot.version() + "-" + size + "-" + page + (gzip ? "-gz" : "") + "\"";
+            headers.setETag(etag);
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            headers.set(CacheSupport.CACHE_STATUS_HEADER, CACHE_STATUS);
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+            if (matches(request.getHeaders().getIfNoneMatch(), etag)) {
+                notModified.increment();
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+
+            response.setStatusCode(HttpStatus.OK);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(file.length());
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            served.increment();
+
+            Mono<Void> write = response instanceof ZeroCopyHttpOutputMessage zeroCopy
+                    ? zeroCopy.writeWith(file.path(), 0, file.length())
+                    : response.writeWith(DataBufferUtils.read(file.path(), response.bufferFactory(), READ_BUFFER_SIZE));
+
+            return write.onErrorResume(e -> {
+                if (response.isCommitted()) {
+                    return Mono.error(e);
+                }
+                // File gone before anything was sent (e.g. pruned): let the service answer instead
+                for (String header : List.of(HttpHeaders.ETAG, HttpHeaders.VARY, CacheSupport.CACHE_STATUS_HEADER,
+                        HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING)) {
+                    headers.remove(header);
+                }
+                response.setStatusCode(null);
+                exchange.getAttributes().remove(ServerWebExchangeUtils.GATEWAY_ALREADY_ROUTED_ATTR);
+                fallback.increment();
+                return chain.filter(exchange);
+            });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    /**
+     * {@code [page, size]} when the query holds nothing but valid {@code page} and {@code size}; null otherwise.
+     */
+    private static int[] pageAndSize(MultiValueMap<String, String> query, int defaultSize) {
+        for (String name : query.keySet()) {
+            if (!name.equals("page") && !name.equals("size")) {
+                return null;
+            }
+        }
+        try {
+            int page = intParam(query, "page", 0);
+            int size = intParam(query, "size", defaultSize);
+            return page < 0 || size < 1 ? null : new int[]{page, size};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int intParam(MultiValueMap<String, String> query, String name, int defaultValue) {
+        List<String> values = query.get(name);
+        if (values == null) {
+            return defaultValue;
+        }
+        if (values.size() != 1) {
+            throw new NumberFormatException("repeated " + name);
+        }
+        return Integer.parseInt(values.get(0));
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.static.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /* ============================
+       CONFIG
+       ============================ */
+    public static class Config {
+
+        // Listing path the pages were materialized for, and the size it uses when none is given
+        private String path = "/course";
+        private int defaultSize = 5;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getDefaultSize() {
+            return defaultSize;
+        }
+
+        public void setDefaultSize(int defaultSize) {
+            this.defaultSize = defaultSize;
+        }
+    }
+}
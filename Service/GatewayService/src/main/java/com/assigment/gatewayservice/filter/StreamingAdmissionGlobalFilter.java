@@ -0,0 +1,37 @@
+package com.assigment.gatewayservice.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gives back the admission in-flight slot of an exchange as soon as it is routed to a
+ * {@link StreamingRoutes streaming route}. {@link AdmissionWebFilter} runs before route matching, so it
+ * admits (or sheds) every request alike; an open SSE subscriber or a running export then no longer counts
+ * towards the in-flight thresholds that shed BULK and NORMAL traffic.
+ */
+@Component
+public class StreamingAdmissionGlobalFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (StreamingRoutes.isStreaming(route)) {
+            Runnable release = exchange.getAttribute(AdmissionWebFilter.RELEASE_ATTR);
+            if (release != null) {
+                release.run();
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
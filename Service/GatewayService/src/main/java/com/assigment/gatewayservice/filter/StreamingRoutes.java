@@ -0,0 +1,24 @@
+package com.assigment.gatewayservice.filter;
+
+import org.springframework.cloud.gateway.route.Route;
+
+/* ============================
+   Routes flagged with metadata "streaming: true" (SSE, bulk import/export): one exchange stays open for
+   minutes. Such exchanges say nothing about load or instance speed, so they are left out of the admission
+   in-flight count and of the load balancers' instance stats.
+   ============================ */
+public final class StreamingRoutes {
+
+    public static final String METADATA_KEY = "streaming";
+
+    private StreamingRoutes() {
+    }
+
+    public static boolean isStreaming(Route route) {
+        if (route == null) {
+            return false;
+        }
+        Object value = route.getMetadata().get(METADATA_KEY);
+        return value instanceof Boolean flag ? flag : value != null && Boolean.parseBoolean(value.toString());
+    }
+}
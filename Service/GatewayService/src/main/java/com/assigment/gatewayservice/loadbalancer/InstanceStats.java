@@ -0,0 +1,93 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live view of one service instance as seen from this gateway: requests in flight, a peak-sensitive
+ * EWMA of response time and a short ejection after consecutive errors. Thread-safe.
+ */
+public final class InstanceStats {
+
+    private final String serviceId;
+    private final String instance;
+    private final double decayNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this
+    private double ewmaNanos;
+    private long lastObservedNanos = System.nanoTime();
+    private int consecutiveErrors;
+    private long ejectedUntilNanos;
+
+    InstanceStats(String serviceId, String instance, long decayNanos) {
+        this.serviceId = serviceId;
+        this.instance = instance;
+        this.decayNanos = decayNanos;
+    }
+
+    public String serviceId() {
+        return serviceId;
+    }
+
+    public String instance() {
+        return instance;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Counts one more request in flight until the returned handle is run. Running it again does
+     * nothing, so a call that both completes and is cancelled is released once.
+     */
+    Runnable requestStarted() {
+        inFlight.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Peak EWMA: a slower-than-average response replaces the estimate at once, faster ones pull it
+     * down gradually, so a GC pause is felt immediately and forgiven over {@code decay}.
+     */
+    synchronized void requestFinished(long latencyNanos, boolean failed, int ejectAfterErrors, long ejectForNanos) {
+        long now = System.nanoTime();
+        double decayed = decayedEwma(now);
+        if (latencyNanos > decayed) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(now - lastObservedNanos) / decayNanos);
+            ewmaNanos = decayed * weight + latencyNanos * (1 - weight);
+        }
+        lastObservedNanos = now;
+
+        if (!failed) {
+            consecutiveErrors = 0;
+        } else if (++consecutiveErrors >= ejectAfterErrors) {
+            ejectedUntilNanos = now + ejectForNanos;
+            consecutiveErrors = 0;
+        }
+    }
+
+    /**
+     * Current estimate, decayed towards zero while no responses arrive so an idle instance is retried.
+     */
+    public synchronized double ewmaNanos() {
+        return decayedEwma(System.nanoTime());
+    }
+
+    public synchronized boolean isEjected() {
+        return System.nanoTime() < ejectedUntilNanos;
+    }
+
+    private double decayedEwma(long now) {
+        return ewmaNanos * Math.exp(-(now - lastObservedNanos) / decayNanos);
+    }
+}
@@ -0,0 +1,192 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import com.assigment.gatewayservice.filter.StreamingRoutes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/* ============================
+   Per-instance stats shared by every load balancer in the gateway.
+   Fed by the gateway's load-balancer lifecycle callbacks (start / complete of each routed call),
+   read by LeastOutstandingLoadBalancer and PeakEwmaLoadBalancer.
+   Meters are tagged by service and instance; instances that leave discovery are dropped with their meters.
+   Calls on streaming routes (SSE, exports) are not recorded: their duration is the stream's, not the
+   instance's response time, and one of them would make its instance look minutes slow.
+   The routing filter only completes the lifecycle on success or error. A call cancelled by its client
+   (or a timeout) never completes, so its in-flight slot is also left in the exchange (IN_FLIGHT_ATTR)
+   for LoadBalancerInFlightGlobalFilter to give back.
+   ============================ */
+@Component
+public class InstanceStatsRegistry implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    // Runnable giving back the in-flight slot of the current call; runs at most once
+    public static final String IN_FLIGHT_ATTR = InstanceStatsRegistry.class.getName() + ".inFlight";
+
+    private final MeterRegistry meterRegistry;
+    private final long decayNanos;
+    private final int ejectAfterErrors;
+    private final long ejectForNanos;
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+    private final Map<String, List<ServiceInstance>> lastSeen = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.loadbalancer.ewma.decay:10s}") Duration decay,
+            @Value("${gateway.loadbalancer.ejection.consecutive-errors:3}") int ejectAfterErrors,
+            @Value("${gateway.loadbalancer.ejection.duration:30s}") Duration ejectFor
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decay.toNanos();
+        this.ejectAfterErrors = ejectAfterErrors;
+        this.ejectForNanos = ejectFor.toNanos();
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> register(key, instance));
+    }
+
+    public void recordSelection(InstanceStats selected) {
+        meterRegistry.counter("gateway.lb.selections", "service", selected.serviceId(), "instance", selected.instance())
+                .increment();
+    }
+
+    /**
+     * Drops stats and meters of instances no longer returned by discovery. Cheap on the hot path:
+     * the cached instance list is only rescanned when discovery hands out a new one.
+     */
+    public void retain(String serviceId, List<ServiceInstance> current) {
+        if (lastSeen.put(serviceId, current) == current) {
+            return;
+        }
+        Set<String> live = current.stream().map(InstanceStatsRegistry::key).collect(Collectors.toSet());
+        for (String key : new ArrayList<>(stats.keySet())) {
+            if (key.startsWith(serviceId + "/") && !live.contains(key)) {
+                stats.remove(key);
+                List<Meter> gone = meters.remove(key);
+                if (gone != null) {
+                    gone.forEach(meterRegistry::remove);
+                }
+            }
+        }
+    }
+
+    /* ============================
+       LIFECYCLE
+       ============================ */
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer() || isStreaming(request)) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        Map<String, Object> attributes = attributes(request);
+        if (attributes != null) {
+            attributes.put(IN_FLIGHT_ATTR, get(lbResponse.getServer()).requestStarted());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (completion.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()
+                || isStreaming(completion.getLoadBalancerRequest())) {
+            return;
+        }
+
+        long latency = 0;
+        Object context = completion.getLoadBalancerRequest() == null ? null : completion.getLoadBalancerRequest().getContext();
+        if (context instanceof TimedRequestContext timed && timed.getRequestStartTime() > 0) {
+            latency = System.nanoTime() - timed.getRequestStartTime();
+        }
+
+        ResponseData response = completion.getClientResponse();
+        boolean failed = completion.status() == CompletionContext.Status.FAILED
+                || (response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+
+        Map<String, Object> attributes = attributes(completion.getLoadBalancerRequest());
+        if (attributes != null && attributes.remove(IN_FLIGHT_ATTR) instanceof Runnable release) {
+            release.run();
+        }
+        get(lbResponse.getServer()).requestFinished(latency, failed, ejectAfterErrors, ejectForNanos);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    // The routing filter hands the exchange attributes, matched route included, to the load-balancer request
+    private static Map<String, Object> attributes(Request<RequestDataContext> request) {
+        if (request == null || request.getContext() == null || request.getContext().getClientRequest() == null) {
+            return null;
+        }
+        return request.getContext().getClientRequest().getAttributes();
+    }
+
+    private static boolean isStreaming(Request<RequestDataContext> request) {
+        Map<String, Object> attributes = attributes(request);
+        return attributes != null
+                && attributes.get(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR) instanceof Route route
+                && StreamingRoutes.isStreaming(route);
+    }
+
+    private InstanceStats register(String key, ServiceInstance instance) {
+        InstanceStats created = new InstanceStats(instance.getServiceId(), instanceTag(instance), decayNanos);
+        Tags tags = Tags.of("service", created.serviceId(), "instance", created.instance());
+
+        meters.put(key, List.of(
+                Gauge.builder("gateway.lb.instance.inflight", created, InstanceStats::inFlight)
+                        .tags(tags).register(meterRegistry),
+                Gauge.builder("gateway.lb.instance.latency.ewma", created, s -> s.ewmaNanos() / 1_000_000.0)
+                        .tags(tags).baseUnit("milliseconds").register(meterRegistry),
+                Gauge.builder("gateway.lb.instance.ejected", created, s -> s.isEjected() ? 1 : 0)
+                        .tags(tags).register(meterRegistry),
+                Counter.builder("gateway.lb.selections").tags(tags).register(meterRegistry)));
+        return created;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instanceTag(instance);
+    }
+
+    private static String instanceTag(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,44 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/* ============================
+   Per-client load balancer configuration (default for every lb:// service, see LoadBalancerConfig).
+   Deliberately not a @Configuration: it must only be loaded into the per-service child contexts,
+   never picked up by component scanning in the main context.
+   gateway.loadbalancer.strategy: round-robin | least-outstanding | peak-ewma
+   ============================ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    private static final Logger logger = LogManager.getLogger(LatencyAwareLoadBalancerConfiguration.class);
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory clientFactory,
+            InstanceStatsRegistry registry) {
+
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        String strategy = environment.getProperty("gateway.loadbalancer.strategy", "peak-ewma");
+        ObjectProvider<ServiceInstanceListSupplier> suppliers =
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+
+        logger.info("Load balancer for {}: {}", serviceId, strategy);
+
+        return switch (strategy) {
+            case "round-robin" -> new RoundRobinLoadBalancer(suppliers, serviceId);
+            case "least-outstanding" -> new LeastOutstandingLoadBalancer(suppliers, serviceId, registry);
+            case "peak-ewma" -> new PeakEwmaLoadBalancer(suppliers, serviceId, registry);
+            default -> throw new IllegalArgumentException("Unknown gateway.loadbalancer.strategy: " + strategy);
+        };
+    }
+}
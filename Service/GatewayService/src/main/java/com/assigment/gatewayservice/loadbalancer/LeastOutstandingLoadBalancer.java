@@ -0,0 +1,21 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * Prefers the instance with fewer requests in flight from this gateway. A slow instance accumulates
+ * in-flight requests and is avoided without any latency measurement.
+ */
+public class LeastOutstandingLoadBalancer extends StatsAwareLoadBalancer {
+
+    public LeastOutstandingLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                        String serviceId, InstanceStatsRegistry registry) {
+        super(supplierProvider, serviceId, registry);
+    }
+
+    @Override
+    protected double cost(InstanceStats stats) {
+        return stats.inFlight();
+    }
+}
@@ -0,0 +1,29 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+/**
+ * Prefers the instance with the lowest expected wait: peak-EWMA latency times (in-flight + 1).
+ */
+public class PeakEwmaLoadBalancer extends StatsAwareLoadBalancer {
+
+    // Cost of an instance with requests in flight but no measured latency yet (1s), so a cold
+    // instance gets one probe at a time instead of everything until its first answer
+    private static final double UNMEASURED_PENALTY_NANOS = 1_000_000_000.0;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                String serviceId, InstanceStatsRegistry registry) {
+        super(supplierProvider, serviceId, registry);
+    }
+
+    @Override
+    protected double cost(InstanceStats stats) {
+        double ewma = stats.ewmaNanos();
+        int inFlight = stats.inFlight();
+        if (ewma == 0 && inFlight > 0) {
+            return UNMEASURED_PENALTY_NANOS + inFlight;
+        }
+        return ewma * (inFlight + 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.assigment.gatewayservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/* ============================
+   Gateway timers. Hot-path timers are registered once and reused per request.
+   Every tag value comes from a closed set (route ids from config, standard methods,
+   status codes), so series stay bounded whatever the traffic looks like.
+   Percentiles / histograms: management.metrics.distribution.*.gateway
+   ============================ */
+@Component
+public class GatewayMetrics {
+
+    public static final String ROUTE_REQUESTS = "gateway.route.requests";
+
+    private static final Set<String> KNOWN_METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+
+    private final MeterRegistry meterRegistry;
+
+    // One timer per (route, method, status), built on first use; every later request is a map lookup
+    private final Map<RouteKey, Timer> routeTimers = new ConcurrentHashMap<>();
+
+    private final Timer jwtVerifyValid;
+    private final Timer jwtVerifyInvalid;
+    private final Timer redisLookupActive;
+    private final Timer redisLookupInactive;
+    private final Timer downstreamAuthenticated;
+    private final Timer downstreamAnonymous;
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.jwtVerifyValid = timer("gateway.auth.jwt.verify", "result", "valid");
+        this.jwtVerifyInvalid = timer("gateway.auth.jwt.verify", "result", "invalid");
+        this.redisLookupActive = timer("gateway.auth.redis.lookup", "result", "active");
+        this.redisLookupInactive = timer("gateway.auth.redis.lookup", "result", "inactive");
+        this.downstreamAuthenticated = timer("gateway.auth.downstream", "authenticated", "true");
+        this.downstreamAnonymous = timer("gateway.auth.downstream", "authenticated", "false");
+    }
+
+    /* ============================
+       AUTH HOT PATH
+       ============================ */
+
+    public void recordJwtVerify(long startNanos, boolean valid) {
+        (valid ? jwtVerifyValid : jwtVerifyInvalid).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRedisLookup(long startNanos, boolean active) {
+        (active ? redisLookupActive : redisLookupInactive).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDownstream(long startNanos, boolean authenticated) {
+        (authenticated ? downstreamAuthenticated : downstreamAnonymous).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /* ============================
+       ROUTES
+       ============================ */
+
+    public void recordRoute(String routeId, HttpMethod method, String status, long startNanos) {
+        String methodTag = KNOWN_METHODS.contains(method.name()) ? method.name() : "OTHER";
+        RouteKey key = new RouteKey(routeId, methodTag, status);
+
+        Timer timer = routeTimers.get(key);
+        if (timer == null) {
+            timer = routeTimers.computeIfAbsent(key, this::routeTimer);
+        }
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private record RouteKey(String routeId, String method, String status) {
+    }
+
+    private Timer routeTimer(RouteKey key) {
+        return Timer.builder(ROUTE_REQUESTS)
+                .description("Gateway request latency per route, method and status")
+                .tags("route", key.routeId(), "method", key.method(), "status", key.status())
+                .register(meterRegistry);
+    }
+
+    private Timer timer(String name, String tagKey, String tagValue) {
+        return Timer.builder(name).tag(tagKey, tagValue).register(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.assigment.gatewayservice.metrics;
+
+import java.util.Arrays;
+
+/**
+ * The last {@code capacity} latencies of one route, for "what is slow right now" decisions such as
+ * when to hedge. A percentile is computed from a sorted copy of the window at most once every
+ * {@code capacity / 4} samples and otherwise served from that snapshot, so reading it on every
+ * request costs a volatile read. Thread-safe.
+ */
+public final class LatencyWindow {
+
+    private final long[] samples;
+    private final int refreshEvery;
+
+    private int next;
+    private int size;
+    private int sinceSnapshot;
+
+    private volatile long[] sorted = new long[0];
+
+    public LatencyWindow(int capacity) {
+        if (capacity < 4) {
+            throw new IllegalArgumentException("Latency window needs at least 4 samples");
+        }
+        this.samples = new long[capacity];
+        this.refreshEvery = capacity / 4;
+    }
+
+    public void record(long latencyNanos) {
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+
+            // Refresh often while warming up, then once every quarter window
+            if (++sinceSnapshot >= Math.min(size, refreshEvery)) {
+                sinceSnapshot = 0;
+                snapshot = Arrays.copyOf(samples, size);
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            sorted = snapshot;
+        }
+    }
+
+    /**
+     * Latency at {@code percentile} (0..1) of the last snapshot; -1 while it holds fewer than {@code minSamples}.
+     */
+    public long percentileNanos(double percentile, int minSamples) {
+        long[] snapshot = sorted;
+        if (snapshot.length == 0 || snapshot.length < minSamples) {
+            return -1;
+        }
+        int index = (int) Math.ceil(percentile * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(snapshot.length - 1, index))];
+    }
+}
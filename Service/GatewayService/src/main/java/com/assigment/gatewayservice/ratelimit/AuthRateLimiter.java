@@ -0,0 +1,155 @@
+package com.assigment.gatewayservice.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/* ============================
+   Per-IP and per-email limits for the credential endpoints.
+   1. Local buckets (per instance): a flood from one client is rejected without a Redis round trip.
+   2. Redis buckets (all instances): one Lua call charges the IP and email buckets atomically.
+   If Redis is slow or down the local decision stands, so auth keeps working per instance.
+   ============================ */
+@Component
+public class AuthRateLimiter {
+
+    private static final Logger logger = LogManager.getLogger(AuthRateLimiter.class);
+
+    private static final String IP_PREFIX = "RATE:AUTH:IP:";
+    private static final String EMAIL_PREFIX = "RATE:AUTH:EMAIL:";
+
+    public record Decision(boolean allowed, long retryAfterMillis) {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        static Decision rejected(long retryAfterMillis) {
+            return new Decision(false, Math.max(1, retryAfterMillis));
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/auth_rate_limit.lua"), List.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RateLimitPolicy ipPolicy;
+    private final RateLimitPolicy emailPolicy;
+    private final Duration redisTimeout;
+
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> emailBuckets;
+
+    private final Counter allowed;
+    private final Counter rejectedLocal;
+    private final Counter rejectedGlobal;
+    private final Counter redisUnavailable;
+
+    public AuthRateLimiter(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${gateway.rate-limit.ip.refill-per-minute:10}") int ipRefillPerMinute,
+            @Value("${gateway.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${gateway.rate-limit.email.refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${gateway.rate-limit.local.max-keys:100000}") long maxLocalKeys,
+            @Value("${gateway.redis.timeout:200ms}") Duration redisTimeout
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.ipPolicy = RateLimitPolicy.perMinute(ipCapacity, ipRefillPerMinute);
+        this.emailPolicy = RateLimitPolicy.perMinute(emailCapacity, emailRefillPerMinute);
+        this.redisTimeout = redisTimeout;
+
+        this.ipBuckets = localBuckets(ipPolicy, maxLocalKeys);
+        this.emailBuckets = localBuckets(emailPolicy, maxLocalKeys);
+
+        this.allowed = decisionCounter(meterRegistry, "allowed");
+        this.rejectedLocal = decisionCounter(meterRegistry, "rejected_local");
+        this.rejectedGlobal = decisionCounter(meterRegistry, "rejected_global");
+        this.redisUnavailable = decisionCounter(meterRegistry, "redis_unavailable");
+
+        logger.info("AuthRateLimiter initialized (ip={}, email={})", ipPolicy, emailPolicy);
+    }
+
+    /**
+     * Charges one request to the client's IP and, when known, to the target email; a rejected request
+     * is charged to neither.
+     */
+    public Mono<Decision> tryAcquire(String clientIp, String email) {
+        long now = System.currentTimeMillis();
+
+        TokenBucket ipBucket = ipBuckets.get(clientIp, key -> new TokenBucket(ipPolicy, now));
+        long localRetry = ipBucket.tryConsume(now);
+        if (localRetry == 0 && email != null) {
+            localRetry = emailBuckets.get(email, key -> new TokenBucket(emailPolicy, now)).tryConsume(now);
+            if (localRetry > 0) {
+                // As in Redis: a token from every bucket or from none, so hammering one locked email
+                // does not also spend the IP's allowance for other accounts
+                ipBucket.refund();
+            }
+        }
+        if (localRetry > 0) {
+            rejectedLocal.increment();
+            return Mono.just(Decision.rejected(localRetry));
+        }
+
+        List<String> keys = new ArrayList<>(2);
+        List<String> args = new ArrayList<>(4);
+        keys.add(IP_PREFIX + clientIp);
+        args.add(String.valueOf(ipPolicy.refillPerSecond()));
+        args.add(String.valueOf(ipPolicy.capacity()));
+        if (email != null) {
+            keys.add(EMAIL_PREFIX + email);
+            args.add(String.valueOf(emailPolicy.refillPerSecond()));
+            args.add(String.valueOf(emailPolicy.capacity()));
+        }
+
+        return redisTemplate.execute(SCRIPT, keys, args)
+                .next()
+                .timeout(redisTimeout)
+                .map(AuthRateLimiter::toDecision)
+                .doOnNext(decision -> (decision.allowed() ? allowed : rejectedGlobal).increment())
+                .onErrorResume(e -> {
+                    logger.warn("Global rate limit unavailable, using local limit only: {}", e.toString());
+                    redisUnavailable.increment();
+                    return Mono.just(Decision.ALLOWED);
+                })
+                .defaultIfEmpty(Decision.ALLOWED);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private static Decision toDecision(List<?> reply) {
+        boolean allowed = ((Number) reply.get(0)).longValue() == 1;
+        return allowed ? Decision.ALLOWED : Decision.rejected(((Number) reply.get(1)).longValue());
+    }
+
+    private static Cache<String, TokenBucket> localBuckets(RateLimitPolicy policy, long maxKeys) {
+        // An idle bucket is full again after capacity / rate; dropping it then loses nothing
+        Duration refillTime = Duration.ofMillis((long) Math.ceil(policy.capacity() * 1000 / policy.refillPerSecond()));
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillTime)
+                .build();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.ratelimit.auth.decisions")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
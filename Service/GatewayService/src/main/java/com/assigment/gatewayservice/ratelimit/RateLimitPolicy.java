@@ -0,0 +1,17 @@
+package com.assigment.gatewayservice.ratelimit;
+
+/**
+ * Burst of {@code capacity} requests, refilled at {@code refillPerSecond}.
+ */
+public record RateLimitPolicy(int capacity, double refillPerSecond) {
+
+    public RateLimitPolicy {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs capacity >= 1 and a positive refill rate");
+        }
+    }
+
+    public static RateLimitPolicy perMinute(int capacity, int refillPerMinute) {
+        return new RateLimitPolicy(capacity, refillPerMinute / 60.0);
+    }
+}
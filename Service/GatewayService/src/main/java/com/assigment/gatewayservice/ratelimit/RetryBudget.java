@@ -0,0 +1,48 @@
+package com.assigment.gatewayservice.ratelimit;
+
+/**
+ * Retries as a fraction of first attempts. Every first attempt deposits {@code ratio} of a token
+ * (at most {@code maxBalance} are kept), every retry withdraws one, plus a small per-second reserve
+ * so a quiet route can still retry. With {@code ratio <= 1} retries never exceed the first attempts,
+ * i.e. a failing downstream sees at most about twice its normal load. Thread-safe.
+ */
+public final class RetryBudget {
+
+    private final double ratio;
+    private final double maxBalance;
+    private final TokenBucket reserve;
+
+    private double balance;
+
+    public RetryBudget(double ratio, double maxBalance, int reservePerSecond) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Retry budget ratio must be between 0 and 1");
+        }
+        this.ratio = ratio;
+        this.maxBalance = maxBalance;
+        this.reserve = reservePerSecond > 0
+                ? new TokenBucket(new RateLimitPolicy(reservePerSecond, reservePerSecond), System.currentTimeMillis())
+                : null;
+    }
+
+    public synchronized void recordRequest() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * Takes the allowance for one retry; false means the retry must not be sent.
+     */
+    public boolean tryRetry() {
+        synchronized (this) {
+            if (balance >= 1) {
+                balance -= 1;
+                return true;
+            }
+        }
+        return reserve != null && reserve.tryConsume(System.currentTimeMillis()) == 0;
+    }
+
+    public synchronized double balance() {
+        return balance;
+    }
+}
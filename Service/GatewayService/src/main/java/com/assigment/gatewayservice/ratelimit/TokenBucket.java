@@ -0,0 +1,42 @@
+package com.assigment.gatewayservice.ratelimit;
+
+/**
+ * In-process token bucket: the fast path in front of the Redis budget. Thread-safe.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerMilli;
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(RateLimitPolicy policy, long now) {
+        this.capacity = policy.capacity();
+        this.refillPerMilli = policy.refillPerSecond() / 1000.0;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes one token; returns 0 on success, otherwise the millis until one is available.
+     */
+    synchronized long tryConsume(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMilli);
+            lastRefill = now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerMilli);
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryConsume} for a request that was rejected after all.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.assigment.gatewayservice.revocation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/* ============================
+   Feeds RevocationRegistry from UserService:
+   - live: auth.revocation messages {email, revokedAt, reason}
+   - snapshot: REVOKED_USERS, loaded after every (re)subscribe and again every resync-interval,
+     which also covers messages lost while Lettuce silently reconnected.
+   The registry only counts as synced while the channel is subscribed: a resync during an outage
+   refreshes the copy but leaves the gateway on the Redis session check until the channel is back.
+   ============================ */
+@Component
+public class RevocationListener {
+
+    private static final Logger logger = LogManager.getLogger(RevocationListener.class);
+
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RevocationRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String snapshotKey;
+    private final Duration resyncInterval;
+
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    // True from a successful (re)subscribe until the channel fails
+    private volatile boolean subscribed;
+
+    public RevocationListener(
+            ReactiveRedisMessageListenerContainer listenerContainer,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            RevocationRegistry registry,
+            ObjectMapper objectMapper,
+            @Value("${gateway.auth.revocation.channel:auth.revocation}") String channel,
+            @Value("${gateway.auth.revocation.snapshot-key:REVOKED_USERS}") String snapshotKey,
+            @Value("${gateway.auth.revocation.resync-interval:1m}") Duration resyncInterval
+    ) {
+        this.listenerContainer = listenerContainer;
+        this.redisTemplate = redisTemplate;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.snapshotKey = snapshotKey;
+        this.resyncInterval = resyncInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscriptions.add(listenerContainer.receiveLater(ChannelTopic.of(channel))
+                // Subscribed first, then snapshot: nothing published in between is lost
+                .flatMapMany(messages -> {
+                    subscribed = true;
+                    return loadSnapshot().thenMany(messages);
+                })
+                .doOnError(e -> {
+                    subscribed = false;
+                    registry.setSynced(false);
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> logger.warn("Revocation channel '{}' lost, resubscribing: {}",
+                                channel, signal.failure().toString())))
+                .subscribe(message -> apply(message.getMessage())));
+
+        subscriptions.add(Flux.interval(resyncInterval, resyncInterval)
+                .concatMap(tick -> loadSnapshot()
+                        .onErrorResume(e -> {
+                            logger.warn("Revocation snapshot resync failed: {}", e.toString());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+
+        logger.info("Listening for token revocations on '{}'", channel);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        subscriptions.dispose();
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    private Mono<Void> loadSnapshot() {
+        long now = System.currentTimeMillis();
+        Range<Double> live = Range.rightUnbounded(Range.Bound.inclusive((double) (now - registry.retentionMillis())));
+
+        return redisTemplate.opsForZSet().rangeByScoreWithScores(snapshotKey, live)
+                .doOnNext(entry -> registry.revoke(entry.getValue(), entry.getScore().longValue()))
+                .count()
+                .doOnNext(count -> {
+                    registry.purgeExpired();
+                    registry.setSynced(subscribed);
+                    logger.debug("Revocation snapshot loaded: {} user(s)", count);
+                })
+                .then();
+    }
+
+    private void apply(String message) {
+        try {
+            JsonNode node = objectMapper.readTree(message);
+            String email = node.path("email").asText(null);
+            long revokedAt = node.path("revokedAt").asLong(0);
+            if (email == null || revokedAt == 0) {
+                logger.warn("Ignoring malformed revocation message on '{}'", channel);
+                return;
+            }
+            registry.revoke(email, revokedAt);
+            logger.debug("Revoked tokens of {} issued up to {} ({})", email, revokedAt, node.path("reason").asText());
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable revocation message on '{}': {}", channel, e.getMessage());
+        }
+    }
+}
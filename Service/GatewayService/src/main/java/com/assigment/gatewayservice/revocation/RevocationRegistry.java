@@ -0,0 +1,74 @@
+package com.assigment.gatewayservice.revocation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* ============================
+   In-memory copy of REVOKED_USERS: email -> revocation time (epoch millis).
+   Replicated from UserService over pub/sub (RevocationListener), so the authorization
+   hot path never calls Redis. Entries are dropped once every token they could
+   reject has expired anyway (retention >= access token lifetime).
+   ============================ */
+@Component
+public class RevocationRegistry {
+
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+
+    // False until the first snapshot is loaded and whenever the subscription is down
+    private volatile boolean synced;
+
+    public RevocationRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.auth.revocation.retention:12h}") Duration retention
+    ) {
+        this.retentionMillis = retention.toMillis();
+        Gauge.builder("gateway.auth.revocation.entries", revokedAt, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * True if the user was revoked at or after the token was issued, both to the millisecond
+     * ({@link com.assigment.jwtcodec.VerifiedClaims#issuedAtMillis()}): a token issued later in the same
+     * second as a logout or password reset is not rejected.
+     */
+    public boolean isRevoked(String email, long issuedAtMillis) {
+        Long revoked = revokedAt.get(email);
+        if (revoked == null) {
+            return false;
+        }
+        if (revoked + retentionMillis < System.currentTimeMillis()) {
+            revokedAt.remove(email, revoked);
+            return false;
+        }
+        return issuedAtMillis <= revoked;
+    }
+
+    public void revoke(String email, long revokedAtMillis) {
+        if (revokedAtMillis + retentionMillis >= System.currentTimeMillis()) {
+            revokedAt.merge(email, revokedAtMillis, Math::max);
+        }
+    }
+
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        revokedAt.values().removeIf(revoked -> revoked < cutoff);
+    }
+
+    public long retentionMillis() {
+        return retentionMillis;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    void setSynced(boolean synced) {
+        this.synced = synced;
+    }
+}
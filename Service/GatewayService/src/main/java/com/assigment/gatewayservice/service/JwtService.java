@@ -1,7 +1,17 @@
 package com.assigment.gatewayservice.service;
 
+import com.assigment.jwtcodec.VerifiedClaims;
+
+import java.util.Optional;
+
 public interface JwtService {
 
+    /**
+     * Verifies signature and expiry once and returns the claims the gateway needs,
+     * or empty if the token is invalid or expired.
+     */
+    Optional<VerifiedClaims> verify(String token);
+
     boolean isTokenValid(String token);
 
     String extractUsername(String token);
@@ -1,5 +1,9 @@
 package com.assigment.gatewayservice.service;
 
+import reactor.core.publisher.Mono;
+
 public interface RedisService {
-    String getToken(String username);
+    Mono<String> getToken(String username);
+
+    Mono<Boolean> hasActiveSession(String username);
 }
@@ -1,76 +1,60 @@
 package com.assigment.gatewayservice.service.impl;
 
+import com.assigment.gatewayservice.cache.VerifiedTokenCache;
 import com.assigment.gatewayservice.service.JwtService;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import com.assigment.jwtcodec.JwtCodec;
+import com.assigment.jwtcodec.JwtValidationException;
+import com.assigment.jwtcodec.VerifiedClaims;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
-import java.util.Date;
+import java.util.Optional;
 
 @Service
 public class JwtServiceImpl implements JwtService {
 
     private static final Logger logger = LogManager.getLogger(JwtServiceImpl.class);
 
-    @Value("${spring.security.jwt.secret-key}")
-    private String secretKey;
+    private final JwtCodec jwtCodec;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JwtServiceImpl(JwtCodec jwtCodec, VerifiedTokenCache verifiedTokenCache) {
+        this.jwtCodec = jwtCodec;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @Override
+    public Optional<VerifiedClaims> verify(String token) {
+        return Optional.ofNullable(verifiedTokenCache.get(token, this::parseAndValidate));
+    }
 
     @Override
     public boolean isTokenValid(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            boolean valid = !isTokenExpired(claims);
-            logger.info("Token validation success for user: {}", claims.getSubject());
-            return valid;
-        } catch (Exception e) {
-            logger.error("Token validation failed: {}", e.getMessage(), e);
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     @Override
     public String extractUsername(String token) {
-        String username = extractAllClaims(token).getSubject();
-        logger.info("Extracted username from token: {}", username);
-        return username;
+        return verify(token).map(VerifiedClaims::subject).orElse(null);
     }
 
     @Override
     public String extractRole(String token) {
-        String role = extractAllClaims(token).get("role", String.class);
-        logger.info("Extracted role from token: {}", role);
-        return role;
+        return verify(token).map(VerifiedClaims::role).orElse(null);
     }
 
     /* ============================
        PRIVATE HELPERS
        ============================ */
 
-    private Claims extractAllClaims(String token) {
-        Key key = getSignInKey();
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private boolean isTokenExpired(Claims claims) {
-        boolean expired = claims.getExpiration().before(new Date());
-        if (expired) {
-            logger.warn("Token expired for user: {}", claims.getSubject());
+    // Cache miss path: full verification, runs at most once per cached token
+    private VerifiedClaims parseAndValidate(String token) {
+        try {
+            return jwtCodec.parse(token);
+        } catch (JwtValidationException e) {
+            logger.warn("Token validation failed ({}): {}", e.getReason(), e.getMessage());
+            return null;
         }
-        return expired;
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
     }
 }
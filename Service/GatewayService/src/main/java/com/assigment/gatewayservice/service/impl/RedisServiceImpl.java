@@ -3,29 +3,61 @@ package com.assigment.gatewayservice.service.impl;
 import com.assigment.gatewayservice.service.RedisService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
 
 @Service
 public class RedisServiceImpl implements RedisService {
 
     private static final Logger logger = LogManager.getLogger(RedisServiceImpl.class);
 
-    private final RedisTemplate<String, String> redisTemplate;
+    // Maintained by UserService: sorted set of refresh tokens scored by expiry (epoch millis)
+    private static final String USER_SESSIONS_PREFIX = "USER_SESSIONS:";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final Duration timeout;
+    private final boolean failOpen;
 
-    public RedisServiceImpl(RedisTemplate<String, String> redisTemplate) {
+    public RedisServiceImpl(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            @Value("${gateway.redis.timeout:200ms}") Duration timeout,
+            @Value("${gateway.redis.fail-open:false}") boolean failOpen
+    ) {
         this.redisTemplate = redisTemplate;
-        logger.info("RedisServiceImpl initialized");
+        this.timeout = timeout;
+        this.failOpen = failOpen;
+        logger.info("RedisServiceImpl initialized (timeout={}, failOpen={})", timeout, failOpen);
+    }
+
+    @Override
+    public Mono<String> getToken(String username) {
+        return redisTemplate.opsForValue().get(username)
+                .timeout(timeout)
+                .doOnNext(token -> logger.debug("Retrieved token from Redis for user '{}'", username))
+                .switchIfEmpty(Mono.fromRunnable(() -> logger.warn("No token found in Redis for user '{}'", username)))
+                .onErrorResume(e -> {
+                    logger.warn("Redis token lookup failed for user '{}': {}", username, e.toString());
+                    return Mono.empty();
+                });
     }
 
     @Override
-    public String getToken(String username) {
-        String token = redisTemplate.opsForValue().get(username);
-        if (token != null) {
-            logger.info("Retrieved token from Redis for user '{}'", username);
-        } else {
-            logger.warn("No token found in Redis for user '{}'", username);
-        }
-        return token;
+    public Mono<Boolean> hasActiveSession(String username) {
+        Range<Double> live = Range.rightUnbounded(Range.Bound.inclusive((double) System.currentTimeMillis()));
+
+        return redisTemplate.opsForZSet().count(USER_SESSIONS_PREFIX + username, live)
+                .map(liveSessions -> liveSessions > 0)
+                .defaultIfEmpty(false)
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    // Redis slow or down: answer from configuration instead of holding the request
+                    logger.warn("Session lookup failed for user '{}', failOpen={}: {}", username, failOpen, e.toString());
+                    return Mono.just(failOpen);
+                });
     }
 }
@@ -0,0 +1,50 @@
+-- Token buckets for one request, checked and charged atomically.
+-- KEYS[i]       : bucket hash {tokens, ts}
+-- ARGV[2i-1]    : refill rate, tokens per second
+-- ARGV[2i]      : capacity
+-- Returns {allowed (1/0), retry after in ms}. A token is taken from every bucket or from none.
+
+-- Writes after TIME need effects replication on Redis < 5 (no-op from Redis 7)
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local available = {}
+local retry_after = 0
+
+for i = 1, #KEYS do
+    local rate = tonumber(ARGV[2 * i - 1])
+    local capacity = tonumber(ARGV[2 * i])
+    local state = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+    local tokens = tonumber(state[1]) or capacity
+    local last = tonumber(state[2]) or now
+
+    tokens = math.min(capacity, tokens + math.max(0, now - last) * rate / 1000)
+    available[i] = tokens
+
+    if tokens < 1 then
+        retry_after = math.max(retry_after, math.ceil((1 - tokens) * 1000 / rate))
+    end
+end
+
+local allowed = retry_after == 0
+
+for i = 1, #KEYS do
+    local rate = tonumber(ARGV[2 * i - 1])
+    local capacity = tonumber(ARGV[2 * i])
+    local tokens = available[i]
+    if allowed then
+        tokens = tokens - 1
+    end
+    redis.call('HSET', KEYS[i], 'tokens', tostring(tokens), 'ts', now)
+    -- Idle buckets are full again after capacity / rate seconds; nothing to keep after that
+    redis.call('PEXPIRE', KEYS[i], math.ceil(capacity * 1000 / rate) + 1000)
+end
+
+if allowed then
+    return { 1, 0 }
+end
+return { 0, retry_after }
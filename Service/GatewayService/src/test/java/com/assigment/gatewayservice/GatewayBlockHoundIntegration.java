@@ -0,0 +1,19 @@
+package com.assigment.gatewayservice;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/* ============================
+   Known, accepted blocking calls on non-blocking threads.
+   Anything not listed here fails the test that triggered it.
+   ============================ */
+public class GatewayBlockHoundIntegration implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        // Log4j console/file appenders write synchronously
+        builder.allowBlockingCallsInside("org.apache.logging.log4j.core.appender.OutputStreamManager", "writeBytes");
+        builder.allowBlockingCallsInside("org.apache.logging.log4j.core.appender.OutputStreamManager", "flush");
+        builder.allowBlockingCallsInside("org.apache.logging.log4j.core.appender.AbstractOutputStreamAppender", "directEncodeEvent");
+    }
+}
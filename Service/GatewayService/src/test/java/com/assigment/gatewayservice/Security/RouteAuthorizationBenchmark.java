@@ -0,0 +1,96 @@
+package com.assigment.gatewayservice.Security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* ============================
+   Cost of authorizing one request as the rule list grows: the compiled trie against the
+   ordered PathPattern scan that pathMatchers performed. Requests hit the shipped rules
+   (early, late and unmatched), synthetic rules only make the list longer.
+   ============================ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteAuthorizationBenchmark {
+
+    private static final String[][] REQUESTS = {
+            {"POST", "/auth/login"},
+            {"GET", "/api/user"},
+            {"DELETE", "/api/user/42"},
+            {"PATCH", "/course/42/status"},
+            {"GET", "/course/42"},
+            {"GET", "/course"},
+            {"GET", "/unknown/path"},
+    };
+
+    private record OrderedRule(String method, PathPattern pattern) {
+    }
+
+    @Param({"12", "100", "500"})
+    public int rules;
+
+    private RouteAuthorizationTable table;
+    private List<OrderedRule> ordered;
+
+    @Setup
+    public void setUp() {
+        // Synthetic rules go after /auth/** but before the /api and /course rules, so the scan has to pass them
+        List<String> all = new ArrayList<>();
+        all.add(RouteAuthorizationManager.DEFAULT_RULES.get(0));
+        String[] methods = {"GET", "POST", "PUT", "DELETE"};
+        for (int i = 0; all.size() < rules - (RouteAuthorizationManager.DEFAULT_RULES.size() - 1); i++) {
+            all.add(methods[i % methods.length] + " /service" + i + "/items/{id} ADMIN");
+        }
+        all.addAll(RouteAuthorizationManager.DEFAULT_RULES.subList(1, RouteAuthorizationManager.DEFAULT_RULES.size()));
+
+        table = RouteAuthorizationTable.compile(all, "authenticated");
+
+        PathPatternParser parser = new PathPatternParser();
+        ordered = all.stream()
+                .map(rule -> rule.trim().split("\\s+"))
+                .map(parts -> new OrderedRule(parts[0], parser.parse(parts[1])))
+                .toList();
+    }
+
+    @Benchmark
+    public void trie(Blackhole blackhole) {
+        for (String[] request : REQUESTS) {
+            blackhole.consume(table.match(request[0], request[1]));
+        }
+    }
+
+    @Benchmark
+    public void orderedPathPatterns(Blackhole blackhole) {
+        for (String[] request : REQUESTS) {
+            PathContainer path = PathContainer.parsePath(request[1]);
+            OrderedRule match = null;
+            for (OrderedRule rule : ordered) {
+                if ((rule.method().equals("*") || rule.method().equals(request[0])) && rule.pattern().matches(path)) {
+                    match = rule;
+                    break;
+                }
+            }
+            blackhole.consume(match);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.assigment.gatewayservice.Security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteAuthorizationManagerTests {
+
+    private final RouteAuthorizationManager manager = new RouteAuthorizationManager(new MockEnvironment());
+
+    @Test
+    void permitAllRoutesNeedNoAuthentication() {
+        assertThat(granted(MockServerHttpRequest.get("/auth/verify"), Mono.empty())).isTrue();
+    }
+
+    @Test
+    void rolesOfTheMatchingRuleAreRequired() {
+        Authentication user = authenticated("ROLE_USER");
+        Authentication admin = authenticated("ROLE_ADMIN");
+
+        assertThat(granted(MockServerHttpRequest.get("/course/7"), Mono.just(user))).isTrue();
+        assertThat(granted(MockServerHttpRequest.get("/course/all"), Mono.just(user))).isFalse();
+        assertThat(granted(MockServerHttpRequest.get("/course/all"), Mono.just(admin))).isTrue();
+    }
+
+    @Test
+    void anonymousAndMissingAuthenticationAreDenied() {
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertThat(granted(MockServerHttpRequest.get("/course"), Mono.just(anonymous))).isFalse();
+        assertThat(granted(MockServerHttpRequest.get("/course"), Mono.empty())).isFalse();
+    }
+
+    private boolean granted(MockServerHttpRequest.BaseBuilder<?> request, Mono<Authentication> authentication) {
+        AuthorizationContext context = new AuthorizationContext(MockServerWebExchange.from(request));
+        AuthorizationResult result = manager.authorize(authentication, context).block();
+        return result != null && result.isGranted();
+    }
+
+    private static Authentication authenticated(String role) {
+        return new UsernamePasswordAuthenticationToken("user@mail.com", null, AuthorityUtils.createAuthorityList(role));
+    }
+}
@@ -0,0 +1,68 @@
+package com.assigment.gatewayservice.Security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteAuthorizationTableTests {
+
+    private final RouteAuthorizationTable table =
+            RouteAuthorizationTable.compile(RouteAuthorizationManager.DEFAULT_RULES, "authenticated");
+
+    @Test
+    void firstMatchingRuleWinsLikeOrderedPathMatchers() {
+        String[][] requests = {
+                {"GET", "/auth/login"}, {"POST", "/auth"}, {"GET", "/api/user"}, {"POST", "/api/user"},
+                {"POST", "/api/user/import"}, {"GET", "/api/user/export"},
+                {"PUT", "/api/user/7"}, {"PUT", "/api/user"}, {"GET", "/api/users/verification/7"},
+                {"DELETE", "/api/user/7"}, {"POST", "/course"}, {"POST", "/course/7/lessons"},
+                {"PATCH", "/course/7/status"}, {"PATCH", "/course/7"}, {"GET", "/course/all"},
+                {"GET", "/course/export"}, {"GET", "/course/7"}, {"GET", "/course"}, {"GET", "/course/7/status"},
+                {"GET", "/unknown"}, {"GET", "/"}
+        };
+
+        for (String[] request : requests) {
+            assertThat(table.match(request[0], request[1]).toString())
+                    .as("%s %s", request[0], request[1])
+                    .isEqualTo(firstMatch(request[0], request[1]));
+        }
+    }
+
+    @Test
+    void literalSegmentBeatsLaterVariableOnlyByDeclarationOrder() {
+        RouteAuthorizationTable variableFirst = RouteAuthorizationTable.compile(List.of(
+                "GET /course/{id} USER",
+                "GET /course/all  ADMIN"), "denyAll");
+
+        assertThat(variableFirst.match("GET", "/course/all").toString()).isEqualTo("GET /course/{id} USER");
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThatThrownBy(() -> RouteAuthorizationTable.compile(List.of("GET /course"), "authenticated"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteAuthorizationTable.compile(List.of("GET /course/**/x ADMIN"), "authenticated"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteAuthorizationTable.compile(List.of("GET /course/*.json ADMIN"), "authenticated"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Reference semantics: Spring's PathPattern matchers evaluated in declaration order
+    private static String firstMatch(String method, String path) {
+        PathPatternParser parser = new PathPatternParser();
+        for (String rule : RouteAuthorizationManager.DEFAULT_RULES) {
+            String[] parts = rule.trim().split("\\s+");
+            PathPattern pattern = parser.parse(parts[1]);
+            if ((parts[0].equals("*") || parts[0].equals(method)) && pattern.matches(PathContainer.parsePath(path))) {
+                return rule.trim();
+            }
+        }
+        return "default authenticated";
+    }
+}
@@ -0,0 +1,116 @@
+package com.assigment.gatewayservice.admission;
+
+import com.assigment.gatewayservice.filter.AdmissionWebFilter;
+import com.assigment.gatewayservice.filter.StreamingAdmissionGlobalFilter;
+import com.assigment.gatewayservice.filter.StreamingRoutes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControllerTests {
+
+    private static final long MS = 1_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionController controller = new AdmissionController(
+            new EventLoopLagProbe(new ReactorResourceFactory(), Duration.ofMillis(100)),
+            meterRegistry, true, Duration.ofMillis(100),
+            Duration.ofMillis(50), Duration.ofMillis(250), 2000, 5000,
+            0.5, Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+    @Test
+    void shedsBulkFirstAndNeverCritical() {
+        controller.evaluate(60 * MS, 0, 0);
+        assertThat(controller.tryAdmit(PriorityTier.BULK)).isFalse();
+        assertThat(controller.tryAdmit(PriorityTier.NORMAL)).isTrue();
+
+        controller.evaluate(0, 6000, 0);
+        assertThat(controller.tryAdmit(PriorityTier.NORMAL)).isFalse();
+        assertThat(controller.tryAdmit(PriorityTier.CRITICAL)).isTrue();
+
+        assertThat(meterRegistry.get("gateway.admission.shed").tag("tier", "bulk").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.admission.shed").tag("tier", "normal").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recoversOnlyAfterStayingCalmForTheCoolDown() {
+        controller.evaluate(60 * MS, 0, 0);
+        assertThat(controller.level()).isEqualTo(AdmissionController.SHED_BULK);
+
+        // Under the threshold but above recover-ratio x threshold: stays
+        controller.evaluate(40 * MS, 0, seconds(1));
+        controller.evaluate(40 * MS, 0, seconds(10));
+        assertThat(controller.level()).isEqualTo(AdmissionController.SHED_BULK);
+
+        // Calm, but not yet for the whole cool-down
+        controller.evaluate(10 * MS, 0, seconds(11));
+        controller.evaluate(10 * MS, 0, seconds(15));
+        assertThat(controller.level()).isEqualTo(AdmissionController.SHED_BULK);
+
+        controller.evaluate(10 * MS, 0, seconds(16));
+        assertThat(controller.level()).isEqualTo(AdmissionController.ADMIT_ALL);
+    }
+
+    @Test
+    void openStreamsDoNotRaiseTheShedLevel() {
+        AdmissionController small = new AdmissionController(
+                new EventLoopLagProbe(new ReactorResourceFactory(), Duration.ofMillis(100)),
+                new SimpleMeterRegistry(), true, Duration.ofMillis(100),
+                Duration.ofMillis(50), Duration.ofMillis(250), 5, 10,
+                0.5, Duration.ofSeconds(5), Duration.ofSeconds(2));
+        AdmissionWebFilter admissionFilter = new AdmissionWebFilter(small, new PriorityClassifier(new MockEnvironment()));
+        StreamingAdmissionGlobalFilter streamingFilter = new StreamingAdmissionGlobalFilter();
+        Route events = route("CourseServiceEvents", true);
+        Route courses = route("CourseService", false);
+
+        List<Disposable> open = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            open.add(pending(admissionFilter, streamingFilter, "/course/events", events));
+        }
+        open.add(pending(admissionFilter, streamingFilter, "/course", courses));
+
+        assertThat(small.inFlight()).isEqualTo(1);
+        small.evaluate(0, small.inFlight(), 0);
+        assertThat(small.level()).isEqualTo(AdmissionController.ADMIT_ALL);
+
+        // Ending a stream later must not give back a second slot
+        open.forEach(Disposable::dispose);
+        assertThat(small.inFlight()).isZero();
+    }
+
+    // A request that stays open (like an SSE subscriber) until disposed
+    private static Disposable pending(AdmissionWebFilter admissionFilter, StreamingAdmissionGlobalFilter streamingFilter,
+                                      String path, Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        return admissionFilter.filter(exchange, routed -> {
+            routed.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+            return streamingFilter.filter(routed, downstream -> Mono.never());
+        }).subscribe();
+    }
+
+    private static Route route(String id, boolean streaming) {
+        return Route.async()
+                .id(id)
+                .uri("lb://COURSESERVICE")
+                .predicate(exchange -> true)
+                .metadata(StreamingRoutes.METADATA_KEY, streaming)
+                .build();
+    }
+
+    private static long seconds(long seconds) {
+        return seconds * 1_000_000_000L;
+    }
+}
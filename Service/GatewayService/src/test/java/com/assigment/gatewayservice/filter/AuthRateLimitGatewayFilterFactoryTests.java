@@ -0,0 +1,103 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.ratelimit.AuthRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthRateLimitGatewayFilterFactoryTests {
+
+    private static final String BODY = "{\"password\":\"secret\",\"email\":\" User@Example.com \"}";
+
+    private final AuthRateLimiter rateLimiter = mock(AuthRateLimiter.class);
+    private final GatewayFilter filter = new AuthRateLimitGatewayFilterFactory(rateLimiter, 0, 4096).apply(new Object());
+
+    private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+
+    @Test
+    void limitsByRemoteAddressAndLowerCasedEmailAndReplaysTheBody() {
+        when(rateLimiter.tryAcquire("203.0.113.7", "user@example.com"))
+                .thenReturn(Mono.just(new AuthRateLimiter.Decision(true, 0)));
+
+        MockServerWebExchange exchange = login(BODY);
+        filter.filter(exchange, downstream()).block();
+
+        assertThat(forwardedBody).hasValue(BODY);
+        assertThat(exchange.getResponse().getStatusCode()).isNull();
+    }
+
+    @Test
+    void bodyWithoutEmailIsLimitedByIpOnly() {
+        when(rateLimiter.tryAcquire(eq("203.0.113.7"), isNull()))
+                .thenReturn(Mono.just(new AuthRateLimiter.Decision(true, 0)));
+
+        filter.filter(login("not json"), downstream()).block();
+
+        assertThat(forwardedBody).hasValue("not json");
+    }
+
+    @Test
+    void rejectedRequestGets429WithRetryAfterInSeconds() {
+        when(rateLimiter.tryAcquire(anyString(), any()))
+                .thenReturn(Mono.just(new AuthRateLimiter.Decision(false, 1500)));
+
+        MockServerWebExchange exchange = login(BODY);
+        filter.filter(exchange, downstream()).block();
+
+        assertThat(forwardedBody).hasValue(null);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(exchange.getResponse().getBodyAsString().block())
+                .contains("\"status\":429")
+                .contains("/api/auth/login");
+    }
+
+    @Test
+    void oversizedBodyIsRejectedBeforeTheLimiter() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("x".repeat(5000)));
+
+        filter.filter(exchange, downstream()).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(forwardedBody).hasValue(null);
+    }
+
+    private static MockServerWebExchange login(String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 40000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .doOnNext(buffer -> {
+                    forwardedBody.set(buffer.toString(StandardCharsets.UTF_8));
+                    DataBufferUtils.release(buffer);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,72 @@
+package com.assigment.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalesceGatewayFilterFactoryTests {
+
+    private static final String BODY = "{\"status\":200,\"courses\":[]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalGetsShareOneDownstreamCall() {
+        GatewayFilter filter = new CoalesceGatewayFilterFactory(meterRegistry)
+                .apply(new CoalesceGatewayFilterFactory.Config());
+        GatewayFilterChain chain = slowDownstream(MediaType.APPLICATION_JSON);
+
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 5)
+                .mapToObj(i -> MockServerWebExchange.from(MockServerHttpRequest.get("/course?page=0&size=5")))
+                .toList();
+
+        Flux.fromIterable(exchanges).flatMap(exchange -> filter.filter(exchange, chain)).blockLast();
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(exchanges).allSatisfy(exchange ->
+                assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY));
+        assertThat(meterRegistry.get("gateway.coalesce.collapse.ratio").gauge().value()).isEqualTo(0.8);
+    }
+
+    @Test
+    void waitersFallBackWhenTheResponseIsNotShareable() {
+        GatewayFilter filter = new CoalesceGatewayFilterFactory(meterRegistry)
+                .apply(new CoalesceGatewayFilterFactory.Config());
+        GatewayFilterChain chain = slowDownstream(MediaType.TEXT_PLAIN);
+
+        Flux.range(0, 3)
+                .map(i -> MockServerWebExchange.from(MockServerHttpRequest.get("/course/42")))
+                .flatMap(exchange -> filter.filter(exchange, chain))
+                .blockLast();
+
+        assertThat(downstreamCalls).hasValue(3);
+    }
+
+    private GatewayFilterChain slowDownstream(MediaType contentType) {
+        return exchange -> Mono.delay(Duration.ofMillis(50)).then(Mono.defer(() -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(contentType);
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        }));
+    }
+}
@@ -0,0 +1,122 @@
+package com.assigment.gatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeGatewayFilterFactoryTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DisposableServer slowServer = server("slow", Duration.ofMillis(500));
+    private final DisposableServer fastServer = server("fast", Duration.ZERO);
+
+    @AfterEach
+    void stopServers() {
+        slowServer.disposeNow();
+        fastServer.disposeNow();
+    }
+
+    @Test
+    void slowFirstAttemptIsHedgedToAnotherInstance() {
+        GatewayFilter filter = factory(1.0).apply(config());
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, e -> Mono.error(new AssertionError("hedged GETs are not routed by the chain"))).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(meterRegistry.get("gateway.hedge.requests").tag("outcome", "hedged").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.hedge.wins").tag("winner", "hedge").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.hedge.win.ratio").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void noHedgeWithoutBudget() {
+        GatewayFilter filter = factory(0).apply(config());
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("slow");
+        assertThat(meterRegistry.get("gateway.hedge.requests").tag("outcome", "budget_exhausted").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.hedge.rate").gauge().value()).isZero();
+    }
+
+    private HedgeGatewayFilterFactory factory(double budgetRatio) {
+        // First pick is the slow instance, every later pick the fast one
+        List<ServiceInstance> picks = List.of(instance(slowServer), instance(fastServer));
+        Iterator<ServiceInstance> next = picks.iterator();
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = request ->
+                Mono.just(new DefaultResponse(next.hasNext() ? next.next() : picks.get(1)));
+
+        ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory = new ReactiveLoadBalancer.Factory<>() {
+            @Override
+            public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+                return loadBalancer;
+            }
+
+            @Override
+            public <X> Map<String, X> getInstances(String name, Class<X> type) {
+                return Map.of();
+            }
+
+            @Override
+            public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+                return null;
+            }
+        };
+        return new HedgeGatewayFilterFactory(clientFactory, HttpClient.create(),
+                new SimpleObjectProvider<>(List.of()), meterRegistry,
+                budgetRatio, 10, 0);
+    }
+
+    private static HedgeGatewayFilterFactory.Config config() {
+        HedgeGatewayFilterFactory.Config config = new HedgeGatewayFilterFactory.Config();
+        config.setRouteId("CourseService");
+        config.setMinDelay(Duration.ofMillis(50));
+        config.setMaxDelay(Duration.ofMillis(50));
+        return config;
+    }
+
+    private static MockServerWebExchange get() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/course/1"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("CourseService")
+                .uri("lb://COURSESERVICE")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private static DisposableServer server(String body, Duration delay) {
+        return HttpServer.create()
+                .port(0)
+                .handle((request, response) -> Mono.delay(delay).then(response.sendString(Mono.just(body)).then()))
+                .bindNow();
+    }
+
+    private static ServiceInstance instance(DisposableServer server) {
+        return new DefaultServiceInstance(server.port() + "", "COURSESERVICE", "localhost", server.port(), false);
+    }
+}
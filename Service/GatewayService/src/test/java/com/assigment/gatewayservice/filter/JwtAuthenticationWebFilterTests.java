@@ -0,0 +1,92 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.metrics.GatewayMetrics;
+import com.assigment.gatewayservice.revocation.RevocationRegistry;
+import com.assigment.gatewayservice.service.JwtService;
+import com.assigment.gatewayservice.service.RedisService;
+import com.assigment.jwtcodec.InternalIdentityCodec;
+import com.assigment.jwtcodec.VerifiedClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/* ============================
+   Runs the filter on Schedulers.parallel(), which BlockHound treats like a Netty
+   event loop: any blocking call inside the auth chain fails these tests.
+   ============================ */
+class JwtAuthenticationWebFilterTests {
+
+    private static final String TOKEN = "access-token";
+    private static final String BLOCKHOUND_LISTENER = "reactor.blockhound.junit.platform.BlockHoundTestExecutionListener";
+    private static final InternalIdentityCodec IDENTITY = new InternalIdentityCodec(
+            "internal-hop-key-with-at-least-32-bytes".getBytes(StandardCharsets.US_ASCII), Clock.systemUTC(), Duration.ofSeconds(30));
+
+    @Test
+    void authenticatesWithoutBlocking() {
+        JwtService jwtService = mock(JwtService.class);
+        RedisService redisService = mock(RedisService.class);
+        when(jwtService.verify(TOKEN)).thenReturn(Optional.of(
+                new VerifiedClaims("user@mail.com", "USER", 0, System.currentTimeMillis() / 1000 + 60)));
+        when(redisService.hasActiveSession("user@mail.com"))
+                .thenReturn(Mono.just(true).delayElement(Duration.ofMillis(5)));
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        AtomicReference<String> forwardedIdentity = new AtomicReference<>();
+        WebFilterChain chain = exchange -> ReactiveSecurityContextHolder.getContext()
+                .doOnSubscribe(s -> forwardedIdentity.set(exchange.getRequest().getHeaders().getFirst(InternalIdentityCodec.HEADER)))
+                .map(SecurityContext::getAuthentication)
+                .doOnNext(seen::set)
+                .then();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/course")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .header(InternalIdentityCodec.HEADER, "v1.forged-by-the-client"));
+
+        // Built on the test thread so class initialisation (logger lookup) is not attributed to the filter
+        JwtAuthenticationWebFilter filter = new JwtAuthenticationWebFilter(jwtService, redisService, mock(RevocationRegistry.class),
+                new GatewayMetrics(new SimpleMeterRegistry()), IDENTITY, "redis");
+
+        StepVerifier.create(Mono.defer(() -> filter.filter(exchange, chain))
+                        .subscribeOn(Schedulers.parallel()))
+                .verifyComplete();
+
+        assertThat(seen.get()).isNotNull();
+        assertThat(seen.get().getName()).isEqualTo("user@mail.com");
+        assertThat(IDENTITY.decode(forwardedIdentity.get()).subject()).isEqualTo("user@mail.com");
+    }
+
+    @Test
+    void blockingCallOnEventLoopIsDetected() {
+        // Only meaningful when the blockhound profile installed the agent (not under -DskipBlockHound)
+        Assumptions.assumeTrue(ClassUtils.isPresent(BLOCKHOUND_LISTENER, null), "BlockHound is not installed");
+
+        StepVerifier.create(Mono.fromCallable(() -> {
+                            Thread.sleep(1);
+                            return true;
+                        })
+                        .subscribeOn(Schedulers.parallel()))
+                .expectErrorMatches(e -> e.getClass().getName().contains("BlockingOperationError"))
+                .verify();
+    }
+}
@@ -0,0 +1,70 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.loadbalancer.InstanceStatsRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadBalancerInFlightGlobalFilterTests {
+
+    private final InstanceStatsRegistry registry =
+            new InstanceStatsRegistry(new SimpleMeterRegistry(), Duration.ofSeconds(10), 3, Duration.ofSeconds(30));
+    private final ServiceInstance instance = new DefaultServiceInstance("a", "COURSESERVICE", "10.0.0.1", 8080, false);
+    private final LoadBalancerInFlightGlobalFilter filter = new LoadBalancerInFlightGlobalFilter();
+
+    @Test
+    void cancelledExchangeGivesBackItsInFlightSlot() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/course"));
+        // As ReactiveLoadBalancerClientFilter: lifecycle started, then a response that never arrives
+        GatewayFilterChain routing = routed -> Mono.defer(() -> {
+            registry.onStartRequest(lbRequest(routed.getAttributes()), new DefaultResponse(instance));
+            return Mono.never();
+        });
+
+        Disposable call = filter.filter(exchange, routing).subscribe();
+        assertThat(registry.get(instance).inFlight()).isEqualTo(1);
+
+        call.dispose(); // client went away
+        assertThat(registry.get(instance).inFlight()).isZero();
+    }
+
+    @Test
+    void completedExchangeIsReleasedOnce() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/course"));
+        GatewayFilterChain routing = routed -> Mono.defer(() -> {
+            DefaultRequest<RequestDataContext> request = lbRequest(routed.getAttributes());
+            DefaultResponse chosen = new DefaultResponse(instance);
+            registry.onStartRequest(request, chosen);
+            return Mono.<Void>empty().doOnSuccess(done -> registry.onComplete(
+                    new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                            CompletionContext.Status.SUCCESS, request, chosen)));
+        });
+
+        filter.filter(exchange, routing).block();
+
+        assertThat(registry.get(instance).inFlight()).isZero();
+        assertThat(exchange.getAttributes()).doesNotContainKey(InstanceStatsRegistry.IN_FLIGHT_ATTR);
+    }
+
+    private static DefaultRequest<RequestDataContext> lbRequest(Map<String, Object> attributes) {
+        return new DefaultRequest<>(new RequestDataContext(
+                new RequestData(MockServerHttpRequest.get("/course").build(), attributes)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.LastGoodResponseStore;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilienceGatewayFilterFactoryTests {
+
+    private static final String BODY = "{\"status\":200,\"courses\":[]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final ResilienceGatewayFilterFactory factory = new ResilienceGatewayFilterFactory(
+            circuitBreakers,
+            BulkheadRegistry.ofDefaults(),
+            new LastGoodResponseStore(meterRegistry, 100, Duration.ofMinutes(10)),
+            meterRegistry,
+            1.0, 10, 0);
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+    @Test
+    void openCircuitServesTheLastGoodResponse() {
+        GatewayFilter filter = factory.apply(config(true));
+
+        filter.filter(get(), downstream()).block();
+        circuitBreakers.circuitBreaker("CourseService").transitionToOpenState();
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, downstream()).block();
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(exchange.getResponse().getHeaders().getFirst(CacheSupport.CACHE_STATUS_HEADER)).isEqualTo("FALLBACK");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+
+    @Test
+    void openCircuitWithoutFallbackAnswers503() {
+        GatewayFilter filter = factory.apply(config(false));
+        circuitBreakers.circuitBreaker("CourseService").transitionToOpenState();
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, downstream()).block();
+
+        assertThat(downstreamCalls).hasValue(0);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("60");
+    }
+
+    @Test
+    void failedGetIsRetriedWithinTheBudget() {
+        GatewayFilter filter = factory.apply(config(false));
+        AtomicInteger attempts = new AtomicInteger();
+        GatewayFilterChain failOnce = exchange -> attempts.incrementAndGet() == 1
+                ? Mono.error(new IOException("Connection reset"))
+                : downstream().filter(exchange);
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, failOnce).block();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(meterRegistry.get("gateway.retry.attempts").tag("result", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedGetIsNotRetriedUnlessTheRouteOptsIn() {
+        ResilienceGatewayFilterFactory.Config config = new ResilienceGatewayFilterFactory.Config();
+        config.setRouteId("UserService");
+        GatewayFilter filter = factory.apply(config);
+        AtomicInteger attempts = new AtomicInteger();
+        GatewayFilterChain failOnce = exchange -> attempts.incrementAndGet() == 1
+                ? Mono.error(new IOException("Connection reset"))
+                : downstream().filter(exchange);
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/auth/verify?token=t"));
+        filter.filter(exchange, failOnce).onErrorComplete().block();
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    private static ResilienceGatewayFilterFactory.Config config(boolean fallback) {
+        ResilienceGatewayFilterFactory.Config config = new ResilienceGatewayFilterFactory.Config();
+        config.setRouteId("CourseService");
+        config.setRetries(1);
+        config.setFallback(fallback);
+        return config;
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/course?page=0&size=5"));
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> Mono.defer(() -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.ResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ResponseCacheGatewayFilterFactoryTests {
+
+    private static final String BODY = "{\"status\":200,\"courses\":[]}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final ResponseCache responseCache = new ResponseCache(meterRegistry, mock(ReactiveRedisTemplate.class),
+            new ObjectMapper(), 100, Duration.ofMinutes(10), false, Duration.ofMillis(200));
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+    @Test
+    void secondGetIsServedFromCache() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        GatewayFilterChain chain = downstream(MediaType.APPLICATION_JSON);
+
+        MockServerWebExchange first = get("/course?page=0&size=5");
+        filter.filter(first, chain).block();
+        MockServerWebExchange second = get("/course?page=0&size=5");
+        filter.filter(second, chain).block();
+
+        assertThat(downstreamCalls).hasValue(1);
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(meterRegistry.get("gateway.response.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void versionChangeDropsEntries() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        GatewayFilterChain chain = downstream(MediaType.APPLICATION_JSON);
+
+        filter.filter(get("/course/42"), chain).block();
+        responseCache.onVersion(7);
+        filter.filter(get("/course/42"), chain).block();
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void olderVersionArrivingLateIsIgnored() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        GatewayFilterChain chain = downstream(MediaType.APPLICATION_JSON);
+
+        responseCache.onVersion(8);
+        filter.filter(get("/course/42"), chain).block();
+        // e.g. the reconnect read of COURSE:VERSION completing after the pub/sub message for 8
+        responseCache.onVersion(7);
+        filter.filter(get("/course/42"), chain).block();
+        responseCache.onVersion(8);
+        filter.filter(get("/course/42"), chain).block();
+
+        assertThat(responseCache.version()).isEqualTo(8);
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void eventStreamsAreNotCached() {
+        GatewayFilter filter = filter(Duration.ofMinutes(1));
+        GatewayFilterChain chain = downstream(MediaType.TEXT_EVENT_STREAM);
+
+        filter.filter(get("/course/events"), chain).block();
+        filter.filter(get("/course/events"), chain).block();
+
+        assertThat(downstreamCalls).hasValue(2);
+    }
+
+    private GatewayFilter filter(Duration ttl) {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(ttl);
+        return new ResponseCacheGatewayFilterFactory(responseCache).apply(config);
+    }
+
+    private GatewayFilterChain downstream(MediaType contentType) {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(contentType);
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        };
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+}
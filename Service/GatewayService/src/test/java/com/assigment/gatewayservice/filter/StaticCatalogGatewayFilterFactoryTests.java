@@ -0,0 +1,117 @@
+package com.assigment.gatewayservice.filter;
+
+import com.assigment.gatewayservice.cache.ResponseCache;
+import com.assigment.gatewayservice.cache.StaticCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StaticCatalogGatewayFilterFactoryTests {
+
+    private static final String PAGE = "{\"status\":200,\"courses\":[]}";
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final ResponseCache responseCache = new ResponseCache(meterRegistry, mock(ReactiveRedisTemplate.class),
+            new ObjectMapper(), 100, Duration.ofMinutes(10), false, Duration.ofMillis(200));
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void publishVersion() throws IOException {
+        // What CourseService's CatalogPageMaterializer leaves behind for version 7, size 5
+        Path pages = Files.createDirectories(directory.resolve("v7/size-5"));
+        Files.writeString(pages.resolve("page-0.json"), PAGE);
+        Files.write(pages.resolve("page-0.json.gz"), new byte[]{1, 2, 3});
+        Files.writeString(directory.resolve("v7/manifest.properties"), """
+                version=7
+                sizes=5
+                size.5.pages=1
+                size.5.page.0.json=%d
+                size.5.page.0.gz=3
+                """.formatted(PAGE.length()));
+        Files.writeString(directory.resolve("CURRENT"), "7");
+
+        StaticCatalog staticCatalog = new StaticCatalog(true, directory, Duration.ofSeconds(1));
+        staticCatalog.refresh();
+
+        StaticCatalogGatewayFilterFactory.Config config = new StaticCatalogGatewayFilterFactory.Config();
+        filter = new StaticCatalogGatewayFilterFactory(staticCatalog, responseCache, meterRegistry).apply(config);
+    }
+
+    @Test
+    void currentVersionIsServedFromDiskWithStrongEtag() {
+        responseCache.onVersion(7);
+
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/course?page=0&size=5"));
+        filter.filter(first, downstream()).block();
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(PAGE);
+        String etag = first.getResponse().getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"c7-5-0\"");
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("STATIC");
+
+        MockServerWebExchange gzip = exchange(MockServerHttpRequest.get("/course")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"));
+        filter.filter(gzip, downstream()).block();
+        assertThat(gzip.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getResponse().getHeaders().getContentLength()).isEqualTo(3);
+
+        MockServerWebExchange revalidation = exchange(MockServerHttpRequest.get("/course?page=0&size=5")
+                .ifNoneMatch(etag));
+        filter.filter(revalidation, downstream()).block();
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        assertThat(downstreamCalls).hasValue(0);
+        assertThat(meterRegistry.get("gateway.static.requests").tag("result", "served").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void otherVersionsAndQueriesReachTheService() {
+        responseCache.onVersion(8); // catalog changed, pages for 8 not published yet
+        filter.filter(exchange(MockServerHttpRequest.get("/course?page=0&size=5")), downstream()).block();
+
+        responseCache.onVersion(7);
+        filter.filter(exchange(MockServerHttpRequest.get("/course?page=0&size=50")), downstream()).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/course?page=0&size=5&sort=name")), downstream()).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/course/all")), downstream()).block();
+
+        assertThat(downstreamCalls).hasValue(4);
+        assertThat(meterRegistry.get("gateway.static.requests").tag("result", "fallback").counter().count()).isEqualTo(3);
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,105 @@
+package com.assigment.gatewayservice.loadbalancer;
+
+import com.assigment.gatewayservice.filter.StreamingRoutes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakEwmaLoadBalancerTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InstanceStatsRegistry registry =
+            new InstanceStatsRegistry(meterRegistry, Duration.ofSeconds(10), 3, Duration.ofSeconds(30));
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "COURSESERVICE", "10.0.0.1", 8080, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "COURSESERVICE", "10.0.0.2", 8080, false);
+
+    private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(
+            new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from("COURSESERVICE", fast, slow)),
+            "COURSESERVICE", registry);
+
+    @Test
+    void prefersTheInstanceWithTheLowerLatency() {
+        observe(fast, 5 * MILLIS, false);
+        observe(slow, 500 * MILLIS, false);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose()).isEqualTo(fast);
+        }
+        assertThat(meterRegistry.get("gateway.lb.selections").tag("instance", "10.0.0.1:8080").counter().count())
+                .isEqualTo(20);
+    }
+
+    @Test
+    void ejectsAnInstanceAfterConsecutiveErrors() {
+        observe(fast, 5 * MILLIS, false);
+        observe(slow, 500 * MILLIS, false);
+        for (int i = 0; i < 3; i++) {
+            observe(fast, 1 * MILLIS, true);
+        }
+
+        assertThat(registry.get(fast).isEjected()).isTrue();
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose()).isEqualTo(slow);
+        }
+    }
+
+    @Test
+    void streamingCallsAreNotRecorded() throws InterruptedException {
+        observe(fast, 5 * MILLIS, false);
+        observe(slow, 50 * MILLIS, false);
+
+        // An SSE subscriber on the fast instance: open for a while, then gone
+        DefaultRequest<RequestDataContext> stream = routedRequest(true);
+        DefaultResponse chosen = new DefaultResponse(fast);
+        registry.onStartRequest(stream, chosen);
+        assertThat(registry.get(fast).inFlight()).isZero();
+        Thread.sleep(100);
+        registry.onComplete(new CompletionContext<ResponseData, ServiceInstance, RequestDataContext>(
+                CompletionContext.Status.SUCCESS, stream, chosen));
+
+        assertThat(registry.get(fast).ewmaNanos()).isLessThan(50 * MILLIS);
+        assertThat(choose()).isEqualTo(fast);
+    }
+
+    private static DefaultRequest<RequestDataContext> routedRequest(boolean streaming) {
+        Route route = Route.async()
+                .id("CourseServiceEvents")
+                .uri("lb://COURSESERVICE")
+                .predicate(exchange -> true)
+                .metadata(StreamingRoutes.METADATA_KEY, streaming)
+                .build();
+        RequestData data = new RequestData(MockServerHttpRequest.get("/course/events").build(),
+                Map.of(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route));
+        return new DefaultRequest<>(new RequestDataContext(data));
+    }
+
+    private void observe(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceStats stats = registry.get(instance);
+        stats.requestStarted().run();
+        stats.requestFinished(latencyNanos, failed, 3, Duration.ofSeconds(30).toNanos());
+    }
+
+    private ServiceInstance choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+    }
+}
@@ -0,0 +1,42 @@
+package com.assigment.gatewayservice.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayMetrics metrics = new GatewayMetrics(meterRegistry);
+
+    @Test
+    void requestsOfOneRouteMethodAndStatusShareOneTimer() {
+        for (int i = 0; i < 3; i++) {
+            metrics.recordRoute("CourseService", HttpMethod.GET, "200", System.nanoTime());
+        }
+        metrics.recordRoute("CourseService", HttpMethod.GET, "503", System.nanoTime());
+        metrics.recordRoute("UserService", HttpMethod.POST, "200", System.nanoTime());
+
+        assertThat(route("CourseService", "GET", "200").count()).isEqualTo(3);
+        assertThat(route("CourseService", "GET", "503").count()).isEqualTo(1);
+        assertThat(route("UserService", "POST", "200").count()).isEqualTo(1);
+        assertThat(meterRegistry.find(GatewayMetrics.ROUTE_REQUESTS).timers()).hasSize(3);
+    }
+
+    @Test
+    void nonStandardMethodsShareTheOtherSeries() {
+        metrics.recordRoute("CourseService", HttpMethod.valueOf("PROPFIND"), "405", System.nanoTime());
+        metrics.recordRoute("CourseService", HttpMethod.valueOf("BREW"), "405", System.nanoTime());
+
+        assertThat(route("CourseService", "OTHER", "405").count()).isEqualTo(2);
+    }
+
+    private Timer route(String routeId, String method, String status) {
+        return meterRegistry.get(GatewayMetrics.ROUTE_REQUESTS)
+                .tags("route", routeId, "method", method, "status", status)
+                .timer();
+    }
+}
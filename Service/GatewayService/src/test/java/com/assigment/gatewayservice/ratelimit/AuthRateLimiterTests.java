@@ -0,0 +1,114 @@
+package com.assigment.gatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthRateLimiterTests {
+
+    private static final String IP = "203.0.113.7";
+    private static final String EMAIL = "user@example.com";
+
+    @SuppressWarnings("unchecked")
+    private final ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 3 requests per IP, 1 per email, no noticeable refill during a test
+    private final AuthRateLimiter limiter = new AuthRateLimiter(
+            redisTemplate, meterRegistry, 3, 1, 1, 1, 1000, Duration.ofMillis(200));
+
+    @BeforeEach
+    void redisAllows() {
+        redisReplies(Flux.just(List.of(1L, 0L)));
+    }
+
+    @Test
+    void chargesTheIpAndEmailBucketsInOneScriptCall() {
+        assertThat(limiter.tryAcquire(IP, EMAIL).block().allowed()).isTrue();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), args.capture());
+
+        assertThat(keys.getValue()).containsExactly("RATE:AUTH:IP:" + IP, "RATE:AUTH:EMAIL:" + EMAIL);
+        assertThat(args.getValue()).containsExactly(String.valueOf(1 / 60.0), "3", String.valueOf(1 / 60.0), "1");
+    }
+
+    @Test
+    void requestWithoutEmailOnlyChargesTheIp() {
+        limiter.tryAcquire(IP, null).block();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), anyList());
+        assertThat(keys.getValue()).containsExactly("RATE:AUTH:IP:" + IP);
+    }
+
+    @Test
+    void rejectedEmailDoesNotSpendTheIpAllowance() {
+        assertThat(limiter.tryAcquire(IP, EMAIL).block().allowed()).isTrue();
+        for (int i = 0; i < 5; i++) {
+            AuthRateLimiter.Decision decision = limiter.tryAcquire(IP, EMAIL).block();
+            assertThat(decision.allowed()).isFalse();
+            assertThat(decision.retryAfterMillis()).isPositive();
+        }
+
+        // One token spent of three: two other accounts can still be tried from this IP
+        assertThat(limiter.tryAcquire(IP, "other@example.com").block().allowed()).isTrue();
+        assertThat(limiter.tryAcquire(IP, "third@example.com").block().allowed()).isTrue();
+        assertThat(limiter.tryAcquire(IP, "fourth@example.com").block().allowed()).isFalse();
+    }
+
+    @Test
+    void localRejectionSkipsRedis() {
+        limiter.tryAcquire(IP, EMAIL).block();
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+
+        limiter.tryAcquire(IP, EMAIL).block();
+
+        verify(redisTemplate).execute(any(RedisScript.class), anyList(), anyList());
+        assertThat(meterRegistry.get("gateway.ratelimit.auth.decisions").tag("result", "rejected_local").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void globalRejectionCarriesTheScriptsRetryAfter() {
+        redisReplies(Flux.just(List.of(0L, 4200L)));
+
+        AuthRateLimiter.Decision decision = limiter.tryAcquire(IP, EMAIL).block();
+
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterMillis()).isEqualTo(4200);
+    }
+
+    @Test
+    void redisFailureFallsBackToTheLocalDecision() {
+        redisReplies(Flux.error(new IllegalStateException("Redis down")));
+
+        assertThat(limiter.tryAcquire(IP, EMAIL).block().allowed()).isTrue();
+        assertThat(limiter.tryAcquire(IP, EMAIL).block().allowed()).isFalse();
+        assertThat(meterRegistry.get("gateway.ratelimit.auth.decisions").tag("result", "redis_unavailable").counter().count())
+                .isEqualTo(1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void redisReplies(Flux reply) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(reply);
+    }
+}
@@ -0,0 +1,101 @@
+package com.assigment.gatewayservice.revocation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationListenerTests {
+
+    private static final String CHANNEL = "auth.revocation";
+    private static final String SNAPSHOT_KEY = "REVOKED_USERS";
+
+    private final ReactiveRedisMessageListenerContainer container = mock(ReactiveRedisMessageListenerContainer.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveZSetOperations<String, String> zSet = mock(ReactiveZSetOperations.class);
+    private final RevocationRegistry registry = new RevocationRegistry(new SimpleMeterRegistry(), Duration.ofHours(12));
+
+    private RevocationListener listener;
+
+    @AfterEach
+    void stop() {
+        if (listener != null) {
+            listener.unsubscribe();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(Mono<Flux<ReactiveSubscription.Message<String, String>>> channel) {
+        when(redisTemplate.opsForZSet()).thenReturn(zSet);
+        when(zSet.rangeByScoreWithScores(eq(SNAPSHOT_KEY), any(Range.class))).thenReturn(Flux.empty());
+        when(container.receiveLater(ChannelTopic.of(CHANNEL))).thenReturn(channel);
+
+        listener = new RevocationListener(container, redisTemplate, registry, new ObjectMapper(),
+                CHANNEL, SNAPSHOT_KEY, Duration.ofMillis(20));
+        listener.subscribe();
+    }
+
+    @Test
+    void subscribedChannelAndSnapshotMakeTheRegistrySynced() {
+        start(Mono.just(Flux.never()));
+
+        await().atMost(Duration.ofSeconds(5)).until(registry::isSynced);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resyncWhileTheChannelIsDownLeavesTheRegistryUnsynced() {
+        // The channel cannot be subscribed at all: every attempt fails, only the interval resync succeeds
+        start(Mono.error(new IllegalStateException("Redis pub/sub unavailable")));
+
+        verify(zSet, timeout(2_000).atLeast(3)).rangeByScoreWithScores(eq(SNAPSHOT_KEY), any(Range.class));
+        assertThat(registry.isSynced()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registryStaysUnsyncedAfterTheChannelDropsUntilItIsBack() {
+        AtomicInteger attempts = new AtomicInteger();
+        Sinks.Many<ReactiveSubscription.Message<String, String>> firstChannel = Sinks.many().multicast().directBestEffort();
+        start(Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.just(firstChannel.asFlux())
+                : Mono.just(Flux.<ReactiveSubscription.Message<String, String>>never()).delayElement(Duration.ofMillis(300))));
+        await().atMost(Duration.ofSeconds(5)).until(registry::isSynced);
+
+        firstChannel.tryEmitError(new IllegalStateException("Connection reset"));
+        clearInvocations(zSet);
+
+        // Resyncs keep running during the backoff before the next subscribe, without marking the registry synced
+        assertThat(registry.isSynced()).isFalse();
+        verify(zSet, timeout(500).atLeast(3)).rangeByScoreWithScores(eq(SNAPSHOT_KEY), any(Range.class));
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(registry.isSynced()).isFalse();
+
+        await().atMost(Duration.ofSeconds(5)).until(registry::isSynced);
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.assigment.gatewayservice.revocation;
+
+import com.assigment.jwtcodec.JwtCodec;
+import com.assigment.jwtcodec.VerifiedClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationRegistryTests {
+
+    private static final byte[] KEY = "jwt-signing-key-with-at-least-32-bytes".getBytes(StandardCharsets.US_ASCII);
+    private static final String USER = "user@mail.com";
+
+    private final RevocationRegistry registry = new RevocationRegistry(new SimpleMeterRegistry(), Duration.ofHours(12));
+
+    @Test
+    void tokenIssuedLaterInTheSameSecondAsTheRevocationIsAccepted() {
+        Instant logout = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS).plusMillis(300);
+        registry.revoke(USER, logout.toEpochMilli());
+
+        VerifiedClaims relogin = issuedAt(logout.plusMillis(400));
+
+        assertThat(relogin.issuedAt()).isEqualTo(logout.getEpochSecond());
+        assertThat(registry.isRevoked(USER, relogin.issuedAtMillis())).isFalse();
+    }
+
+    @Test
+    void tokenIssuedEarlierInTheSameSecondAsTheRevocationIsRevoked() {
+        Instant logout = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS).plusMillis(700);
+        registry.revoke(USER, logout.toEpochMilli());
+
+        VerifiedClaims stolen = issuedAt(logout.minusMillis(500));
+
+        assertThat(stolen.issuedAt()).isEqualTo(logout.getEpochSecond());
+        assertThat(registry.isRevoked(USER, stolen.issuedAtMillis())).isTrue();
+        assertThat(registry.isRevoked(USER, logout.toEpochMilli())).isTrue();
+    }
+
+    @Test
+    void tokenWithoutMillisecondsIsRevokedThroughoutTheRevocationSecond() {
+        Instant logout = Instant.now().minusSeconds(60).truncatedTo(ChronoUnit.SECONDS).plusMillis(300);
+        registry.revoke(USER, logout.toEpochMilli());
+
+        VerifiedClaims legacy = new VerifiedClaims(USER, "USER", logout.getEpochSecond(), logout.getEpochSecond() + 3600);
+
+        assertThat(registry.isRevoked(USER, legacy.issuedAtMillis())).isTrue();
+    }
+
+    @Test
+    void revocationsOlderThanTheRetentionAreForgotten() {
+        registry.revoke(USER, System.currentTimeMillis() - Duration.ofHours(13).toMillis());
+
+        assertThat(registry.isRevoked(USER, 0)).isFalse();
+    }
+
+    private static VerifiedClaims issuedAt(Instant issued) {
+        String token = new JwtCodec(KEY, Clock.fixed(issued, ZoneOffset.UTC)).issue(USER, "USER", Duration.ofHours(12).toMillis());
+        return new JwtCodec(KEY, Clock.systemUTC()).parse(token);
+    }
+}
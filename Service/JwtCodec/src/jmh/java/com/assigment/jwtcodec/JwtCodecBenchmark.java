@@ -0,0 +1,90 @@
+package com.assigment.jwtcodec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codec vs. the per-service jjwt code it replaces (key decoded and parser built on every call).
+ * Run with {@code ./gradlew jmh}; the gc profiler reports allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JwtCodecBenchmark {
+
+    private static final String SECRET = "BeL3l2reIpmFMl+rWCtrYwgr/Ltf7uJWSegV2Mzd9N2ghrxukiiW93g=";
+    private static final long TTL = 43_200_000L;
+
+    private JwtCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        codec = JwtCodec.fromBase64Secret(SECRET);
+        token = codec.issue("user@mail.com", "USER", TTL);
+    }
+
+    /* ============================
+       VERIFY
+       ============================ */
+
+    @Benchmark
+    public VerifiedClaims codecParse() {
+        return codec.parse(token);
+    }
+
+    @Benchmark
+    public String legacyVerifyAndExtract() {
+        // What the gateway did per request: validate, then extract username, then role
+        Claims validated = legacyClaims(token);
+        if (validated.getExpiration().before(new Date())) {
+            return null;
+        }
+        String subject = legacyClaims(token).getSubject();
+        return subject + legacyClaims(token).get("role", String.class);
+    }
+
+    /* ============================
+       ISSUE
+       ============================ */
+
+    @Benchmark
+    public String codecIssue() {
+        return codec.issue("user@mail.com", "USER", TTL);
+    }
+
+    @Benchmark
+    public String legacyIssue() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "USER");
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("user@mail.com")
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + TTL))
+                .signWith(legacyKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .setSigningKey(legacyKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static Key legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
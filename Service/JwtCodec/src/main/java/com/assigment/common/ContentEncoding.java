@@ -0,0 +1,50 @@
+package com.assigment.common;
+
+/* ============================
+   Accept-Encoding negotiation (RFC 9110, 12.5.3) for responses a service or the gateway compresses itself.
+   ============================ */
+public final class ContentEncoding {
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Whether {@code acceptEncoding} allows a gzip response: gzip (or its alias x-gzip) listed with a
+     * non-zero q-value, or, when gzip is not listed, {@code *} with a non-zero q-value. An explicit entry
+     * always beats {@code *}, so {@code "*, gzip;q=0"} refuses gzip. A missing header is answered
+     * uncompressed: clients that can decode gzip say so.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzip = Math.max(gzip, qValue(parts));
+            } else if (name.equals("*")) {
+                any = Math.max(any, qValue(parts));
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    // q parameter of one coding; 1 when absent or not a number
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parameter.substring(equals + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,10 @@
+package com.assigment.common;
+
+/**
+ * A page cursor token that was not issued by {@link PageCursor#encode()}; services answer it with 400.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
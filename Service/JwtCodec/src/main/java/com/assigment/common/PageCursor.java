@@ -0,0 +1,60 @@
+package com.assigment.common;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a listing ordered by (created_at, id): the rows after it, or before it for a previous page.
+ * Sent to clients as an opaque URL-safe token; its layout is not part of the API and may change.
+ */
+public record PageCursor(Direction direction, Instant createdAt, String id) {
+
+    public enum Direction { AFTER, BEFORE }
+
+    private static final String VERSION = "1";
+
+    public static PageCursor after(Date createdAt, String id) {
+        return new PageCursor(Direction.AFTER, instant(createdAt), id);
+    }
+
+    public static PageCursor before(Date createdAt, String id) {
+        return new PageCursor(Direction.BEFORE, instant(createdAt), id);
+    }
+
+    public Timestamp createdAtTimestamp() {
+        return Timestamp.from(createdAt);
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + (direction == Direction.AFTER ? "a" : "b") + ":"
+                + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 5);
+            if (parts.length != 5 || !parts[0].equals(VERSION) || parts[4].isEmpty()) {
+                throw new InvalidCursorException("Malformed page cursor");
+            }
+            Direction direction = switch (parts[1]) {
+                case "a" -> Direction.AFTER;
+                case "b" -> Direction.BEFORE;
+                default -> throw new InvalidCursorException("Malformed page cursor");
+            };
+            return new PageCursor(direction,
+                    Instant.ofEpochSecond(Long.parseLong(parts[2]), Long.parseLong(parts[3])), parts[4]);
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new InvalidCursorException("Malformed page cursor");
+        }
+    }
+
+    // Timestamps read back from the database keep their sub-millisecond part; a truncated key would repeat rows
+    private static Instant instant(Date date) {
+        return date instanceof Timestamp timestamp ? timestamp.toInstant() : date.toInstant();
+    }
+}
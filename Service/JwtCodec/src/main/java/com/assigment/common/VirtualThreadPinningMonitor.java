@@ -0,0 +1,95 @@
+package com.assigment.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/* ============================
+   Reports virtual threads pinned to their carrier (JFR jdk.VirtualThreadPinned). On Java 21 a virtual
+   thread that blocks inside a synchronized block or a native frame holds its carrier, and enough of them
+   stall every request. Each pinning site is logged with its stack the first time and then every `logEvery`
+   occurrences; all of them are counted in jvm.threads.virtual.pinned.
+   Services create it only in the virtual-thread mode (spring.threads.virtual.enabled), reading threshold
+   and logEvery from their own <prefix>.virtual-threads.* properties, and start it once they are ready.
+   ============================ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 12;
+
+    private final Duration threshold;
+    private final long logEvery;
+    private final Counter pinned;
+
+    private final Map<String, AtomicLong> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold, long logEvery) {
+        this.threshold = threshold;
+        this.logEvery = logEvery;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier for longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        logger.info("Reporting virtual threads pinned for more than {}", threshold);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+    private void report(RecordedEvent event) {
+        pinned.increment();
+
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = frames.isEmpty() ? "unknown" : describe(frames.get(0));
+        long count = sites.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        if (count == 1 || count % logEvery == 0) {
+            logger.warn("Virtual thread pinned for {} ms ({} time(s) at this site):\n\t{}",
+                    event.getDuration().toMillis(), count,
+                    frames.stream().map(VirtualThreadPinningMonitor::describe).collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.subList(0, Math.min(STACK_DEPTH, frames.size()));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
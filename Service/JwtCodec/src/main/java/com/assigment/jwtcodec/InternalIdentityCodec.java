@@ -0,0 +1,141 @@
+package com.assigment.jwtcodec;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+import static com.assigment.jwtcodec.JwtValidationException.Reason.*;
+
+/**
+ * Identity the gateway has already verified, forwarded to the services in {@link #HEADER}.
+ *
+ * <p>Format: {@code v1.<sub>.<role>.<iat>.<exp>.<signedAt>.<mac>}, with subject and role base64url-encoded,
+ * iat/exp in epoch seconds as in the token, {@code signedAt} in epoch millis and {@code mac} the first
+ * 16 bytes of HMAC-SHA256 over everything before it. Decoding is a split and one HMAC over ~100 bytes:
+ * no base64 JSON, no header check. The key is specific to the gateway-to-service hop and is not the
+ * JWT key, so a leaked header cannot be turned into a token. A header is only accepted for
+ * {@code maxAge} after the gateway signed it, and never after the token's own expiry.
+ * Instances are immutable and thread-safe.
+ */
+public final class InternalIdentityCodec {
+
+    public static final String HEADER = "X-Internal-Identity";
+
+    private static final String VERSION = "v1";
+    private static final int MAC_BYTES = 16;
+    private static final int FIELDS = 7;
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final MacPool macs;
+    private final Clock clock;
+    private final long maxAgeMillis;
+
+    public InternalIdentityCodec(byte[] keyBytes, Clock clock, Duration maxAge) {
+        if (keyBytes == null || keyBytes.length < 32) {
+            throw new IllegalArgumentException("Internal identity key must be at least 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(keyBytes.clone(), "HmacSHA256");
+        this.macs = new MacPool(key);
+        this.clock = clock;
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public static InternalIdentityCodec fromBase64Secret(String base64Secret, Duration maxAge) {
+        return new InternalIdentityCodec(Base64.getMimeDecoder().decode(base64Secret), Clock.systemUTC(), maxAge);
+    }
+
+    // Forwards iat in seconds: revocation is decided at the gateway, so services never need the milliseconds
+    public String encode(VerifiedClaims claims) {
+        StringBuilder header = new StringBuilder(128)
+                .append(VERSION).append('.')
+                .append(encodeText(claims.subject())).append('.')
+                .append(encodeText(claims.role())).append('.')
+                .append(claims.issuedAt()).append('.')
+                .append(claims.expiresAt()).append('.')
+                .append(clock.millis());
+
+        byte[] signed = header.toString().getBytes(StandardCharsets.US_ASCII);
+        return header.append('.').append(BASE64_URL.encodeToString(mac(signed, signed.length))).toString();
+    }
+
+    /**
+     * Returns the forwarded claims of a header signed with this key, younger than {@code maxAge}
+     * and carrying an unexpired token.
+     *
+     * @throws JwtValidationException with the reason the header was rejected
+     */
+    public VerifiedClaims decode(String header) {
+        if (header == null) {
+            throw new JwtValidationException(MALFORMED, "Identity header is missing");
+        }
+
+        int[] dots = new int[FIELDS - 1];
+        int found = 0;
+        for (int i = 0; i < header.length() && found <= dots.length; i++) {
+            if (header.charAt(i) == '.') {
+                if (found == dots.length) {
+                    found++;
+                    break;
+                }
+                dots[found++] = i;
+            }
+        }
+        if (found != dots.length || !header.startsWith(VERSION + ".")) {
+            throw new JwtValidationException(MALFORMED, "Identity header must be v1 with " + FIELDS + " fields");
+        }
+
+        // 1. Signature first: nothing below is trusted before it
+        byte[] ascii = header.getBytes(StandardCharsets.US_ASCII);
+        int macStart = dots[FIELDS - 2];
+        byte[] expected = BASE64_URL.encode(mac(ascii, macStart));
+        byte[] actual = new byte[ascii.length - macStart - 1];
+        System.arraycopy(ascii, macStart + 1, actual, 0, actual.length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new JwtValidationException(BAD_SIGNATURE, "Identity header signature does not match");
+        }
+
+        // 2. Freshness of the hop, then of the token it was derived from
+        try {
+            long issuedAt = Long.parseLong(header, dots[2] + 1, dots[3], 10);
+            long expiresAt = Long.parseLong(header, dots[3] + 1, dots[4], 10);
+            long signedAt = Long.parseLong(header, dots[4] + 1, dots[5], 10);
+
+            long now = clock.millis();
+            if (now - signedAt > maxAgeMillis || now >= expiresAt * 1000L) {
+                throw new JwtValidationException(EXPIRED, "Identity header expired");
+            }
+
+            return new VerifiedClaims(
+                    decodeText(header.substring(dots[0] + 1, dots[1])),
+                    decodeText(header.substring(dots[1] + 1, dots[2])),
+                    issuedAt,
+                    expiresAt);
+        } catch (IllegalArgumentException e) {
+            throw new JwtValidationException(MALFORMED, "Identity header fields are not valid");
+        }
+    }
+
+    /* ============================
+       HELPERS
+       ============================ */
+
+    private byte[] mac(byte[] input, int length) {
+        byte[] full = macs.sign(input, length);
+        byte[] truncated = new byte[MAC_BYTES];
+        System.arraycopy(full, 0, truncated, 0, MAC_BYTES);
+        return truncated;
+    }
+
+    private static String encodeText(String value) {
+        return value == null ? "" : BASE64_URL.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeText(String value) {
+        return value.isEmpty() ? null : new String(BASE64_URL_DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,232 @@
+package com.assigment.jwtcodec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Base64;
+
+import static com.assigment.jwtcodec.JwtValidationException.Reason.*;
+
+/**
+ * HS256 JWT issue/verify for the three services.
+ *
+ * <p>The key is decoded once, initialised {@link Mac}s are reused across threads ({@link MacPool}), and
+ * {@link #parse(String)} rejects expired tokens before spending an HMAC on them.
+ * Tokens are wire-compatible with the jjwt 0.12 tokens the services issued before.
+ * Instances are immutable and thread-safe.
+ */
+public final class JwtCodec {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int SIGNATURE_B64_LENGTH = 43;
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    // base64url({"alg":"HS256"}): the header every token issued by the services carries
+    private static final byte[] HS256_HEADER = "eyJhbGciOiJIUzI1NiJ9".getBytes(StandardCharsets.US_ASCII);
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final MacPool macs;
+    private final Clock clock;
+
+    public JwtCodec(byte[] keyBytes, Clock clock) {
+        if (keyBytes == null || keyBytes.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("HS256 key must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(keyBytes.clone(), HMAC_SHA256);
+        this.macs = new MacPool(key);
+        this.clock = clock;
+    }
+
+    public static JwtCodec fromBase64Secret(String base64Secret) {
+        return new JwtCodec(Base64.getMimeDecoder().decode(base64Secret), Clock.systemUTC());
+    }
+
+    /* ============================
+       ISSUE
+       ============================ */
+
+    /**
+     * Issues a signed token for {@code subject}; {@code role} is omitted from the payload when null.
+     */
+    public String issue(String subject, String role, long ttlMillis) {
+        long now = clock.millis();
+        byte[] payload = BASE64_URL.encode(writePayload(subject, role, now, (now + ttlMillis) / 1000));
+
+        int signingLength = HS256_HEADER.length + 1 + payload.length;
+        byte[] token = new byte[signingLength + 1 + SIGNATURE_B64_LENGTH];
+        System.arraycopy(HS256_HEADER, 0, token, 0, HS256_HEADER.length);
+        token[HS256_HEADER.length] = '.';
+        System.arraycopy(payload, 0, token, HS256_HEADER.length + 1, payload.length);
+        token[signingLength] = '.';
+
+        byte[] signature = BASE64_URL.encode(sign(token, signingLength));
+        System.arraycopy(signature, 0, token, signingLength + 1, SIGNATURE_B64_LENGTH);
+
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    /* ============================
+       VERIFY
+       ============================ */
+
+    /**
+     * Returns the claims of a well-formed, unexpired, correctly signed HS256 token.
+     *
+     * @throws JwtValidationException with the reason the token was rejected
+     */
+    public VerifiedClaims parse(String token) {
+        if (token == null) {
+            throw new JwtValidationException(MALFORMED, "Token is null");
+        }
+
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new JwtValidationException(MALFORMED, "Token must have exactly three segments");
+        }
+
+        byte[] ascii = token.getBytes(StandardCharsets.US_ASCII);
+
+        // 1. Expiry first: an expired token never costs an HMAC
+        VerifiedClaims claims = readPayload(ascii, firstDot + 1, secondDot - firstDot - 1);
+        if (clock.millis() >= claims.expiresAtMillis()) {
+            throw new JwtValidationException(EXPIRED, "Token expired");
+        }
+
+        // 2. Only HS256 is accepted, whatever the token claims
+        if (!isHs256Header(ascii, firstDot)) {
+            throw new JwtValidationException(UNSUPPORTED_ALGORITHM, "Only HS256 tokens are accepted");
+        }
+
+        // 3. Signature, compared in constant time on the encoded form
+        byte[] expected = BASE64_URL.encode(sign(ascii, secondDot));
+        int signatureLength = ascii.length - secondDot - 1;
+        if (signatureLength != expected.length) {
+            throw new JwtValidationException(BAD_SIGNATURE, "Signature does not match");
+        }
+        int diff = 0;
+        for (int i = 0; i < signatureLength; i++) {
+            diff |= expected[i] ^ ascii[secondDot + 1 + i];
+        }
+        if (diff != 0) {
+            throw new JwtValidationException(BAD_SIGNATURE, "Signature does not match");
+        }
+
+        return claims;
+    }
+
+    /* ============================
+       HELPERS
+       ============================ */
+
+    private byte[] sign(byte[] input, int length) {
+        return macs.sign(input, length);
+    }
+
+    // iat is whole seconds (RFC 7519); iat_ms keeps the milliseconds, which revocation checks compare against
+    private static byte[] writePayload(String subject, String role, long issuedAtMillis, long expiresAt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            if (role != null) {
+                generator.writeStringField("role", role);
+            }
+            generator.writeStringField("sub", subject);
+            generator.writeNumberField("iat", issuedAtMillis / 1000);
+            generator.writeNumberField(ISSUED_AT_MILLIS_CLAIM, issuedAtMillis);
+            generator.writeNumberField("exp", expiresAt);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write token payload", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static VerifiedClaims readPayload(byte[] ascii, int offset, int length) {
+        String subject = null;
+        String role = null;
+        long issuedAt = 0;
+        long issuedAtMillis = -1;
+        long expiresAt = -1;
+
+        try {
+            ByteBuffer json = BASE64_URL_DECODER.decode(ByteBuffer.wrap(ascii, offset, length));
+            try (JsonParser parser = JSON.createParser(json.array(), json.arrayOffset() + json.position(), json.remaining())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JwtValidationException(MALFORMED, "Payload is not a JSON object");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "sub" -> subject = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        case "role" -> role = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        case "iat" -> issuedAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : 0;
+                        case ISSUED_AT_MILLIS_CLAIM -> issuedAtMillis = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                        case "exp" -> expiresAt = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtValidationException(MALFORMED, "Payload is not valid base64url JSON");
+        }
+
+        if (expiresAt < 0) {
+            throw new JwtValidationException(MALFORMED, "Token has no exp claim");
+        }
+        // Tokens without iat_ms (jjwt-issued) count as issued at the start of their iat second
+        return new VerifiedClaims(subject, role, issuedAt, expiresAt, issuedAtMillis >= 0 ? issuedAtMillis : issuedAt * 1000L);
+    }
+
+    private static boolean isHs256Header(byte[] ascii, int headerLength) {
+        if (headerLength == HS256_HEADER.length) {
+            boolean same = true;
+            for (int i = 0; i < headerLength; i++) {
+                same &= ascii[i] == HS256_HEADER[i];
+            }
+            if (same) {
+                return true;
+            }
+        }
+
+        // Foreign but equivalent header (e.g. with "typ"): decode and check alg
+        try {
+            ByteBuffer json = BASE64_URL_DECODER.decode(ByteBuffer.wrap(ascii, 0, headerLength));
+            try (JsonParser parser = JSON.createParser(json.array(), json.arrayOffset() + json.position(), json.remaining())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return false;
+                }
+                String alg = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("alg".equals(field) && value == JsonToken.VALUE_STRING) {
+                        alg = parser.getText();
+                    } else if ("crit".equals(field)) {
+                        // No critical extensions are understood
+                        return false;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                return "HS256".equals(alg);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtValidationException(MALFORMED, "Header is not valid base64url JSON");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.assigment.jwtcodec;
+
+public class JwtValidationException extends RuntimeException {
+
+    public enum Reason {
+        MALFORMED,
+        UNSUPPORTED_ALGORITHM,
+        EXPIRED,
+        BAD_SIGNATURE
+    }
+
+    private final Reason reason;
+
+    public JwtValidationException(Reason reason, String message) {
+        // Thrown for every rejected token: skip the stack trace, the reason says everything
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,77 @@
+package com.assigment.jwtcodec;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initialised HmacSHA256 instances for one key, shared by all threads.
+ *
+ * <p>A per-thread {@link Mac} does nothing for virtual threads, which run one request each and would pay
+ * {@code Mac.getInstance} + {@code init} every time. Here a signature takes an idle Mac from a bounded
+ * free list, or clones a prototype (no provider lookup, no key schedule) when the list is empty, and puts
+ * it back afterwards; Macs beyond {@code capacity} are left to the garbage collector.
+ */
+final class MacPool {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final ArrayBlockingQueue<Mac> idle;
+    private final AtomicInteger created = new AtomicInteger();
+
+    MacPool(SecretKeySpec key, int capacity) {
+        this.key = key;
+        // Fails at startup rather than on the first request if the provider is missing
+        this.prototype = newMac(key);
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    MacPool(SecretKeySpec key) {
+        this(key, Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * HMAC of {@code input[0, length)}.
+     */
+    byte[] sign(byte[] input, int length) {
+        Mac mac = idle.poll();
+        if (mac == null) {
+            mac = copy();
+        }
+        mac.update(input, 0, length);
+        byte[] result = mac.doFinal(); // also resets the Mac for its next user
+        idle.offer(mac);
+        return result;
+    }
+
+    // Macs made beyond the prototype, for tests
+    int created() {
+        return created.get();
+    }
+
+    private Mac copy() {
+        created.incrementAndGet();
+        try {
+            synchronized (prototype) {
+                return (Mac) prototype.clone();
+            }
+        } catch (CloneNotSupportedException e) {
+            // Providers whose HMAC cannot be cloned: initialise a new one
+            return newMac(key);
+        }
+    }
+
+    static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_SHA256);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
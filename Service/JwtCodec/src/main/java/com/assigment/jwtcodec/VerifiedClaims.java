@@ -0,0 +1,17 @@
+package com.assigment.jwtcodec;
+
+/**
+ * Claims of a token whose expiry and HS256 signature have both been checked.
+ * {@code issuedAt} and {@code expiresAt} are epoch seconds, as carried in the token; {@code issuedAtMillis}
+ * is the issue time to the millisecond when the token carries it, the start of the {@code iat} second otherwise.
+ */
+public record VerifiedClaims(String subject, String role, long issuedAt, long expiresAt, long issuedAtMillis) {
+
+    public VerifiedClaims(String subject, String role, long issuedAt, long expiresAt) {
+        this(subject, role, issuedAt, expiresAt, issuedAt * 1000L);
+    }
+
+    public long expiresAtMillis() {
+        return expiresAt * 1000L;
+    }
+}
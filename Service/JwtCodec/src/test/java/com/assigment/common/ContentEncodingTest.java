@@ -0,0 +1,41 @@
+package com.assigment.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentEncodingTest {
+
+    @Test
+    void gzipIsAcceptedWhenListed() {
+        assertTrue(ContentEncoding.acceptsGzip("gzip"));
+        assertTrue(ContentEncoding.acceptsGzip("br, GZIP, deflate"));
+        assertTrue(ContentEncoding.acceptsGzip("x-gzip"));
+        assertTrue(ContentEncoding.acceptsGzip("gzip; q=0.5"));
+        assertTrue(ContentEncoding.acceptsGzip("gzip;q=0.001"));
+    }
+
+    @Test
+    void gzipWithZeroQualityIsRefused() {
+        assertFalse(ContentEncoding.acceptsGzip("gzip;q=0"));
+        assertFalse(ContentEncoding.acceptsGzip("gzip;q=0.0"));
+        assertFalse(ContentEncoding.acceptsGzip("gzip ; Q = 0.000"));
+    }
+
+    @Test
+    void wildcardAcceptsGzipUnlessGzipIsListed() {
+        assertTrue(ContentEncoding.acceptsGzip("*"));
+        assertTrue(ContentEncoding.acceptsGzip("br, *;q=0.1"));
+        assertFalse(ContentEncoding.acceptsGzip("*;q=0"));
+        assertFalse(ContentEncoding.acceptsGzip("gzip;q=0, *"));
+        assertTrue(ContentEncoding.acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    void otherCodingsAndMissingHeaderAreUncompressed() {
+        assertFalse(ContentEncoding.acceptsGzip(null));
+        assertFalse(ContentEncoding.acceptsGzip(""));
+        assertFalse(ContentEncoding.acceptsGzip("identity"));
+        assertFalse(ContentEncoding.acceptsGzip("br, deflate"));
+    }
+}
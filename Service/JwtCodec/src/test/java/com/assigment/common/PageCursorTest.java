@@ -0,0 +1,51 @@
+package com.assigment.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripKeepsSubMillisecondTimestamps() {
+        Timestamp createdAt = Timestamp.from(Instant.parse("2024-01-01T10:00:00.000001Z"));
+
+        PageCursor cursor = PageCursor.decode(PageCursor.after(createdAt, "id:with:colons").encode());
+
+        assertEquals(PageCursor.Direction.AFTER, cursor.direction());
+        assertEquals(createdAt, cursor.createdAtTimestamp());
+        assertEquals("id:with:colons", cursor.id());
+    }
+
+    @Test
+    void directionSurvivesTheToken() {
+        Date createdAt = Date.from(Instant.parse("2024-01-01T10:00:00Z"));
+
+        assertEquals(PageCursor.Direction.BEFORE, PageCursor.decode(PageCursor.before(createdAt, "x").encode()).direction());
+    }
+
+    @Test
+    void tokensUseTheUrlSafeAlphabetWithoutPadding() {
+        String token = PageCursor.after(new Date(0), "~~~???").encode();
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String token : new String[]{"", "not base64!", encode("2:a:0:0:x"), encode("1:c:0:0:x"),
+                encode("1:a:0:0:"), encode("1:a:zero:0:x"), encode("1:a:0:0")}) {
+            assertThrows(InvalidCursorException.class, () -> PageCursor.decode(token), token);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
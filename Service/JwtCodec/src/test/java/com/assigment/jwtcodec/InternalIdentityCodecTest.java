@@ -0,0 +1,68 @@
+package com.assigment.jwtcodec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalIdentityCodecTest {
+
+    private static final byte[] KEY = "internal-hop-key-with-at-least-32-bytes".getBytes(StandardCharsets.US_ASCII);
+    private static final Duration MAX_AGE = Duration.ofSeconds(30);
+
+    private final InternalIdentityCodec codec = new InternalIdentityCodec(KEY, Clock.systemUTC(), MAX_AGE);
+
+    private final long now = System.currentTimeMillis() / 1000;
+    private final VerifiedClaims claims = new VerifiedClaims("first.last@mail.com", "ADMIN", now, now + 3600);
+
+    @Test
+    void headerRoundTrips() {
+        assertEquals(claims, codec.decode(codec.encode(claims)));
+    }
+
+    @Test
+    void headerWithoutRoleRoundTrips() {
+        VerifiedClaims noRole = new VerifiedClaims("user@mail.com", null, now, now + 3600);
+        assertNull(codec.decode(codec.encode(noRole)).role());
+    }
+
+    @Test
+    void forgedRoleIsRejected() {
+        String[] parts = codec.encode(claims).split("\\.");
+        parts[2] = Base64.getUrlEncoder().withoutPadding().encodeToString("SUPERADMIN".getBytes(StandardCharsets.UTF_8));
+
+        JwtValidationException e = assertThrows(JwtValidationException.class, () -> codec.decode(String.join(".", parts)));
+        assertEquals(JwtValidationException.Reason.BAD_SIGNATURE, e.getReason());
+    }
+
+    @Test
+    void headerFromAnotherKeyIsRejected() {
+        InternalIdentityCodec other = new InternalIdentityCodec(
+                "another-internal-hop-key-of-32-bytes!!".getBytes(StandardCharsets.US_ASCII), Clock.systemUTC(), MAX_AGE);
+
+        JwtValidationException e = assertThrows(JwtValidationException.class, () -> codec.decode(other.encode(claims)));
+        assertEquals(JwtValidationException.Reason.BAD_SIGNATURE, e.getReason());
+    }
+
+    @Test
+    void headerOlderThanMaxAgeIsRejected() {
+        InternalIdentityCodec past = new InternalIdentityCodec(KEY,
+                Clock.fixed(Instant.now().minusSeconds(60), ZoneOffset.UTC), MAX_AGE);
+
+        JwtValidationException e = assertThrows(JwtValidationException.class, () -> codec.decode(past.encode(claims)));
+        assertEquals(JwtValidationException.Reason.EXPIRED, e.getReason());
+    }
+
+    @Test
+    void garbageIsMalformed() {
+        for (String header : new String[]{"", "v1", "v2.a.b.1.2.3.mac", "v1.a.b.1.2.3.mac.extra", "v1.a.b.x.y.z.mac"}) {
+            assertThrows(JwtValidationException.class, () -> codec.decode(header), header);
+        }
+    }
+}
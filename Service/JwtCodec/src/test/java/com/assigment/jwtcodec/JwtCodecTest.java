@@ -0,0 +1,120 @@
+package com.assigment.jwtcodec;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtCodecTest {
+
+    // Same shape and length as the secret in the config server
+    private static final String SECRET = "BeL3l2reIpmFMl+rWCtrYwgr/Ltf7uJWSegV2Mzd9N2ghrxukiiW93g=";
+    private static final long TWELVE_HOURS = 43_200_000L;
+
+    private final JwtCodec codec = JwtCodec.fromBase64Secret(SECRET);
+
+    @Test
+    void issuedTokenRoundTrips() {
+        VerifiedClaims claims = codec.parse(codec.issue("user@mail.com", "ADMIN", TWELVE_HOURS));
+
+        assertEquals("user@mail.com", claims.subject());
+        assertEquals("ADMIN", claims.role());
+        assertEquals(TWELVE_HOURS / 1000, claims.expiresAt() - claims.issuedAt(), 1);
+    }
+
+    @Test
+    void issueTimeKeepsMilliseconds() {
+        Instant issued = Instant.parse("2024-01-01T10:00:00.750Z");
+        JwtCodec atIssue = new JwtCodec(Decoders.BASE64.decode(SECRET), Clock.fixed(issued, ZoneOffset.UTC));
+        JwtCodec later = new JwtCodec(Decoders.BASE64.decode(SECRET), Clock.fixed(issued.plusSeconds(60), ZoneOffset.UTC));
+
+        VerifiedClaims claims = later.parse(atIssue.issue("user@mail.com", "USER", TWELVE_HOURS));
+
+        assertEquals(issued.getEpochSecond(), claims.issuedAt());
+        assertEquals(issued.toEpochMilli(), claims.issuedAtMillis());
+    }
+
+    @Test
+    void tokenWithoutRoleHasNullRole() {
+        assertNull(codec.parse(codec.issue("user@mail.com", null, TWELVE_HOURS)).role());
+    }
+
+    @Test
+    void expiredTokenIsRejectedAsExpired() {
+        JwtCodec past = new JwtCodec(Decoders.BASE64.decode(SECRET),
+                Clock.fixed(Instant.now().minusSeconds(3600), ZoneOffset.UTC));
+        String token = past.issue("user@mail.com", "USER", 60_000);
+
+        JwtValidationException e = assertThrows(JwtValidationException.class, () -> codec.parse(token));
+        assertEquals(JwtValidationException.Reason.EXPIRED, e.getReason());
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String[] parts = codec.issue("user@mail.com", "USER", TWELVE_HOURS).split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"role\":\"ADMIN\",\"sub\":\"user@mail.com\",\"exp\":" + (System.currentTimeMillis() / 1000 + 600) + "}")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        JwtValidationException e = assertThrows(JwtValidationException.class,
+                () -> codec.parse(parts[0] + "." + forged + "." + parts[2]));
+        assertEquals(JwtValidationException.Reason.BAD_SIGNATURE, e.getReason());
+    }
+
+    @Test
+    void unsignedTokenIsRejected() {
+        String[] parts = codec.issue("user@mail.com", "USER", TWELVE_HOURS).split("\\.");
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+
+        JwtValidationException e = assertThrows(JwtValidationException.class,
+                () -> codec.parse(none + "." + parts[1] + "." + parts[2]));
+        assertEquals(JwtValidationException.Reason.UNSUPPORTED_ALGORITHM, e.getReason());
+    }
+
+    @Test
+    void garbageIsMalformed() {
+        assertEquals(JwtValidationException.Reason.MALFORMED,
+                assertThrows(JwtValidationException.class, () -> codec.parse("not-a-token")).getReason());
+        assertEquals(JwtValidationException.Reason.MALFORMED,
+                assertThrows(JwtValidationException.class, () -> codec.parse("a.b!.c")).getReason());
+    }
+
+    @Test
+    void interoperatesWithJjwt() {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        // jjwt-issued token (what the services issued before) parses with the codec
+        String legacy = Jwts.builder()
+                .setClaims(Map.of("role", "USER"))
+                .setSubject("user@mail.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TWELVE_HOURS))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        VerifiedClaims legacyClaims = codec.parse(legacy);
+        assertEquals("USER", legacyClaims.role());
+        // No iat_ms: issued at the start of its iat second, so a revocation in that second still covers it
+        assertEquals(legacyClaims.issuedAt() * 1000, legacyClaims.issuedAtMillis());
+
+        // codec-issued token parses with jjwt
+        Claims claims = Jwts.parser().setSigningKey(key).build()
+                .parseClaimsJws(codec.issue("user@mail.com", "ADMIN", TWELVE_HOURS))
+                .getBody();
+        assertEquals("user@mail.com", claims.getSubject());
+        assertEquals("ADMIN", claims.get("role", String.class));
+    }
+}
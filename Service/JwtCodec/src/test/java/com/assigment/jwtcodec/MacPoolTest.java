@@ -0,0 +1,57 @@
+package com.assigment.jwtcodec;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MacPoolTest {
+
+    private static final byte[] KEY = "internal-hop-key-with-at-least-32-bytes".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void virtualThreadsReuseInitialisedMacs() throws Exception {
+        MacPool pool = new MacPool(new SecretKeySpec(KEY, "HmacSHA256"), 4);
+        byte[] input = "header.payload".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = MacPool.newMac(new SecretKeySpec(KEY, "HmacSHA256")).doFinal(input);
+
+        // One request per virtual thread, one after another: a per-thread Mac would be created 1000 times
+        for (int i = 0; i < 1000; i++) {
+            Thread thread = Thread.ofVirtual().start(() -> assertArrayEquals(expected, pool.sign(input, input.length)));
+            thread.join();
+        }
+
+        assertEquals(1, pool.created());
+    }
+
+    @Test
+    void codecsAgreeUnderConcurrentVirtualThreads() throws Exception {
+        JwtCodec jwt = new JwtCodec(KEY, Clock.systemUTC());
+        InternalIdentityCodec identity = new InternalIdentityCodec(KEY, Clock.systemUTC(), Duration.ofSeconds(30));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                String subject = "user" + i + "@mail.com";
+                results.add(executor.submit(() -> {
+                    VerifiedClaims claims = jwt.parse(jwt.issue(subject, "USER", 60_000));
+                    assertEquals(subject, claims.subject());
+                    VerifiedClaims forwarded = new VerifiedClaims(claims.subject(), claims.role(), claims.issuedAt(), claims.expiresAt());
+                    assertEquals(forwarded, identity.decode(identity.encode(claims)));
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+    }
+}
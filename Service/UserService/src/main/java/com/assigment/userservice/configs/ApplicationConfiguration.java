@@ -1,18 +1,28 @@
 package com.assigment.userservice.configs;
 
 import com.assigment.userservice.entRepo.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 public class ApplicationConfiguration {
+    private static final Logger logger = LogManager.getLogger(ApplicationConfiguration.class);
+
     private final UserRepository userRepository;
 
     public ApplicationConfiguration(UserRepository userRepository) {
@@ -25,9 +35,50 @@ public class ApplicationConfiguration {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // Every encode/match runs on the bounded hashing pool, never inline on a request thread.
+    // New hashes use `encoder`; BCrypt's cost is bcrypt.cost, or measured on this host at startup when it is 0
+    @Bean
+    BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${user.password-hashing.threads:0}") int threads,
+            @Value("${user.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${user.password-hashing.max-wait:2s}") Duration maxWait,
+            @Value("${user.password-hashing.encoder:bcrypt}") String encoder,
+            @Value("${user.password-hashing.prefix-ids:false}") boolean prefixIds,
+            @Value("${user.password-hashing.bcrypt.cost:10}") int bcryptCost,
+            @Value("${user.password-hashing.bcrypt.budget:250ms}") Duration bcryptBudget,
+            @Value("${user.password-hashing.bcrypt.min-cost:10}") int bcryptMinCost,
+            @Value("${user.password-hashing.bcrypt.max-cost:14}") int bcryptMaxCost
+    ) {
+        int cost = bcryptCost > 0
+                ? bcryptCost
+                : PasswordHashCalibration.calibrateBCryptCost(bcryptBudget, bcryptMinCost, bcryptMaxCost);
+        Gauge.builder("user.password.hash.cost", () -> cost)
+                .description("BCrypt work factor for new hashes")
+                .register(meterRegistry);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(PasswordHashCalibration.storageEncoder(encoder, cost, bcryptCost > 0, prefixIds),
+                poolSize, queueCapacity, maxWait, meterRegistry);
+    }
+
+    // Called by RehashingAuthenticationProvider, off the login's thread, after a successful login whose stored
+    // hash is not in the current encoding, with the password re-encoded. `user` holds the hash that was verified:
+    // a password changed in the meantime is left alone
     @Bean
-    BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            try {
+                return userRepository.findByEmail(user.getUsername())
+                        .filter(entity -> entity.getPassword().equals(user.getPassword()))
+                        .<UserDetails>map(entity -> userRepository.save(entity.setPassword(newPassword)))
+                        .orElse(user);
+            } catch (RuntimeException e) {
+                // The login itself succeeded; the hash is upgraded at a later login
+                logger.warn("Could not re-encode password of user {}: {}", user.getUsername(), e.getMessage());
+                return user;
+            }
+        };
     }
 
     @Bean
@@ -36,11 +87,13 @@ public class ApplicationConfiguration {
     }
 
     @Bean
-    AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+    AuthenticationProvider authenticationProvider(BoundedPasswordEncoder passwordEncoder,
+                                                  UserDetailsPasswordService userDetailsPasswordService) {
+        DaoAuthenticationProvider authProvider =
+                new RehashingAuthenticationProvider(passwordEncoder, userDetailsPasswordService);
 
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
 
         return authProvider;
     }
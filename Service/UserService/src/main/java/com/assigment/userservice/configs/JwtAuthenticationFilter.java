@@ -1,16 +1,21 @@
 package com.assigment.userservice.configs;
 
+import com.assigment.jwtcodec.InternalIdentityCodec;
+import com.assigment.jwtcodec.JwtValidationException;
+import com.assigment.jwtcodec.VerifiedClaims;
+import com.assigment.userservice.dto.UserPrincipal;
 import com.assigment.userservice.services.JwtService;
+import com.assigment.userservice.services.PrincipalService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,21 +26,31 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LogManager.getLogger(JwtAuthenticationFilter.class);
+
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalService principalService;
+    private final InternalIdentityCodec identityCodec;
+
+    // Deployed behind the gateway: trust its signed X-Internal-Identity instead of parsing the JWT again
+    private final boolean behindGateway;
 
     /* ============================
        CONSTRUCTOR
        ============================ */
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            PrincipalService principalService,
+            HandlerExceptionResolver handlerExceptionResolver,
+            InternalIdentityCodec identityCodec,
+            @Value("${internal-identity.behind-gateway:false}") boolean behindGateway
     ) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principalService = principalService;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.identityCodec = identityCodec;
+        this.behindGateway = behindGateway;
     }
 
     /* ============================
@@ -48,6 +63,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
 
+        final VerifiedClaims forwarded = forwardedIdentity(request);
+        if (forwarded != null) {
+            try {
+                if (shouldAuthenticate(forwarded.subject())) {
+                    authenticateUser(request, forwarded);
+                }
+                filterChain.doFilter(request, response);
+            } catch (Exception exception) {
+                handlerExceptionResolver.resolveException(request, response, null, exception);
+            }
+            return;
+        }
+
         final String authHeader = request.getHeader("Authorization");
 
         if (isInvalidAuthHeader(authHeader)) {
@@ -57,10 +85,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = extractJwt(authHeader);
-            String userEmail = jwtService.extractUsername(jwt);
+            // Single parse: expiry and signature are checked here, claims reused below
+            VerifiedClaims claims = jwtService.parse(jwt);
+            String userEmail = claims.subject();
 
             if (shouldAuthenticate(userEmail)) {
-                authenticateUser(request, jwt, userEmail);
+                authenticateUser(request, claims);
             }
 
             filterChain.doFilter(request, response);
@@ -70,6 +100,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    // 🔹 0. Identity already verified by the gateway; null for direct calls or a header that does not verify
+    private VerifiedClaims forwardedIdentity(HttpServletRequest request) {
+        String header = request.getHeader(InternalIdentityCodec.HEADER);
+        if (!behindGateway || header == null) {
+            return null;
+        }
+        try {
+            return identityCodec.decode(header);
+        } catch (JwtValidationException e) {
+            logger.warn("Ignoring internal identity header ({}): {}", e.getReason(), e.getMessage());
+            return null;
+        }
+    }
+
     // 🔹 1. Check if header is missing or invalid
     private boolean isInvalidAuthHeader(String authHeader) {
         return authHeader == null || !authHeader.startsWith("Bearer ");
@@ -85,15 +129,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null;
     }
 
-    // 🔹 4. Authenticate the user using JWT + DB
-    private void authenticateUser(HttpServletRequest request, String jwt, String userEmail) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+    // 🔹 4. Authenticate the user from verified claims + cached principal (no DB read on a cache hit)
+    private void authenticateUser(HttpServletRequest request, VerifiedClaims claims) {
+        UserPrincipal principal = principalService.loadPrincipal(claims);
 
-        if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (claims.subject().equals(principal.getUsername())) {
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
+                    principal,
                     null,
-                    userDetails.getAuthorities()
+                    principal.getAuthorities()
             );
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
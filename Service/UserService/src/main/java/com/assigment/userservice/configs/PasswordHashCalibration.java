@@ -0,0 +1,180 @@
+package com.assigment.userservice.configs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/* ============================
+   Picks the password hash cost for the hardware UserService actually runs on, and builds the encoder
+   stored hashes are checked against.
+   Stored hashes are bare BCrypt ($2a$...) unless prefix-ids is on: instances that predate the ids only
+   read bare hashes, so {id}hash (DelegatingPasswordEncoder) may only be written once every instance
+   runs this code, and a rollback past it needs prefix-ids off again. Both forms always verify.
+   A stored hash in the other form or another algorithm is re-encoded after the user's next successful login
+   (RehashingAuthenticationProvider). So is a BCrypt hash of another cost when the cost is pinned: lowering
+   or raising it is a deliberate config change, not a migration. A calibrated cost only ever raises stored
+   costs: instances can measure different costs, and re-encoding in both directions would rewrite a password
+   back and forth as logins alternate between them.
+   ============================ */
+final class PasswordHashCalibration {
+
+    private static final Logger logger = LogManager.getLogger(PasswordHashCalibration.class);
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+
+    private static final int SAMPLES = 3;
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private PasswordHashCalibration() {
+    }
+
+    /**
+     * Strongest BCrypt cost in {@code [minCost, maxCost]} whose measured hash time stays within {@code budget}
+     * on this host; {@code minCost} when even that is over budget.
+     */
+    static int calibrateBCryptCost(Duration budget, int minCost, int maxCost) {
+        long budgetNanos = budget.toNanos();
+
+        measure(minCost, 1); // warm-up: the first hashes run interpreted
+        long nanos = measure(minCost, SAMPLES);
+        if (nanos > budgetNanos) {
+            logger.warn("BCrypt cost {} takes {} ms, over the {} budget; using it anyway (minimum cost)",
+                    minCost, TimeUnit.NANOSECONDS.toMillis(nanos), budget);
+            return minCost;
+        }
+
+        int cost = minCost;
+        // Each step doubles the work: only measure the next cost when its estimate fits the budget
+        while (cost < maxCost && nanos * 2 <= budgetNanos) {
+            long next = measure(cost + 1, 1);
+            if (next > budgetNanos) {
+                break;
+            }
+            cost++;
+            nanos = next;
+        }
+
+        logger.info("BCrypt cost calibrated to {} ({} ms per hash, budget {})",
+                cost, TimeUnit.NANOSECONDS.toMillis(nanos), budget);
+        return cost;
+    }
+
+    /**
+     * Encoder for stored hashes; matches every registered id, and bare BCrypt hashes.
+     * With {@code prefixIds}, new hashes are {id}hash encoded with {@code idForEncode} and bare ones are
+     * re-encoded; without, new hashes are bare BCrypt and prefixed ones are re-encoded back to bare.
+     * With {@code pinnedCost}, BCrypt hashes of any other cost are re-encoded; otherwise only lower ones.
+     */
+    static PasswordEncoder storageEncoder(String idForEncode, int bcryptCost, boolean pinnedCost, boolean prefixIds) {
+        if (!prefixIds && !BCRYPT.equals(idForEncode)) {
+            throw new IllegalStateException("Password encoder '" + idForEncode
+                    + "' needs user.password-hashing.prefix-ids=true: only BCrypt is stored without an id");
+        }
+
+        PasswordEncoder bcrypt = pinnedCost
+                ? new ExactCostBCryptPasswordEncoder(bcryptCost)
+                : new BCryptPasswordEncoder(bcryptCost);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        // Argon2 needs Bouncy Castle at runtime; without it, argon2 hashes cannot be produced or verified
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.generators.Argon2BytesGenerator",
+                PasswordHashCalibration.class.getClassLoader())) {
+            encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException("Password encoder '" + idForEncode + "' is not available; known: "
+                    + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return prefixIds ? delegating : new BareBCryptEncoder(bcrypt, delegating);
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+
+    // Median of `samples` hashes at `cost`
+    private static long measure(int cost, int samples) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[samples / 2];
+    }
+
+    /**
+     * Writes bare BCrypt hashes, as UserService did before ids; still verifies prefixed hashes written while
+     * prefix-ids was on, and asks for them to be re-encoded bare.
+     */
+    private static final class BareBCryptEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder bcrypt;
+        private final PasswordEncoder matcher;
+
+        BareBCryptEncoder(PasswordEncoder bcrypt, PasswordEncoder matcher) {
+            this.bcrypt = bcrypt;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return matcher.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            return encodedPassword.startsWith("{") || bcrypt.upgradeEncoding(encodedPassword);
+        }
+    }
+
+    /**
+     * BCrypt that asks for a re-encode whenever the stored cost differs from its own, in either direction
+     * (the stock encoder only upgrades).
+     */
+    private static final class ExactCostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int cost;
+
+        ExactCostBCryptPasswordEncoder(int cost) {
+            super(cost);
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null) {
+                return false;
+            }
+            Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+            return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+        }
+    }
+}
@@ -5,8 +5,10 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @Configuration
 public class RabbitConfig {
@@ -65,13 +67,30 @@ public class RabbitConfig {
         return template;
     }
 
+    // Boot's configurer applies spring.rabbitmq.listener.simple.*, and runs consumers on virtual threads
+    // when spring.threads.virtual.enabled is set
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
             ConnectionFactory connectionFactory,
             Jackson2JsonMessageConverter converter) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory);
+        configurer.configure(factory, connectionFactory);
         factory.setMessageConverter(converter);
         return factory;
     }
+
+    // Mail consumers stay on platform threads in either mode: JavaMail's SMTPTransport sends from
+    // synchronized methods, which would pin a virtual thread to its carrier for the whole SMTP exchange
+    @Bean
+    public SimpleRabbitListenerContainerFactory mailListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter converter) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(converter);
+        factory.setTaskExecutor(new SimpleAsyncTaskExecutor("rabbit-mail-"));
+        return factory;
+    }
 }
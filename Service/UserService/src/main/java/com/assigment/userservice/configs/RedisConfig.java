@@ -1,13 +1,20 @@
 package com.assigment.userservice.configs;
 
+import com.assigment.userservice.services.impl.PrincipalServiceImpl;
+import com.assigment.userservice.services.impl.RegisteredContactServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import static com.assigment.userservice.constants.RedisKeyConstant.CONTACT_REGISTERED_CHANNEL;
+import static com.assigment.userservice.constants.RedisKeyConstant.PRINCIPAL_INVALIDATION_CHANNEL;
+
 @Configuration
 public class RedisConfig {
 
@@ -30,4 +37,25 @@ public class RedisConfig {
         return new StringRedisTemplate(connectionFactory);
     }
 
+    // Delivers principal invalidations published by any UserService instance (including this one)
+    @Bean
+    public RedisMessageListenerContainer principalInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            PrincipalServiceImpl principalService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(principalService, ChannelTopic.of(PRINCIPAL_INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    // Delivers contacts of users saved by any UserService instance (including this one) to the contact filter
+    @Bean
+    public RedisMessageListenerContainer contactRegisteredListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RegisteredContactServiceImpl registeredContactService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(registeredContactService, ChannelTopic.of(CONTACT_REGISTERED_CHANNEL));
+        return container;
+    }
 }
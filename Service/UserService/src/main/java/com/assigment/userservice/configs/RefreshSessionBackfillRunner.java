@@ -0,0 +1,36 @@
+package com.assigment.userservice.configs;
+
+import com.assigment.userservice.services.RefreshSessionService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/* ============================
+   Builds USER_SESSIONS:{email} for refresh tokens issued before the index existed.
+   Guarded by a Redis marker so it only runs once across all instances.
+   ============================ */
+@Component
+@ConditionalOnProperty(name = "app.redis.session-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshSessionBackfillRunner implements ApplicationRunner {
+
+    private static final Logger logger = LogManager.getLogger(RefreshSessionBackfillRunner.class);
+
+    private final RefreshSessionService refreshSessionService;
+
+    public RefreshSessionBackfillRunner(RefreshSessionService refreshSessionService) {
+        this.refreshSessionService = refreshSessionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            refreshSessionService.backfillSessionIndex();
+        } catch (Exception e) {
+            // Startup must not fail because Redis is briefly unavailable; the marker was released for a retry
+            logger.warn("Skipping refresh session backfill: {}", e.getMessage());
+        }
+    }
+}
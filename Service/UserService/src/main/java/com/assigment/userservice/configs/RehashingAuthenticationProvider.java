@@ -0,0 +1,35 @@
+package com.assigment.userservice.configs;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+
+/* ============================
+   DaoAuthenticationProvider that re-encodes a stored hash not in the current encoding after a successful
+   login, without the login waiting for it. The re-encode is a second full hash: done inline, on the bounded
+   hashing pool, it could turn a verified login into a 503. Here it is handed to the pool only while no request
+   hash is queued, and skipped otherwise; the next login tries again.
+   ============================ */
+class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+
+    RehashingAuthenticationProvider(BoundedPasswordEncoder passwordEncoder,
+                                    UserDetailsPasswordService userDetailsPasswordService) {
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && user.getPassword() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            passwordEncoder.encodeInBackground(credentials.toString(),
+                    newPassword -> userDetailsPasswordService.updatePassword(user, newPassword));
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -1,5 +1,6 @@
 package com.assigment.userservice.configs;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.ws.rs.HttpMethod;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,6 +45,8 @@ public class SecurityConfiguration {
                 .csrf().disable()
                 .cors().and() // Enable CORS
                 .authorizeHttpRequests()
+                // Streamed exports: authorized on the original request; the async dispatch that ends them carries no token
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .anyRequest().authenticated()
                 .and()
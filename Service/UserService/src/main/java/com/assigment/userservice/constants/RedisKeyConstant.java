@@ -0,0 +1,25 @@
+package com.assigment.userservice.constants;
+
+public class RedisKeyConstant {
+
+    // REFRESH:{token} -> email
+    public static final String REFRESH_PREFIX = "REFRESH:";
+
+    // USER_SESSIONS:{email} -> sorted set of refresh tokens scored by expiry (epoch millis)
+    public static final String USER_SESSIONS_PREFIX = "USER_SESSIONS:";
+
+    // Set once the REFRESH:* -> USER_SESSIONS:* backfill has run
+    public static final String SESSION_BACKFILL_MARKER = "MIGRATION:USER_SESSIONS";
+
+    // REVOKED_USERS -> sorted set of emails scored by revocation time (epoch millis); gateway resync snapshot
+    public static final String REVOKED_USERS_KEY = "REVOKED_USERS";
+
+    // Pub/sub channel carrying each RevocationMessage to every gateway instance
+    public static final String REVOCATION_CHANNEL = "auth.revocation";
+
+    // Pub/sub channel carrying the email of a changed user to every UserService instance's principal cache
+    public static final String PRINCIPAL_INVALIDATION_CHANNEL = "user.principal.invalidation";
+
+    // Pub/sub channel carrying "email\nphoneNumber" of a saved user to every UserService instance's contact filter
+    public static final String CONTACT_REGISTERED_CHANNEL = "user.contact.registered";
+}
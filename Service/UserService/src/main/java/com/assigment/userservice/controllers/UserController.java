@@ -1,17 +1,30 @@
 package com.assigment.userservice.controllers;
 
+import com.assigment.common.ContentEncoding;
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
 import com.assigment.userservice.dto.request.UserRequest;
 import com.assigment.userservice.dto.response.PaginatedUserResponse;
+import com.assigment.userservice.dto.response.UserCursorPageResponse;
+import com.assigment.userservice.dto.response.UserImportResponse;
 import com.assigment.userservice.dto.response.UserStandardResponse;
+import com.assigment.userservice.services.UserExportService;
+import com.assigment.userservice.services.UserImportService;
 import com.assigment.userservice.services.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("api/user")
@@ -20,6 +33,8 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService service;
+    private final UserImportService importService;
+    private final UserExportService exportService;
 
     /* CREATE USER (admin only) */
     @PostMapping("/")
@@ -28,6 +43,52 @@ public class UserController {
         return ResponseEntity.ok(service.createUser(request));
     }
 
+    /* BULK IMPORT (admin only)
+       Body: NDJSON (application/x-ndjson, one UserRequest per line) or CSV (text/csv, header row naming
+       firstName,lastName,phoneNumber,email,password[,role,status]); read as a stream, never buffered
+    */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        return ResponseEntity.ok(importService.importUsers(request.getInputStream(), format));
+    }
+
+    /* BULK EXPORT (admin only)
+       NDJSON, one UserResponse per line, streamed from a database cursor; gzip when the client accepts it
+       Example: GET /api/user/export?status=ENABLE&role=USER&fetchSize=1000
+    */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(name = "status", required = false) StatusEnum status,
+            @RequestParam(name = "role", required = false) RoleEnum role,
+            @RequestParam(name = "fetchSize", required = false) Integer fetchSize,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = ContentEncoding.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response.body(out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.exportUsers(compressed, status, role, fetchSize);
+                compressed.finish();
+            } else {
+                exportService.exportUsers(out, status, role, fetchSize);
+            }
+        });
+    }
+
     /* GET USERS (based on role)
        pagination: ?page=0&size=5  (defaults page=0 size=5)
     */
@@ -95,4 +156,21 @@ public class UserController {
         PaginatedUserResponse response = service.findAllUsersPaginated(page, size, baseUrl);
         return ResponseEntity.ok(response);
     }
+
+    /* Keyset alternative to /list: ?cursor= (empty for the first page), then nextCursor/previousCursor.
+       Same cost at any depth; size is capped at 100; totalElements only with includeTotal=true.
+       A cursor this service did not issue is answered 400
+    */
+    @GetMapping(value = "/list", params = "cursor")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<UserCursorPageResponse> getUsersByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = "5") int size,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal,
+            HttpServletRequest request
+    ) {
+        // The service caps size and adds it to the page links
+        String baseUrl = request.getRequestURL().toString();
+        return ResponseEntity.ok(service.findAllUsersByCursor(cursor, size, includeTotal, baseUrl));
+    }
 }
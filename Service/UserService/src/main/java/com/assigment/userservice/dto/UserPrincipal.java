@@ -0,0 +1,37 @@
+package com.assigment.userservice.dto;
+
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.entRepo.UserEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of what request authorization needs from a user: no password, no entity state.
+ * Safe to cache and share between requests; authorities match {@link UserEntity#getAuthorities()}.
+ */
+public record UserPrincipal(String email, RoleEnum role, StatusEnum status) implements UserDetails {
+
+    public static UserPrincipal of(UserEntity user) {
+        return new UserPrincipal(user.getEmail(), user.getRole(), user.getStatus());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null; // never needed after the token is verified
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
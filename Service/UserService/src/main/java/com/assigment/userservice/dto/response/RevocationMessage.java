@@ -0,0 +1,15 @@
+package com.assigment.userservice.dto.response;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RevocationMessage {
+    private String email;
+    // Access tokens issued at or before this instant (epoch millis) are no longer accepted
+    private long revokedAt;
+    private String reason;
+}
@@ -0,0 +1,30 @@
+package com.assigment.userservice.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserCursorPageResponse {
+    private int status;
+    private String message;
+    private List<UserResponse> users;
+    private int size;
+
+    // keyset pagination: opaque cursors, passed back as ?cursor= (null when there is no such page)
+    private boolean hasNext;
+    private boolean hasPrevious;
+    private String nextCursor;
+    private String previousCursor;
+
+    // pagination links
+    private String nextPageUrl;
+    private String previousPageUrl;
+
+    // only counted when requested with includeTotal=true
+    private Long totalElements;
+}
@@ -0,0 +1,35 @@
+package com.assigment.userservice.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResponse {
+    private int status;
+    private String message;
+
+    // row counts (blank lines and the CSV header are not rows)
+    private long received;
+    private long imported;
+    private long rejected;
+
+    // the first rejected rows, in file order; errorsTruncated when more were rejected than reported
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated;
+
+    @Getter
+    @Setter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ImportRowError {
+        private long line;
+        private String email;
+        private String reason;
+    }
+}
@@ -0,0 +1,11 @@
+package com.assigment.userservice.entRepo;
+
+/**
+ * The unique contact columns of a user, read without loading the entity.
+ */
+public interface UserContact {
+
+    String getEmail();
+
+    String getPhoneNumber();
+}
@@ -26,7 +26,8 @@ import java.util.List;
 @Accessors(chain = true)
 @Validated
 @Entity
-@Table(name = "users_table")
+// Keyset pagination order (created_at, id)
+@Table(name = "users_table", indexes = @Index(name = "idx_users_created_id", columnList = "created_at, userID"))
 public class UserEntity implements UserDetails {
 
     /* ============================
@@ -1,14 +1,56 @@
 package com.assigment.userservice.entRepo;
 
-import jakarta.validation.constraints.NotBlank;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, String> {
     Optional<UserEntity> findByEmail(String email);
 
     Optional<UserEntity> findByPhoneNumber(String phoneNumber);
+
+    // Users holding this email or this phone number (at most two rows): one query for both duplicate checks
+    @Query("select u.email as email, u.phoneNumber as phoneNumber from UserEntity u " +
+            "where u.email = :email or u.phoneNumber = :phoneNumber")
+    List<UserContact> findContacts(@Param("email") String email, @Param("phoneNumber") String phoneNumber);
+
+    // Every user's contacts, fetched in batches through a cursor; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.email as email, u.phoneNumber as phoneNumber from UserEntity u")
+    Stream<UserContact> streamAllContacts();
+
+    /* ============================
+       KEYSET PAGES, ordered by (created_at, user_id)
+       Row-value comparisons let Postgres seek straight into idx_users_created_id: a page costs the same at
+       any depth. Native because the comparison must reach SQL as written.
+       ============================ */
+
+    @Query(value = "select * from users_table order by created_at, user_id limit :limit", nativeQuery = true)
+    List<UserEntity> findFirstPage(@Param("limit") int limit);
+
+    @Query(value = "select * from users_table where (created_at, user_id) > (:createdAt, :id) " +
+            "order by created_at, user_id limit :limit", nativeQuery = true)
+    List<UserEntity> findPageAfter(@Param("createdAt") Timestamp createdAt, @Param("id") String id,
+                                   @Param("limit") int limit);
+
+    // Newest first: the caller reverses the rows back into listing order
+    @Query(value = "select * from users_table where (created_at, user_id) < (:createdAt, :id) " +
+            "order by created_at desc, user_id desc limit :limit", nativeQuery = true)
+    List<UserEntity> findPageBefore(@Param("createdAt") Timestamp createdAt, @Param("id") String id,
+                                    @Param("limit") int limit);
 }
@@ -1,6 +1,8 @@
 package com.assigment.userservice.exceptions;
 
+import com.assigment.common.InvalidCursorException;
 import com.assigment.userservice.dto.response.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,6 +43,35 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    // Handle password hashing overload (login storms): tell the caller to retry shortly
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleHashingCapacityExceeded(HashingCapacityExceededException exp) {
+        Map<String, String> details = new HashMap<>();
+        details.put("error", exp.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.builder()
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .message("Server busy, please retry")
+                        .details(details)
+                        .build());
+    }
+
+    // Handle page cursors that were not produced by this service (tampered, truncated, other listing version)
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException exp) {
+        Map<String, String> details = new HashMap<>();
+        details.put("error", exp.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .message("Invalid page cursor")
+                        .details(details)
+                        .build());
+    }
+
     // Handle validation errors (for @Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException exp) {
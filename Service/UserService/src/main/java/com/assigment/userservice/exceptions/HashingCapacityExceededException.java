@@ -0,0 +1,11 @@
+package com.assigment.userservice.exceptions;
+
+/**
+ * Password hashing is saturated: the hashing queue is full, or the hash did not start in time.
+ * Answered with 503 so callers back off instead of piling up behind it.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.assigment.userservice.services;
 
+import com.assigment.jwtcodec.VerifiedClaims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface JwtService {
@@ -11,7 +12,7 @@ public interface JwtService {
 
     String extractUsername(String token);
 
-    <T> T extractClaim(String token, java.util.function.Function<io.jsonwebtoken.Claims, T> claimsResolver);
+    VerifiedClaims parse(String token);
 
     boolean isTokenValid(String token, UserDetails userDetails);
 }
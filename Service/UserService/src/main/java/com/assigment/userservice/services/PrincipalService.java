@@ -0,0 +1,19 @@
+package com.assigment.userservice.services;
+
+import com.assigment.jwtcodec.VerifiedClaims;
+import com.assigment.userservice.dto.UserPrincipal;
+
+public interface PrincipalService {
+
+    /**
+     * Principal for the subject of verified claims: built from the claims alone in {@code claims} mode,
+     * otherwise from the snapshot cache, loading the user from the database on a miss.
+     */
+    UserPrincipal loadPrincipal(VerifiedClaims claims);
+
+    /**
+     * Drops the cached snapshots of these users here and on every other UserService instance.
+     * Call after the change is saved.
+     */
+    void invalidate(String... emails);
+}
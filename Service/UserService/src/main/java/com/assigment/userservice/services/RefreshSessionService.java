@@ -0,0 +1,12 @@
+package com.assigment.userservice.services;
+
+import java.time.Duration;
+
+public interface RefreshSessionService {
+
+    void registerSession(String refreshToken, String email, Duration ttl);
+
+    int revokeAllSessions(String email);
+
+    int backfillSessionIndex();
+}
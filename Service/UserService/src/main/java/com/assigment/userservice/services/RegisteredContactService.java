@@ -0,0 +1,38 @@
+package com.assigment.userservice.services;
+
+import com.assigment.userservice.entRepo.UserContact;
+
+import java.util.List;
+
+public interface RegisteredContactService {
+
+    /**
+     * Which of these contacts already belongs to a user; the email wins when both do.
+     */
+    enum Match {
+        NONE, EMAIL, PHONE_NUMBER;
+
+        /**
+         * Classifies the rows UserRepository.findContacts returned for {@code email} and a phone number.
+         */
+        public static Match of(List<UserContact> contacts, String email) {
+            if (contacts.stream().anyMatch(contact -> contact.getEmail().equals(email))) {
+                return EMAIL;
+            }
+            return contacts.isEmpty() ? NONE : PHONE_NUMBER;
+        }
+    }
+
+    /**
+     * Answers from memory when neither contact can be registered, otherwise with one database query.
+     */
+    Match findRegistered(String email, String phoneNumber);
+
+    boolean isEmailRegistered(String email);
+
+    /**
+     * Records the contacts of a saved user here and on every other UserService instance.
+     * Call after the user is saved; null values are ignored.
+     */
+    void registered(String email, String phoneNumber);
+}
@@ -0,0 +1,17 @@
+package com.assigment.userservice.services;
+
+public interface RevocationService {
+
+    enum Reason {
+        LOGOUT,
+        DELETED,
+        DISABLED,
+        PASSWORD_RESET
+    }
+
+    /**
+     * Ends every refresh session of the user and tells the gateways to reject access tokens
+     * issued up to now. Returns the number of refresh sessions removed.
+     */
+    int revokeUser(String email, Reason reason);
+}
@@ -0,0 +1,18 @@
+package com.assigment.userservice.services;
+
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    /**
+     * Writes every user matching the filters (null = any) to {@code out} as NDJSON, one UserResponse per line,
+     * read through a database cursor {@code fetchSize} rows at a time (null = configured default).
+     *
+     * @return the number of users written
+     */
+    long exportUsers(OutputStream out, StatusEnum status, RoleEnum role, Integer fetchSize) throws IOException;
+}
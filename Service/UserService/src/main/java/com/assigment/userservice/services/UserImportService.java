@@ -0,0 +1,17 @@
+package com.assigment.userservice.services;
+
+import com.assigment.userservice.dto.response.UserImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Creates a user for every valid row of {@code input}, read as a stream; rejected rows (invalid, or an
+     * email/phone number already in use) are reported and do not stop the import.
+     */
+    UserImportResponse importUsers(InputStream input, Format format) throws IOException;
+}
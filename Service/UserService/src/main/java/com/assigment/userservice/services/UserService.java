@@ -2,6 +2,7 @@ package com.assigment.userservice.services;
 
 import com.assigment.userservice.dto.request.UserRequest;
 import com.assigment.userservice.dto.response.PaginatedUserResponse;
+import com.assigment.userservice.dto.response.UserCursorPageResponse;
 import com.assigment.userservice.dto.response.UserStandardResponse;
 import org.springframework.security.core.Authentication;
 
@@ -22,4 +23,7 @@ public interface UserService {
 
     PaginatedUserResponse findAllUsersPaginated(int page, int size, String baseUrl);
 
+    // Keyset alternative to findAllUsersPaginated: cursor null/blank = first page; totals only on request
+    UserCursorPageResponse findAllUsersByCursor(String cursor, int size, boolean includeTotal, String baseUrl);
+
 }
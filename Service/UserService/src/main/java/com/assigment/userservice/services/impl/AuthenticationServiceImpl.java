@@ -9,13 +9,20 @@ import com.assigment.userservice.entRepo.UserRepository;
 import com.assigment.userservice.constants.RoleEnum;
 import com.assigment.userservice.constants.StatusEnum;
 import com.assigment.userservice.exceptions.DuplicateResourceException;
+import com.assigment.userservice.exceptions.HashingCapacityExceededException;
 import com.assigment.userservice.services.AuthenticationService;
 import com.assigment.userservice.services.JwtService;
+import com.assigment.userservice.services.PrincipalService;
+import com.assigment.userservice.services.RefreshSessionService;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.RegisteredContactService.Match;
+import com.assigment.userservice.services.RevocationService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,9 +30,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -41,6 +47,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
     private final RabbitTemplate rabbitTemplate;
+    private final RefreshSessionService refreshSessionService;
+    private final RevocationService revocationService;
+    private final PrincipalService principalService;
+    private final RegisteredContactService registeredContactService;
 
     public AuthenticationServiceImpl(
             UserRepository userRepository,
@@ -49,7 +59,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             JwtService jwtService,
             RedisTemplate<String, String> redisTemplate,
             ObjectMapper objectMapper,
-            RabbitTemplate rabbitTemplate
+            RabbitTemplate rabbitTemplate,
+            RefreshSessionService refreshSessionService,
+            RevocationService revocationService,
+            PrincipalService principalService,
+            RegisteredContactService registeredContactService
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
@@ -58,6 +72,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
         this.rabbitTemplate = rabbitTemplate;
+        this.refreshSessionService = refreshSessionService;
+        this.revocationService = revocationService;
+        this.principalService = principalService;
+        this.registeredContactService = registeredContactService;
 
         logger.info("AuthenticationServiceImpl initialized");
     }
@@ -69,10 +87,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     public void initiateSignup(RegisterUserDto dto) throws JsonProcessingException {
         String verificationToken = UUID.randomUUID().toString();
 
-        if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
-            throw new DuplicateResourceException("Email already exists");
-        } else if (userRepository.findByPhoneNumber(dto.getPhoneNumber()).isPresent()) {
-            throw new DuplicateResourceException("Phone number already exists");
+        switch (registeredContactService.findRegistered(dto.getEmail(), dto.getPhoneNumber())) {
+            case EMAIL -> throw new DuplicateResourceException("Email already exists");
+            case PHONE_NUMBER -> throw new DuplicateResourceException("Phone number already exists");
+            case NONE -> { }
         }
 
         redisTemplate.opsForValue().set(
@@ -111,7 +129,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .setRole(RoleEnum.USER)
                 .setStatus(StatusEnum.ENABLE);
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Someone registered the email or phone number between signup and verification;
+            // this signup can never complete, so its token goes too
+            redisTemplate.delete(key);
+            logger.warn("Verification failed: contacts of {} were registered meanwhile", dto.getEmail());
+            switch (Match.of(userRepository.findContacts(dto.getEmail(), dto.getPhoneNumber()), dto.getEmail())) {
+                case PHONE_NUMBER -> throw new DuplicateResourceException("Phone number already exists");
+                case EMAIL -> throw new DuplicateResourceException("Email already exists");
+                case NONE -> throw new DuplicateResourceException("Email or phone number already in use");
+            }
+        }
+        registeredContactService.registered(user.getEmail(), user.getPhoneNumber());
         redisTemplate.delete(key);
 
         logger.info("User verified and saved: {}", dto.getEmail());
@@ -134,7 +165,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             String accessToken = jwtService.generateAccessToken(user);
             String refreshToken = jwtService.generateRefreshToken(user);
 
-            redisTemplate.opsForValue().set("REFRESH:" + refreshToken, user.getUsername(), 7, TimeUnit.DAYS);
+            refreshSessionService.registerSession(refreshToken, user.getUsername(), Duration.ofDays(7));
 
             logger.info("Login successful, tokens generated for email: {}", dto.getEmail());
 
@@ -148,6 +179,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     .setToken(tokenResponse)
                     .setExpiresIn(jwtService.getExpirationTime());
 
+        } catch (HashingCapacityExceededException ex) {
+            // Overload, not bad credentials: surfaced as 503 so the client retries
+            logger.warn("Login rejected for email {}: {}", dto.getEmail(), ex.getMessage());
+            throw ex;
         } catch (Exception ex) {
             logger.warn("Login failed for email: {}", dto.getEmail());
             return new LoginResponse()
@@ -184,22 +219,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 
     @Override
     public UserStandardResponse logout(String userEmail) {
-        boolean tokenDeleted = false;
-        Set<String> keys = redisTemplate.keys("REFRESH:*");
-
-        if (keys != null && !keys.isEmpty()) {
-            for (String key : keys) {
-                String value = redisTemplate.opsForValue().get(key);
-                if (userEmail.equals(value)) {
-                    redisTemplate.delete(key);
-                    logger.info("Deleted refresh token {} for user: {}", key, userEmail);
-                    tokenDeleted = true;
-                    break;
-                }
-            }
-        }
+        // Revokes every device: the gateway authorizes per user, so one remaining session would keep old tokens alive
+        int revoked = revocationService.revokeUser(userEmail, RevocationService.Reason.LOGOUT);
 
-        if (!tokenDeleted) {
+        if (revoked == 0) {
             logger.info("No refresh tokens found for user: {}", userEmail);
         }
 
@@ -215,7 +238,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
        ============================ */
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        return registeredContactService.isEmailRegistered(email);
     }
 
     @Override
@@ -248,6 +271,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
         redisTemplate.delete("RESET_TOKEN:" + token);
+        principalService.invalidate(email);
+
+        // Whoever knew the old password may hold live tokens
+        revocationService.revokeUser(email, RevocationService.Reason.PASSWORD_RESET);
 
         logger.info("Password reset successfully for email: {}", email);
         return true;
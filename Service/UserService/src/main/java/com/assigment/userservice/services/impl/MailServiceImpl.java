@@ -30,7 +30,7 @@ public class MailServiceImpl implements MailService {
     }
 
     @Override
-    @RabbitListener(queues = RabbitConfig.VERIFICATION_QUEUE)
+    @RabbitListener(queues = RabbitConfig.VERIFICATION_QUEUE, containerFactory = "mailListenerContainerFactory")
     public void handleVerification(VerificationMessage message) {
         try {
             String verificationLink = verificationBaseUrl + "?token=" + message.getToken();
@@ -49,7 +49,7 @@ public class MailServiceImpl implements MailService {
     }
 
     @Override
-    @RabbitListener(queues = RabbitConfig.RESET_QUEUE)
+    @RabbitListener(queues = RabbitConfig.RESET_QUEUE, containerFactory = "mailListenerContainerFactory")
     public void handlePasswordReset(ResetMessage message) {
         try {
             String resetLink = "http://localhost:8090/auth/verification/reset?token=" + message.getToken();
@@ -0,0 +1,142 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.jwtcodec.VerifiedClaims;
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.dto.UserPrincipal;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.services.PrincipalService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.PRINCIPAL_INVALIDATION_CHANNEL;
+
+/* ============================
+   Principals for authenticated requests without a database read per request.
+   cache  (default): snapshots of (email, role, status) in a bounded map, expired after ttl and dropped on
+                     every change to the user on every instance (user.principal.invalidation).
+   claims:           built from the verified token alone; a role change applies from the user's next token,
+                     and disabled or deleted users are stopped by the gateway's revocation list.
+   ============================ */
+@Service
+public class PrincipalServiceImpl implements PrincipalService, MessageListener {
+
+    private static final Logger logger = LogManager.getLogger(PrincipalServiceImpl.class);
+
+    public enum Source { CACHE, CLAIMS }
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Source source;
+    private final AsyncCache<String, UserPrincipal> snapshots;
+
+    public PrincipalServiceImpl(
+            UserRepository userRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${user.principal.source:cache}") String source,
+            @Value("${user.principal.cache.max-size:10000}") long maxSize,
+            @Value("${user.principal.cache.ttl:60s}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.source = Source.valueOf(source.trim().toUpperCase(Locale.ROOT));
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+
+        logger.info("PrincipalService initialized (source={}, maxSize={}, ttl={})", this.source, maxSize, ttl);
+    }
+
+    /* ============================
+       LOOKUP
+       ============================ */
+    @Override
+    public UserPrincipal loadPrincipal(VerifiedClaims claims) {
+        if (source == Source.CLAIMS) {
+            RoleEnum role = roleOf(claims);
+            if (role != null) {
+                return new UserPrincipal(claims.subject(), role, StatusEnum.ENABLE);
+            }
+            // Token without a usable role claim (issued before roles were carried): fall back to the cache
+        }
+
+        String email = claims.subject();
+        CompletableFuture<UserPrincipal> loading = new CompletableFuture<>();
+        CompletableFuture<UserPrincipal> cached = snapshots.asMap().putIfAbsent(email, loading);
+        if (cached == null) {
+            // Loaded on this thread outside any cache lock (Cache.get would run the query inside a synchronized
+            // map bin and pin a virtual thread). Concurrent requests for the same email wait for this load;
+            // an invalidate() meanwhile removes the entry, so a pre-change row is never kept.
+            try {
+                loading.complete(userRepository.findByEmail(email)
+                        .map(UserPrincipal::of)
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e); // failed loads are dropped from the cache
+            }
+            cached = loading;
+        }
+
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /* ============================
+       INVALIDATION
+       ============================ */
+    @Override
+    public void invalidate(String... emails) {
+        for (String email : emails) {
+            if (email == null) {
+                continue;
+            }
+            snapshots.synchronous().invalidate(email);
+            try {
+                redisTemplate.convertAndSend(PRINCIPAL_INVALIDATION_CHANNEL, email);
+            } catch (Exception e) {
+                // Other instances still drop the snapshot when its ttl runs out
+                logger.warn("Could not publish principal invalidation for user {}: {}", email, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        snapshots.synchronous().invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /* ============================
+       PRIVATE HELPERS
+       ============================ */
+    private static RoleEnum roleOf(VerifiedClaims claims) {
+        if (claims.role() == null) {
+            return null;
+        }
+        try {
+            return RoleEnum.valueOf(claims.role());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
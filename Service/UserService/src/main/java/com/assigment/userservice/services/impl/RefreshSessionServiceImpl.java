@@ -0,0 +1,126 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.services.RefreshSessionService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.*;
+
+@Service
+public class RefreshSessionServiceImpl implements RefreshSessionService {
+
+    private static final Logger logger = LogManager.getLogger(RefreshSessionServiceImpl.class);
+
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private static final RedisScript<Long> REGISTER_SESSION =
+            RedisScript.of(new ClassPathResource("scripts/register_refresh_session.lua"), Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration backfillMarkerTtl;
+
+    public RefreshSessionServiceImpl(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${app.redis.session-backfill.marker-ttl:30d}") Duration backfillMarkerTtl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.backfillMarkerTtl = backfillMarkerTtl;
+    }
+
+    /* ============================
+       SESSION INDEX
+       ============================ */
+    @Override
+    public void registerSession(String refreshToken, String email, Duration ttl) {
+        long now = System.currentTimeMillis();
+        String sessionsKey = USER_SESSIONS_PREFIX + email;
+
+        // SET, ZADD, prune and EXPIRE in one atomic script: one round trip, and no half-registered session
+        redisTemplate.execute(REGISTER_SESSION, List.of(REFRESH_PREFIX + refreshToken, sessionsKey),
+                email, refreshToken, String.valueOf(ttl.toMillis()), String.valueOf(now));
+
+        logger.info("Registered refresh session for user: {}", email);
+    }
+
+    @Override
+    public int revokeAllSessions(String email) {
+        String sessionsKey = USER_SESSIONS_PREFIX + email;
+        Set<String> refreshTokens = redisTemplate.opsForZSet().range(sessionsKey, 0, -1);
+
+        if (refreshTokens == null || refreshTokens.isEmpty()) {
+            redisTemplate.delete(sessionsKey);
+            return 0;
+        }
+
+        List<String> refreshKeys = refreshTokens.stream().map(REFRESH_PREFIX::concat).toList();
+        redisTemplate.delete(refreshKeys);
+        redisTemplate.delete(sessionsKey);
+
+        logger.info("Revoked {} refresh session(s) for user: {}", refreshTokens.size(), email);
+        return refreshTokens.size();
+    }
+
+    /* ============================
+       ONE-SHOT MIGRATION
+       ============================ */
+    @Override
+    public int backfillSessionIndex() {
+        // The marker outlives every refresh token issued before the index, then goes: a later rerun finds
+        // nothing left to migrate, and the key does not stay in Redis forever
+        Boolean firstRun = redisTemplate.opsForValue()
+                .setIfAbsent(SESSION_BACKFILL_MARKER, String.valueOf(System.currentTimeMillis()), backfillMarkerTtl);
+
+        if (!Boolean.TRUE.equals(firstRun)) {
+            logger.info("Refresh session index backfill already done, skipping");
+            return 0;
+        }
+
+        int migrated = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(REFRESH_PREFIX + "*").count(SCAN_BATCH_SIZE).build();
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                String refreshKey = cursor.next();
+                String email = redisTemplate.opsForValue().get(refreshKey);
+                Long ttlMillis = redisTemplate.getExpire(refreshKey, TimeUnit.MILLISECONDS);
+
+                // Key expired between SCAN and GET, or was stored without a TTL
+                if (email == null || ttlMillis == null || ttlMillis <= 0) {
+                    continue;
+                }
+
+                String refreshToken = refreshKey.substring(REFRESH_PREFIX.length());
+                String sessionsKey = USER_SESSIONS_PREFIX + email;
+                long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+                redisTemplate.opsForZSet().add(sessionsKey, refreshToken, expiresAt);
+
+                Long currentTtl = redisTemplate.getExpire(sessionsKey, TimeUnit.MILLISECONDS);
+                if (currentTtl == null || currentTtl < ttlMillis) {
+                    redisTemplate.expire(sessionsKey, ttlMillis, TimeUnit.MILLISECONDS);
+                }
+                migrated++;
+            }
+        } catch (RuntimeException e) {
+            // Let the next startup retry the migration
+            redisTemplate.delete(SESSION_BACKFILL_MARKER);
+            logger.error("Refresh session index backfill failed after {} key(s): {}", migrated, e.getMessage(), e);
+            throw e;
+        }
+
+        logger.info("Refresh session index backfill migrated {} refresh token(s)", migrated);
+        return migrated;
+    }
+}
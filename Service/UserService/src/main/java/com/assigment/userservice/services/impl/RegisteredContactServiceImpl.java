@@ -0,0 +1,304 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.entRepo.UserContact;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.services.RegisteredContactService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.CONTACT_REGISTERED_CHANNEL;
+
+/* ============================
+   Signup duplicate checks without a database read for contacts nobody has registered, which is nearly
+   every signup. A Bloom filter over all registered emails and phone numbers answers "definitely not
+   registered" from memory; only a possible hit (a real duplicate, or a false positive at rate fpp) runs
+   one query for both columns. The unique constraints stay the source of truth.
+   The filter is built by streaming the table at startup and again every rebuild-interval, and extended
+   by every save here and on other instances (user.contact.registered). Deleted or changed contacts cannot
+   be removed from a Bloom filter: they remain possible hits, answered by the database, until the next
+   rebuild. Until the first build completes every check goes to the database.
+   ============================ */
+@Service
+public class RegisteredContactServiceImpl implements RegisteredContactService, MessageListener {
+
+    private static final Logger logger = LogManager.getLogger(RegisteredContactServiceImpl.class);
+
+    private static final String EMAIL_KEY = "e:";
+    private static final String PHONE_KEY = "p:";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double fpp;
+    private final Duration rebuildInterval;
+    private final Counter memoryMisses;
+    private final Counter databaseChecks;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "contact-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guards the swap of `filter` against concurrent adds, so no saved contact is lost during a rebuild
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile BloomFilter filter;   // null until the first build completes
+    private volatile BloomFilter building; // non-null while a rebuild streams the table
+
+    public RegisteredContactServiceImpl(
+            UserRepository userRepository,
+            StringRedisTemplate redisTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${user.contact-filter.enabled:true}") boolean enabled,
+            @Value("${user.contact-filter.expected-users:100000}") long expectedUsers,
+            @Value("${user.contact-filter.fpp:0.01}") double fpp,
+            @Value("${user.contact-filter.rebuild-interval:6h}") Duration rebuildInterval
+    ) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.fpp = fpp;
+        this.rebuildInterval = rebuildInterval;
+        this.memoryMisses = Counter.builder("user.contact.filter.checks")
+                .description("Signup duplicate checks, by where they were answered")
+                .tag("result", "memory")
+                .register(meterRegistry);
+        this.databaseChecks = Counter.builder("user.contact.filter.checks")
+                .description("Signup duplicate checks, by where they were answered")
+                .tag("result", "database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            long period = rebuildInterval.toMillis();
+            executor.scheduleWithFixedDelay(this::rebuild, 0, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /* ============================
+       CHECKS
+       ============================ */
+    @Override
+    public Match findRegistered(String email, String phoneNumber) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(EMAIL_KEY + email) && !current.mightContain(PHONE_KEY + phoneNumber)) {
+            memoryMisses.increment();
+            return Match.NONE;
+        }
+
+        databaseChecks.increment();
+        return Match.of(userRepository.findContacts(email, phoneNumber), email);
+    }
+
+    @Override
+    public boolean isEmailRegistered(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(EMAIL_KEY + email)) {
+            memoryMisses.increment();
+            return false;
+        }
+
+        databaseChecks.increment();
+        return userRepository.findByEmail(email).isPresent();
+    }
+
+    /* ============================
+       UPDATES
+       ============================ */
+    @Override
+    public void registered(String email, String phoneNumber) {
+        add(email, phoneNumber);
+        try {
+            redisTemplate.convertAndSend(CONTACT_REGISTERED_CHANNEL, nullToEmpty(email) + "\n" + nullToEmpty(phoneNumber));
+        } catch (Exception e) {
+            // Other instances send this user's contacts to the database after their next rebuild at the latest;
+            // until then a duplicate signup there is caught by the unique constraint when it is saved
+            logger.warn("Could not publish registered contacts of user {}: {}", email, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] contacts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        add(contacts[0], contacts.length > 1 ? contacts[1] : "");
+    }
+
+    private void add(String email, String phoneNumber) {
+        swapLock.lock();
+        try {
+            for (BloomFilter target : new BloomFilter[]{filter, building}) {
+                if (target == null) {
+                    continue;
+                }
+                if (email != null && !email.isEmpty()) {
+                    target.put(EMAIL_KEY + email);
+                }
+                if (phoneNumber != null && !phoneNumber.isEmpty()) {
+                    target.put(PHONE_KEY + phoneNumber);
+                }
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /* ============================
+       REBUILD (contact-filter thread)
+       ============================ */
+    void rebuild() {
+        try {
+            long started = System.nanoTime();
+            long users = userRepository.count();
+            // Two entries per user; sized with headroom so the false-positive rate holds until the next rebuild
+            BloomFilter next = BloomFilter.create(2 * Math.max(expectedUsers, users * 2), fpp);
+            building = next;
+
+            LongAdder streamed = new LongAdder();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserContact> contacts = userRepository.streamAllContacts()) {
+                    contacts.forEach(contact -> {
+                        next.put(EMAIL_KEY + contact.getEmail());
+                        next.put(PHONE_KEY + contact.getPhoneNumber());
+                        streamed.increment();
+                    });
+                }
+            });
+
+            swapLock.lock();
+            try {
+                filter = next;
+                building = null;
+            } finally {
+                swapLock.unlock();
+            }
+            logger.info("Contact filter rebuilt from {} users in {} ms ({} bits, {} hashes)", streamed.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), next.bitSize(), next.hashes());
+        } catch (Exception e) {
+            building = null;
+            // Checks keep using the previous filter, or the database when there is none
+            logger.warn("Could not rebuild the contact filter: {}", e.getMessage());
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Fixed-size Bloom filter over strings, safe for concurrent puts and reads. Positions come from
+     * double hashing of one 64-bit FNV-1a hash (Kirsch-Mitzenmacher).
+     */
+    static final class BloomFilter {
+
+        private static final long MAX_BITS = 1L << 31; // 256 MB
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        private BloomFilter(long bits, int hashes) {
+            this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+            this.bits = bits;
+            this.hashes = hashes;
+        }
+
+        static BloomFilter create(long expectedEntries, double fpp) {
+            long entries = Math.max(1, expectedEntries);
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-entries * Math.log(fpp) / (ln2 * ln2));
+            bits = Math.min(Math.max(64, bits), MAX_BITS);
+            int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / entries * ln2)));
+            return new BloomFilter(bits, hashes);
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            long h1 = (int) hash;
+            long h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = index(h1 + i * h2);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            long h1 = (int) hash;
+            long h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = index(h1 + i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitSize() {
+            return bits;
+        }
+
+        int hashes() {
+            return hashes;
+        }
+
+        private long index(long combined) {
+            return Math.floorMod(combined, bits);
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            // FNV's low bits mix poorly; finish with the MurmurHash3 avalanche step
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb93fe64e5a53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.dto.response.RevocationMessage;
+import com.assigment.userservice.services.RefreshSessionService;
+import com.assigment.userservice.services.RevocationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.REVOCATION_CHANNEL;
+import static com.assigment.userservice.constants.RedisKeyConstant.REVOKED_USERS_KEY;
+
+@Service
+public class RevocationServiceImpl implements RevocationService {
+
+    private static final Logger logger = LogManager.getLogger(RevocationServiceImpl.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RefreshSessionService refreshSessionService;
+    private final ObjectMapper objectMapper;
+
+    // A revocation only matters while an access token issued before it can still be unexpired
+    @Value("${spring.security.jwt.expiration-time}")
+    private long accessTokenLifetimeMillis;
+
+    public RevocationServiceImpl(
+            RedisTemplate<String, String> redisTemplate,
+            RefreshSessionService refreshSessionService,
+            ObjectMapper objectMapper
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.refreshSessionService = refreshSessionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public int revokeUser(String email, Reason reason) {
+        int sessions = refreshSessionService.revokeAllSessions(email);
+        long now = System.currentTimeMillis();
+
+        // Snapshot first: a gateway that resyncs after missing the message still sees it
+        redisTemplate.opsForZSet().add(REVOKED_USERS_KEY, email, now);
+        redisTemplate.opsForZSet().removeRangeByScore(REVOKED_USERS_KEY, 0, now - accessTokenLifetimeMillis);
+
+        try {
+            String message = objectMapper.writeValueAsString(new RevocationMessage(email, now, reason.name()));
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, message);
+        } catch (JsonProcessingException e) {
+            // Cannot happen for this DTO; the snapshot above is still picked up on the next resync
+            logger.error("Could not serialize revocation for user: {}", email, e);
+        }
+
+        logger.info("Revoked access for user {} ({}), {} refresh session(s) removed", email, reason, sessions);
+        return sessions;
+    }
+}
@@ -0,0 +1,126 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.dto.mapper.UserMapper;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.services.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/* ============================
+   Full user dumps without paging: one query, read through a forward-only cursor fetch-size rows at a time
+   (Postgres only streams inside a transaction), each row mapped and written as it arrives and then detached,
+   so memory stays constant whatever the table size. /api/user/list pages cost an OFFSET scan and a count(*)
+   each, which makes a complete dump quadratic.
+   ============================ */
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final Logger logger = LogManager.getLogger(UserExportServiceImpl.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UserMapper mapper;
+    private final ObjectWriter ndjsonWriter;
+    private final int defaultFetchSize;
+    private final int maxFetchSize;
+
+    public UserExportServiceImpl(
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            UserMapper mapper,
+            ObjectMapper objectMapper,
+            @Value("${user.export.fetch-size:500}") int defaultFetchSize,
+            @Value("${user.export.max-fetch-size:5000}") int maxFetchSize
+    ) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.mapper = mapper;
+        // The servlet stream buffers already; flushing after every line would send one tiny chunk per user
+        this.ndjsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.defaultFetchSize = defaultFetchSize;
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    @Override
+    public long exportUsers(OutputStream out, StatusEnum status, RoleEnum role, Integer fetchSize) throws IOException {
+        int rowsPerFetch = fetchSize == null ? defaultFetchSize : Math.max(1, Math.min(fetchSize, maxFetchSize));
+        long started = System.nanoTime();
+
+        try {
+            Long written = readOnlyTransaction.execute(tx -> {
+                try (Stream<UserEntity> users = query(status, role, rowsPerFetch).getResultStream();
+                     SequenceWriter lines = ndjsonWriter.writeValues(out)) {
+                    long count = 0;
+                    for (UserEntity user : (Iterable<UserEntity>) users::iterator) {
+                        lines.write(mapper.fromUser(user));
+                        entityManager.detach(user);
+                        count++;
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (written != null && written > 0) {
+                out.write('\n'); // the separator only goes between lines
+            }
+
+            logger.info("Exported {} users (status={}, role={}) in {} ms",
+                    written, status, role, (System.nanoTime() - started) / 1_000_000);
+            return written == null ? 0 : written;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+    }
+
+    private TypedQuery<UserEntity> query(StatusEnum status, RoleEnum role, int fetchSize) {
+        List<String> conditions = new ArrayList<>();
+        if (status != null) {
+            conditions.add("u.status = :status");
+        }
+        if (role != null) {
+            conditions.add("u.role = :role");
+        }
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+
+        TypedQuery<UserEntity> query = entityManager
+                .createQuery("select u from UserEntity u" + where + " order by u.userID", UserEntity.class)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (role != null) {
+            query.setParameter("role", role);
+        }
+        return query;
+    }
+}
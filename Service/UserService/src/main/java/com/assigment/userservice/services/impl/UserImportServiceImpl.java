@@ -0,0 +1,501 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.dto.request.UserRequest;
+import com.assigment.userservice.dto.response.UserImportResponse;
+import com.assigment.userservice.dto.response.UserImportResponse.ImportRowError;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.exceptions.HashingCapacityExceededException;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Column;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/* ============================
+   Bulk user creation from an NDJSON or CSV stream, for onboarding whole organizations.
+   The body is read line by line and handled in chunks of chunk-size rows, so memory holds one chunk
+   whatever the file size. Per chunk:
+     1. rows are parsed and validated (@Valid rules of UserRequest, password required, values within the
+        users_table column lengths);
+     2. one query finds the chunk's emails and phone numbers already in use: those rows are rejected
+        before any hashing is spent on them;
+     3. the remaining passwords are hashed hash-parallelism at a time, through the shared bounded encoder,
+        so an import never takes more hashing threads than that from logins;
+     4. one JDBC batch inserts the chunk with ON CONFLICT DO NOTHING: a row taken meanwhile by a concurrent
+        signup is reported as a conflict instead of failing the batch. Should the batch still fail, the chunk
+        is inserted row by row, so only the offending rows are rejected.
+   Rejected rows never stop the import; the first max-reported-errors of them are listed in the response.
+   ============================ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger logger = LogManager.getLogger(UserImportServiceImpl.class);
+
+    private static final String INSERT_USER = "insert into users_table " +
+            "(user_id, first_name, last_name, phone_number, email, password, role, status, created_at, update_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) on conflict do nothing";
+    private static final String FIND_CONTACTS = "select email, phone_number from users_table " +
+            "where email in (:emails) or phone_number in (:phoneNumbers)";
+
+    // Retries of a hash the bounded encoder rejected (queue full during a login peak), 100 ms apart and more
+    private static final int HASH_ATTEMPTS = 10;
+
+    // Checked per row: an oversize value would otherwise fail the whole batch insert of its chunk
+    private static final List<LengthCheck> LENGTH_CHECKS = List.of(
+            LengthCheck.of("firstName", UserRequest::getFirstName),
+            LengthCheck.of("lastName", UserRequest::getLastName),
+            LengthCheck.of("phoneNumber", UserRequest::getPhoneNumber),
+            LengthCheck.of("email", UserRequest::getEmail));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RegisteredContactService registeredContactService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final ExecutorService hashExecutor;
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public UserImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PasswordEncoder passwordEncoder,
+            RegisteredContactService registeredContactService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            MeterRegistry meterRegistry,
+            @Value("${user.import.chunk-size:500}") int chunkSize,
+            @Value("${user.import.hash-parallelism:2}") int hashParallelism,
+            @Value("${user.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.registeredContactService = registeredContactService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        // Shared by all imports: concurrent imports together still hold at most hashParallelism hashing threads
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(hashParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.importedRows = Counter.builder("user.import.rows").tag("result", "imported").register(meterRegistry);
+        this.rejectedRows = Counter.builder("user.import.rows").tag("result", "rejected").register(meterRegistry);
+
+        logger.info("UserImportService initialized (chunkSize={}, hashParallelism={})", chunkSize, hashParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /* ============================
+       IMPORT
+       ============================ */
+    @Override
+    public UserImportResponse importUsers(InputStream input, Format format) throws IOException {
+        Report report = new Report(maxReportedErrors);
+        long started = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            Map<String, Integer> columns = null;
+            long lineNumber = 0;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvHeader(line);
+                    continue;
+                }
+
+                report.received++;
+                Row row = parse(line, lineNumber, format, columns, report);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, report);
+                    chunk.clear();
+                }
+            }
+            flush(chunk, report);
+        }
+
+        logger.info("User import finished in {} ms: {} received, {} imported, {} rejected",
+                (System.nanoTime() - started) / 1_000_000, report.received, report.imported, report.rejected);
+
+        return UserImportResponse.builder()
+                .status(200)
+                .message(report.rejected == 0 ? "Users imported successfully" : "Users imported with rejected rows")
+                .received(report.received)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .errors(report.errors)
+                .errorsTruncated(report.rejected > report.errors.size())
+                .build();
+    }
+
+    /* ============================
+       PARSING / VALIDATION
+       ============================ */
+    private Row parse(String line, long lineNumber, Format format, Map<String, Integer> columns, Report report) {
+        UserRequest request;
+        try {
+            request = format == Format.CSV ? csvRow(line, columns) : objectMapper.readValue(line, UserRequest.class);
+        } catch (JsonProcessingException e) {
+            report.reject(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            report.reject(lineNumber, null, "Malformed CSV row: " + e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            report.reject(lineNumber, request.getEmail(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        if (request.getPassword() == null || request.getPassword().isBlank()) {
+            report.reject(lineNumber, request.getEmail(), "Password is required when creating a user");
+            return null;
+        }
+        for (LengthCheck check : LENGTH_CHECKS) {
+            String value = check.value().apply(request);
+            if (value.length() > check.maxLength()) {
+                // An oversize email is not echoed back in the report
+                report.reject(lineNumber, check.field().equals("email") ? null : request.getEmail(),
+                        check.field() + ": must be at most " + check.maxLength() + " characters");
+                return null;
+            }
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = csvFields(line.startsWith("\uFEFF") ? line.substring(1) : line);
+        for (int i = 0; i < names.size(); i++) {
+            // firstName, first_name and "First Name" all name the same column
+            columns.put(names.get(i).replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static UserRequest csvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = csvFields(line);
+        String role = csvValue(fields, columns, "role");
+        String status = csvValue(fields, columns, "status");
+        return UserRequest.builder()
+                .firstName(csvValue(fields, columns, "firstname"))
+                .lastName(csvValue(fields, columns, "lastname"))
+                .phoneNumber(csvValue(fields, columns, "phonenumber"))
+                .email(csvValue(fields, columns, "email"))
+                .password(csvValue(fields, columns, "password"))
+                .role(role == null ? null : RoleEnum.valueOf(role.toUpperCase(Locale.ROOT)))
+                .status(status == null ? null : StatusEnum.valueOf(status.toUpperCase(Locale.ROOT)))
+                .build();
+    }
+
+    private static String csvValue(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields of one line: quoted fields may contain commas and "" for a quote, not line breaks
+    private static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /* ============================
+       CHUNK WRITE
+       ============================ */
+    private void flush(List<Row> chunk, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Row> accepted = withoutTakenContacts(chunk, report);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Row> hashed = hashPasswords(accepted, report);
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int[][] counts;
+        try {
+            counts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(INSERT_USER, hashed, hashed.size(), (statement, row) -> bind(statement, row, now)));
+        } catch (DataAccessException e) {
+            // A row the checks above let through failed the whole batch (rolled back): retry one row at a time
+            logger.warn("Batch insert of {} imported users failed, inserting them one by one: {}",
+                    hashed.size(), e.getMostSpecificCause().getMessage());
+            insertOneByOne(hashed, now, report);
+            return;
+        }
+
+        int[] rowCounts = counts == null || counts.length == 0 ? new int[0] : counts[0];
+        for (int i = 0; i < hashed.size(); i++) {
+            // SUCCESS_NO_INFO when the driver rewrites the batch into one statement: counted as inserted
+            inserted(hashed.get(i), i < rowCounts.length ? rowCounts[i] : PreparedStatement.SUCCESS_NO_INFO, report);
+        }
+    }
+
+    private void insertOneByOne(List<Row> rows, Timestamp now, Report report) {
+        for (Row row : rows) {
+            try {
+                Integer count = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(INSERT_USER, statement -> bind(statement, row, now)));
+                inserted(row, count == null ? 0 : count, report);
+            } catch (DataAccessException e) {
+                report.reject(row.line(), row.request().getEmail(),
+                        "Rejected by the database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void inserted(Row row, int count, Report report) {
+        if (count == 0) {
+            report.reject(row.line(), row.request().getEmail(), "Email or phone number already in use");
+            return;
+        }
+        report.imported++;
+        importedRows.increment();
+        registeredContactService.registered(row.request().getEmail(), row.request().getPhoneNumber());
+    }
+
+    private static void bind(PreparedStatement statement, Row row, Timestamp now) throws SQLException {
+        UserRequest request = row.request();
+        statement.setString(1, UUID.randomUUID().toString());
+        statement.setString(2, request.getFirstName());
+        statement.setString(3, request.getLastName());
+        statement.setString(4, request.getPhoneNumber());
+        statement.setString(5, request.getEmail());
+        statement.setString(6, row.passwordHash());
+        statement.setString(7, (request.getRole() == null ? RoleEnum.USER : request.getRole()).name());
+        statement.setString(8, (request.getStatus() == null ? StatusEnum.ENABLE : request.getStatus()).name());
+        statement.setTimestamp(9, now);
+        statement.setTimestamp(10, now);
+    }
+
+    /**
+     * Rejects rows whose email or phone number belongs to an existing user or to an earlier row of the chunk.
+     */
+    private List<Row> withoutTakenContacts(List<Row> chunk, Report report) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (Row row : chunk) {
+            emails.add(row.request().getEmail());
+            phoneNumbers.add(row.request().getPhoneNumber());
+        }
+
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhoneNumbers = new HashSet<>();
+        namedJdbcTemplate.query(FIND_CONTACTS,
+                new MapSqlParameterSource("emails", emails).addValue("phoneNumbers", phoneNumbers),
+                resultSet -> {
+                    takenEmails.add(resultSet.getString("email"));
+                    takenPhoneNumbers.add(resultSet.getString("phone_number"));
+                });
+
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String email = row.request().getEmail();
+            String phoneNumber = row.request().getPhoneNumber();
+            if (takenEmails.contains(email)) {
+                report.reject(row.line(), email, "Email already exists");
+            } else if (takenPhoneNumbers.contains(phoneNumber)) {
+                report.reject(row.line(), email, "Phone number already exists");
+            } else {
+                takenEmails.add(email);
+                takenPhoneNumbers.add(phoneNumber);
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private List<Row> hashPasswords(List<Row> rows, Report report) {
+        List<CompletableFuture<Row>> hashing = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> row.withPasswordHash(encode(row.request().getPassword())), hashExecutor))
+                .toList();
+
+        List<Row> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                hashed.add(hashing.get(i).join());
+            } catch (CompletionException e) {
+                Row row = rows.get(i);
+                report.reject(row.line(), row.request().getEmail(), "Password could not be hashed, retry this row: "
+                        + (e.getCause() == null ? e.getMessage() : e.getCause().getMessage()));
+            }
+        }
+        return hashed;
+    }
+
+    private String encode(String password) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (HashingCapacityExceededException e) {
+                // Logins have the encoder's queue: back off instead of competing with them
+                if (attempt == HASH_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /* ============================
+       PRIVATE TYPES
+       ============================ */
+    private record Row(long line, UserRequest request, String passwordHash) {
+
+        Row(long line, UserRequest request) {
+            this(line, request, null);
+        }
+
+        Row withPasswordHash(String hash) {
+            return new Row(line, request, hash);
+        }
+    }
+
+    // Longest value a users_table column takes, read from UserEntity's @Column (JPA default 255)
+    private record LengthCheck(String field, int maxLength, Function<UserRequest, String> value) {
+
+        static LengthCheck of(String field, Function<UserRequest, String> value) {
+            try {
+                Column column = UserEntity.class.getDeclaredField(field).getAnnotation(Column.class);
+                return new LengthCheck(field, column == null ? 255 : column.length(), value);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("UserEntity has no column " + field, e);
+            }
+        }
+    }
+
+    private final class Report {
+
+        private final int maxErrors;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String email, String reason) {
+            rejected++;
+            rejectedRows.increment();
+            if (errors.size() < maxErrors) {
+                errors.add(ImportRowError.builder().line(line).email(email).reason(reason).build());
+            }
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.assigment.userservice.services.impl;
 
+import com.assigment.common.PageCursor;
 import com.assigment.userservice.constants.RoleEnum;
 import com.assigment.userservice.constants.StatusEnum;
 import com.assigment.userservice.dto.mapper.UserMapper;
 import com.assigment.userservice.dto.request.UserRequest;
 import com.assigment.userservice.dto.response.PaginatedUserResponse;
+import com.assigment.userservice.dto.response.UserCursorPageResponse;
 import com.assigment.userservice.dto.response.UserResponse;
 import com.assigment.userservice.dto.response.UserStandardResponse;
 import com.assigment.userservice.entRepo.UserEntity;
 import com.assigment.userservice.entRepo.UserRepository;
 import com.assigment.userservice.exceptions.UserNotFoundException;
+import com.assigment.userservice.services.PrincipalService;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.RegisteredContactService.Match;
+import com.assigment.userservice.services.RevocationService;
 import com.assigment.userservice.services.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +28,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,9 +41,15 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LogManager.getLogger(UserServiceImpl.class);
 
+    // Largest keyset page; bigger requests get this many rows
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final UserRepository repository;
     private final UserMapper mapper;
     private final PasswordEncoder passwordEncoder;
+    private final RevocationService revocationService;
+    private final PrincipalService principalService;
+    private final RegisteredContactService registeredContactService;
 
     /* ============================================================
        CREATE / UPDATE METHODS
@@ -63,6 +77,7 @@ public class UserServiceImpl implements UserService {
             }
 
             var user = repository.save(toSave);
+            registeredContactService.registered(user.getEmail(), user.getPhoneNumber());
             logger.info("Created new user with ID: {}", user.getUserID());
 
             return UserStandardResponse.builder()
@@ -75,11 +90,12 @@ public class UserServiceImpl implements UserService {
             String errorMessage = "Email or phone number already in use";
             logger.error("Failed to create user due to constraint violation", e);
 
-            // check which field caused the violation
-            if (repository.findByEmail(request.getEmail()).isPresent()) {
-                errorMessage = "Email already exists";
-            } else if (repository.findByPhoneNumber(request.getPhoneNumber()).isPresent()) {
-                errorMessage = "Phone number already exists";
+            // check which field caused the violation; straight from the database, the Bloom filter may not
+            // know yet about a user another instance saved a moment ago
+            switch (Match.of(repository.findContacts(request.getEmail(), request.getPhoneNumber()), request.getEmail())) {
+                case EMAIL -> errorMessage = "Email already exists";
+                case PHONE_NUMBER -> errorMessage = "Phone number already exists";
+                case NONE -> { }
             }
 
             return UserStandardResponse.builder()
@@ -99,8 +115,12 @@ public class UserServiceImpl implements UserService {
                             format("Cannot update user:: No user found with ID:: %s", userID)
                     ));
 
+            String previousEmail = user.getEmail();
             mergeUser(user, request);
             var savedUser = repository.save(user);
+            // Role, status or email may have changed; the old email must stop resolving too
+            principalService.invalidate(previousEmail, savedUser.getEmail());
+            registeredContactService.registered(savedUser.getEmail(), savedUser.getPhoneNumber());
 
             logger.info("Updated user with ID: {}", userID);
 
@@ -113,11 +133,12 @@ public class UserServiceImpl implements UserService {
             String errorMessage = "Email or phone number already in use";
             logger.error("Failed to create user due to constraint violation", e);
 
-            // check which field caused the violation
-            if (repository.findByEmail(request.getEmail()).isPresent()) {
-                errorMessage = "Email already exists";
-            } else if (repository.findByPhoneNumber(request.getPhoneNumber()).isPresent()) {
-                errorMessage = "Phone number already exists";
+            // check which field caused the violation; straight from the database, the Bloom filter may not
+            // know yet about a user another instance saved a moment ago
+            switch (Match.of(repository.findContacts(request.getEmail(), request.getPhoneNumber()), request.getEmail())) {
+                case EMAIL -> errorMessage = "Email already exists";
+                case PHONE_NUMBER -> errorMessage = "Phone number already exists";
+                case NONE -> { }
             }
 
             return UserStandardResponse.builder()
@@ -229,6 +250,60 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    // Keyset pages: one page after/before the cursor, read one row further to learn whether the listing goes on
+    @Override
+    public UserCursorPageResponse findAllUsersByCursor(String cursor, int size, boolean includeTotal, String baseUrl) {
+        size = size <= 0 ? 5 : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        PageCursor position = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+
+        List<UserEntity> rows;
+        boolean hasNext;
+        boolean hasPrevious;
+        if (position == null) {
+            rows = new ArrayList<>(repository.findFirstPage(size + 1));
+            hasNext = rows.size() > size;
+            hasPrevious = false;
+        } else if (position.direction() == PageCursor.Direction.AFTER) {
+            rows = new ArrayList<>(repository.findPageAfter(position.createdAtTimestamp(), position.id(), size + 1));
+            hasNext = rows.size() > size;
+            hasPrevious = true;
+        } else {
+            rows = new ArrayList<>(repository.findPageBefore(position.createdAtTimestamp(), position.id(), size + 1));
+            hasPrevious = rows.size() > size;
+            hasNext = true;
+        }
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+        }
+        if (position != null && position.direction() == PageCursor.Direction.BEFORE) {
+            Collections.reverse(rows);
+        }
+
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!rows.isEmpty()) {
+            UserEntity first = rows.get(0);
+            UserEntity last = rows.get(rows.size() - 1);
+            nextCursor = hasNext ? PageCursor.after(last.getCreatedAt(), last.getUserID()).encode() : null;
+            previousCursor = hasPrevious ? PageCursor.before(first.getCreatedAt(), first.getUserID()).encode() : null;
+        }
+
+        List<UserResponse> users = rows.stream().map(mapper::fromUser).toList();
+        return UserCursorPageResponse.builder()
+                .status(users.isEmpty() ? 404 : 200)
+                .message(users.isEmpty() ? "No users found" : "Users fetched successfully")
+                .users(users)
+                .size(size)
+                .hasNext(nextCursor != null)
+                .hasPrevious(previousCursor != null)
+                .nextCursor(nextCursor)
+                .previousCursor(previousCursor)
+                .nextPageUrl(nextCursor != null ? baseUrl + "?size=" + size + "&cursor=" + nextCursor : null)
+                .previousPageUrl(previousCursor != null ? baseUrl + "?size=" + size + "&cursor=" + previousCursor : null)
+                .totalElements(includeTotal ? repository.count() : null)
+                .build();
+    }
+
     /* ============================================================
        DELETE / STATUS METHODS
     ============================================================ */
@@ -239,6 +314,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException(format("Cannot delete:: No user found with ID:: %s", userId)));
 
         repository.delete(user);
+        principalService.invalidate(user.getEmail());
+        revocationService.revokeUser(user.getEmail(), RevocationService.Reason.DELETED);
         logger.info("Deleted user with ID: {}", userId);
 
         return UserStandardResponse.builder()
@@ -255,6 +332,10 @@ public class UserServiceImpl implements UserService {
 
         user.setStatus(enable ? StatusEnum.ENABLE : StatusEnum.DISABLE);
         var saved = repository.save(user);
+        principalService.invalidate(saved.getEmail());
+        if (!enable) {
+            revocationService.revokeUser(saved.getEmail(), RevocationService.Reason.DISABLED);
+        }
         logger.info("Set status for user {} to {}", userId, saved.getStatus());
 
         return UserStandardResponse.builder()
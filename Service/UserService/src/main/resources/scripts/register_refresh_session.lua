@@ -0,0 +1,22 @@
+-- Registers one refresh session in a single round trip, all or nothing: a client never sees a REFRESH key
+-- missing from its user's index, so revoking all sessions cannot miss it.
+-- KEYS[1] : REFRESH:<token>            -> email, expiring with the session
+-- KEYS[2] : USER_SESSIONS:<email>      sorted set, token scored by its expiry (ms)
+-- ARGV[1] : email
+-- ARGV[2] : refresh token
+-- ARGV[3] : session ttl, ms
+-- ARGV[4] : now, ms (the application's clock, as the backfill uses)
+
+local ttl = tonumber(ARGV[3])
+local now = tonumber(ARGV[4])
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ttl)
+redis.call('ZADD', KEYS[2], now + ttl, ARGV[2])
+
+-- Drop members whose REFRESH key has already expired, then keep the index alive as long as its longest session
+redis.call('ZREMRANGEBYSCORE', KEYS[2], 0, now)
+if redis.call('PTTL', KEYS[2]) < ttl then
+    redis.call('PEXPIRE', KEYS[2], ttl)
+end
+
+return 1
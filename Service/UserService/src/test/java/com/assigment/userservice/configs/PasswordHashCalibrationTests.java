@@ -0,0 +1,82 @@
+package com.assigment.userservice.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashCalibrationTests {
+
+    private static final String PASSWORD = "Passw0rd!";
+
+    @Test
+    void pinnedCostReEncodesHashesOfAnyOtherCost() {
+        PasswordEncoder encoder = prefixed(5, true);
+
+        assertThat(encoder.upgradeEncoding(bcrypt(4))).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt(6))).isTrue();
+        assertThat(encoder.upgradeEncoding(bcrypt(5))).isFalse();
+    }
+
+    @Test
+    void calibratedCostOnlyRaisesStoredCosts() {
+        // Two instances that calibrated differently must not rewrite each other's hashes back and forth
+        PasswordEncoder lowerCost = prefixed(5, false);
+        PasswordEncoder higherCost = prefixed(6, false);
+
+        String stored = bcrypt(5);
+        assertThat(lowerCost.upgradeEncoding(stored)).isFalse();
+        assertThat(higherCost.upgradeEncoding(stored)).isTrue();
+
+        String upgraded = higherCost.encode(PASSWORD);
+        assertThat(lowerCost.upgradeEncoding(upgraded)).isFalse();
+        assertThat(lowerCost.matches(PASSWORD, upgraded)).isTrue();
+    }
+
+    @Test
+    void hashesWithoutAnIdStillMatchAndAreReEncoded() {
+        PasswordEncoder encoder = prefixed(5, true);
+        String legacy = new BCryptPasswordEncoder(5).encode(PASSWORD);
+
+        assertThat(encoder.matches(PASSWORD, legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void withoutPrefixIdsHashesStayReadableByInstancesOlderThanTheIds() {
+        PasswordEncoder encoder = PasswordHashCalibration.storageEncoder(PasswordHashCalibration.BCRYPT, 5, true, false);
+
+        String stored = encoder.encode(PASSWORD);
+        assertThat(stored).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder().matches(PASSWORD, stored)).isTrue();
+        assertThat(encoder.upgradeEncoding(stored)).isFalse();
+    }
+
+    @Test
+    void withoutPrefixIdsPrefixedHashesStillMatchAndAreReEncodedBare() {
+        // A rollback after prefix-ids was on: hashes written meanwhile must keep working and drift back
+        PasswordEncoder encoder = PasswordHashCalibration.storageEncoder(PasswordHashCalibration.BCRYPT, 5, true, false);
+        String prefixed = bcrypt(5);
+
+        assertThat(encoder.matches(PASSWORD, prefixed)).isTrue();
+        assertThat(encoder.upgradeEncoding(prefixed)).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode(PASSWORD))).isTrue();
+    }
+
+    @Test
+    void otherAlgorithmsNeedPrefixIds() {
+        assertThatThrownBy(() -> PasswordHashCalibration.storageEncoder(PasswordHashCalibration.ARGON2, 5, true, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("prefix-ids");
+    }
+
+    private static PasswordEncoder prefixed(int cost, boolean pinnedCost) {
+        return PasswordHashCalibration.storageEncoder(PasswordHashCalibration.BCRYPT, cost, pinnedCost, true);
+    }
+
+    private static String bcrypt(int cost) {
+        return "{" + PasswordHashCalibration.BCRYPT + "}" + new BCryptPasswordEncoder(cost).encode(PASSWORD);
+    }
+}
@@ -0,0 +1,53 @@
+package com.assigment.userservice.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RabbitConfigTests {
+
+    private final RabbitConfig config = new RabbitConfig();
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+    @Test
+    void mailListenersStayOnPlatformThreadsInVirtualThreadMode() throws Exception {
+        SimpleRabbitListenerContainerFactoryConfigurer configurer = virtualThreadConfigurer();
+
+        SimpleRabbitListenerContainerFactory mail =
+                config.mailListenerContainerFactory(configurer, connectionFactory, converter);
+        SimpleRabbitListenerContainerFactory other =
+                config.rabbitListenerContainerFactory(configurer, connectionFactory, converter);
+
+        assertThat(runsOnVirtualThread(mail)).isFalse();
+        assertThat(runsOnVirtualThread(other)).isTrue();
+    }
+
+    // What Boot's RabbitAnnotationDrivenConfiguration does when spring.threads.virtual.enabled is set
+    private static SimpleRabbitListenerContainerFactoryConfigurer virtualThreadConfigurer() {
+        SimpleRabbitListenerContainerFactoryConfigurer configurer =
+                new SimpleRabbitListenerContainerFactoryConfigurer(new RabbitProperties());
+        configurer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-simple-"));
+        return configurer;
+    }
+
+    private static boolean runsOnVirtualThread(SimpleRabbitListenerContainerFactory factory) throws Exception {
+        Executor executor = (Executor) ReflectionTestUtils.getField(factory, "taskExecutor");
+        assertThat(executor).isNotNull();
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        return virtual.get(5, TimeUnit.SECONDS);
+    }
+}
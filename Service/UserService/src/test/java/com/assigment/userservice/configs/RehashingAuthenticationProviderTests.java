@@ -0,0 +1,100 @@
+package com.assigment.userservice.configs;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RehashingAuthenticationProviderTests {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String PASSWORD = "Passw0rd!";
+
+    private final BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(
+            PasswordHashCalibration.storageEncoder(PasswordHashCalibration.BCRYPT, 5, true, false),
+            1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @AfterEach
+    void closeEncoder() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void outdatedHashIsReEncodedAfterTheLoginReturns() {
+        UserDetails user = user(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        AtomicReference<String> saved = new AtomicReference<>();
+        UserDetailsPasswordService passwordService = (details, newPassword) -> {
+            saved.set(newPassword);
+            return details;
+        };
+
+        assertThat(provider(user, passwordService).authenticate(login()).isAuthenticated()).isTrue();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> saved.get() != null);
+        assertThat(saved.get()).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches(PASSWORD, saved.get())).isTrue();
+    }
+
+    @Test
+    void currentHashIsLeftAlone() throws InterruptedException {
+        UserDetails user = user(new BCryptPasswordEncoder(5).encode(PASSWORD));
+        CountDownLatch saved = new CountDownLatch(1);
+        UserDetailsPasswordService passwordService = (details, newPassword) -> {
+            saved.countDown();
+            return details;
+        };
+
+        assertThat(provider(user, passwordService).authenticate(login()).isAuthenticated()).isTrue();
+
+        assertThat(saved.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    @Test
+    void backgroundEncodeIsSkippedWhileHashesAreQueued() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Occupies the only hashing thread, then the only queue slot
+            assertThat(passwordEncoder.encodeInBackground(PASSWORD, hash -> awaitQuietly(release))).isTrue();
+            await().atMost(Duration.ofSeconds(5)).until(() -> passwordEncoder.encodeInBackground(PASSWORD, hash -> { }));
+
+            assertThat(passwordEncoder.encodeInBackground(PASSWORD, hash -> { })).isFalse();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private RehashingAuthenticationProvider provider(UserDetails user, UserDetailsPasswordService passwordService) {
+        RehashingAuthenticationProvider provider = new RehashingAuthenticationProvider(passwordEncoder, passwordService);
+        provider.setUserDetailsService(username -> user);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    private static UserDetails user(String storedHash) {
+        return User.withUsername(EMAIL).password(storedHash).roles("USER").build();
+    }
+
+    private static UsernamePasswordAuthenticationToken login() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, PASSWORD);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.dto.request.RegisterUserDto;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.exceptions.DuplicateResourceException;
+import com.assigment.userservice.services.JwtService;
+import com.assigment.userservice.services.PrincipalService;
+import com.assigment.userservice.services.RefreshSessionService;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.RevocationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static com.assigment.userservice.services.impl.UserServiceImplContactTests.contact;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticationServiceImplTests {
+
+    private static final String TOKEN = "token-1";
+    private static final String EMAIL = "new@example.com";
+    private static final String PHONE = "+359888000111";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final RegisteredContactService registeredContactService = mock(RegisteredContactService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AuthenticationServiceImpl service = new AuthenticationServiceImpl(
+            userRepository, mock(AuthenticationManager.class), mock(PasswordEncoder.class), mock(JwtService.class),
+            redisTemplate, objectMapper, mock(RabbitTemplate.class), mock(RefreshSessionService.class),
+            mock(RevocationService.class), mock(PrincipalService.class), registeredContactService);
+
+    @BeforeEach
+    void pendingSignup() throws JsonProcessingException {
+        RegisterUserDto dto = new RegisterUserDto();
+        dto.setFirstName("Ana");
+        dto.setLastName("Petrova");
+        dto.setEmail(EMAIL);
+        dto.setPhoneNumber(PHONE);
+        dto.setPassword("Passw0rd!");
+
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get("SIGNUP:" + TOKEN)).thenReturn(objectMapper.writeValueAsString(dto));
+        when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+    }
+
+    @Test
+    void contactsTakenSinceSignupAreADuplicateNotAServerError() {
+        when(userRepository.findContacts(EMAIL, PHONE)).thenReturn(List.of(contact("other@example.com", PHONE)));
+
+        assertThatThrownBy(() -> service.verifyAndSaveUser(TOKEN))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Phone number already exists");
+
+        verify(redisTemplate).delete("SIGNUP:" + TOKEN);
+        verify(registeredContactService, never()).registered(anyString(), anyString());
+    }
+
+    @Test
+    void takenEmailWinsOverPhoneNumber() {
+        when(userRepository.findContacts(EMAIL, PHONE))
+                .thenReturn(List.of(contact("other@example.com", PHONE), contact(EMAIL, "+359888999999")));
+
+        assertThatThrownBy(() -> service.verifyAndSaveUser(TOKEN))
+                .isInstanceOf(DuplicateResourceException.class)
+                .hasMessage("Email already exists");
+    }
+}
@@ -0,0 +1,102 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.jwtcodec.VerifiedClaims;
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.dto.UserPrincipal;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.entRepo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalServiceImplTests {
+
+    private static final String EMAIL = "user@example.com";
+    private static final VerifiedClaims CLAIMS = new VerifiedClaims(EMAIL, "USER", 0, Long.MAX_VALUE / 1000);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalServiceImpl service = new PrincipalServiceImpl(
+            userRepository, mock(StringRedisTemplate.class), "cache", 100, Duration.ofMinutes(10));
+
+    @Test
+    void loadedPrincipalIsServedFromTheCache() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user(RoleEnum.USER)));
+
+        service.loadPrincipal(CLAIMS);
+        UserPrincipal principal = service.loadPrincipal(CLAIMS);
+
+        assertThat(principal).isEqualTo(new UserPrincipal(EMAIL, RoleEnum.USER, StatusEnum.ENABLE));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(userRepository.findByEmail(EMAIL))
+                .thenThrow(new QueryTimeoutException("Database busy"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user(RoleEnum.USER)));
+
+        assertThatThrownBy(() -> service.loadPrincipal(CLAIMS)).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(() -> service.loadPrincipal(CLAIMS)).isInstanceOf(UsernameNotFoundException.class);
+        assertThat(service.loadPrincipal(CLAIMS).role()).isEqualTo(RoleEnum.USER);
+        verify(userRepository, times(3)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void loadInvalidatedMidFlightIsNotCached() {
+        // The row is read, then the user is changed and invalidated before the load completes
+        when(userRepository.findByEmail(EMAIL))
+                .thenAnswer(invocation -> {
+                    Optional<UserEntity> before = Optional.of(user(RoleEnum.USER));
+                    service.invalidate(EMAIL);
+                    return before;
+                })
+                .thenReturn(Optional.of(user(RoleEnum.ADMIN)));
+
+        assertThat(service.loadPrincipal(CLAIMS).role()).isEqualTo(RoleEnum.USER);
+        assertThat(service.loadPrincipal(CLAIMS).role()).isEqualTo(RoleEnum.ADMIN);
+        assertThat(service.loadPrincipal(CLAIMS).role()).isEqualTo(RoleEnum.ADMIN);
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user(RoleEnum.USER));
+        });
+
+        CompletableFuture<UserPrincipal> first = CompletableFuture.supplyAsync(() -> service.loadPrincipal(CLAIMS));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<UserPrincipal> second = CompletableFuture.supplyAsync(() -> service.loadPrincipal(CLAIMS));
+
+        await().during(Duration.ofMillis(100)).atMost(Duration.ofSeconds(1)).until(() -> !second.isDone());
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(second.get(5, TimeUnit.SECONDS));
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    private static UserEntity user(RoleEnum role) {
+        return new UserEntity().setEmail(EMAIL).setRole(role).setStatus(StatusEnum.ENABLE);
+    }
+}
@@ -0,0 +1,61 @@
+package com.assigment.userservice.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.REFRESH_PREFIX;
+import static com.assigment.userservice.constants.RedisKeyConstant.SESSION_BACKFILL_MARKER;
+import static com.assigment.userservice.constants.RedisKeyConstant.USER_SESSIONS_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class RefreshSessionServiceImplTests {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String TOKEN = "refresh-token";
+    private static final Duration MARKER_TTL = Duration.ofDays(30);
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    private final RefreshSessionServiceImpl service = new RefreshSessionServiceImpl(redisTemplate, MARKER_TTL);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerSessionIsASingleScriptCall() {
+        service.registerSession(TOKEN, EMAIL, Duration.ofDays(7));
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of(REFRESH_PREFIX + TOKEN, USER_SESSIONS_PREFIX + EMAIL)),
+                eq(EMAIL), eq(TOKEN), eq(String.valueOf(Duration.ofDays(7).toMillis())), anyString());
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    void registerSessionScriptIsOnTheClasspath() {
+        assertThat(new ClassPathResource("scripts/register_refresh_session.lua").exists()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfillMarkerExpires() {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(eq(SESSION_BACKFILL_MARKER), anyString(), eq(MARKER_TTL))).thenReturn(false);
+
+        assertThat(service.backfillSessionIndex()).isZero();
+
+        verify(values).setIfAbsent(eq(SESSION_BACKFILL_MARKER), anyString(), eq(MARKER_TTL));
+    }
+}
@@ -0,0 +1,147 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.entRepo.UserContact;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.services.RegisteredContactService.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.assigment.userservice.constants.RedisKeyConstant.CONTACT_REGISTERED_CHANNEL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RegisteredContactServiceImplTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RegisteredContactServiceImpl service = new RegisteredContactServiceImpl(userRepository, redisTemplate,
+            mock(PlatformTransactionManager.class), meterRegistry, true, 1000, 0.01, Duration.ofHours(6));
+
+    @BeforeEach
+    void registeredUsers() {
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.streamAllContacts()).thenReturn(Stream.of(
+                contact("taken@mail.com", "0900000001"),
+                contact("deleted@mail.com", "0900000002")));
+    }
+
+    @Test
+    void everyCheckGoesToTheDatabaseUntilTheFirstBuild() {
+        when(userRepository.findContacts("new@mail.com", "0911111111")).thenReturn(List.of());
+
+        assertThat(service.findRegistered("new@mail.com", "0911111111")).isEqualTo(Match.NONE);
+        verify(userRepository).findContacts("new@mail.com", "0911111111");
+    }
+
+    @Test
+    void unknownContactsAreAnsweredFromMemory() {
+        service.rebuild();
+
+        assertThat(service.findRegistered("new@mail.com", "0911111111")).isEqualTo(Match.NONE);
+        assertThat(service.isEmailRegistered("new@mail.com")).isFalse();
+
+        verify(userRepository, never()).findContacts(anyString(), anyString());
+        verify(userRepository, never()).findByEmail(anyString());
+        assertThat(checks("memory")).isEqualTo(2);
+        assertThat(checks("database")).isZero();
+    }
+
+    @Test
+    void possibleHitIsAnsweredByTheDatabase() {
+        service.rebuild();
+        when(userRepository.findContacts("taken@mail.com", "0911111111"))
+                .thenReturn(List.of(contact("taken@mail.com", "0900000001")));
+        when(userRepository.findContacts("other@mail.com", "0900000001"))
+                .thenReturn(List.of(contact("taken@mail.com", "0900000001")));
+
+        assertThat(service.findRegistered("taken@mail.com", "0911111111")).isEqualTo(Match.EMAIL);
+        assertThat(service.findRegistered("other@mail.com", "0900000001")).isEqualTo(Match.PHONE_NUMBER);
+        assertThat(checks("database")).isEqualTo(2);
+    }
+
+    @Test
+    void filterHitNotInTheDatabaseFallsThroughToNone() {
+        // In the filter but gone from the table (user deleted since the build): same path as a false positive
+        service.rebuild();
+        when(userRepository.findContacts("deleted@mail.com", "0911111111")).thenReturn(List.of());
+        when(userRepository.findByEmail("deleted@mail.com")).thenReturn(Optional.empty());
+
+        assertThat(service.findRegistered("deleted@mail.com", "0911111111")).isEqualTo(Match.NONE);
+        assertThat(service.isEmailRegistered("deleted@mail.com")).isFalse();
+        verify(userRepository).findContacts("deleted@mail.com", "0911111111");
+        verify(userRepository).findByEmail("deleted@mail.com");
+    }
+
+    @Test
+    void signupHereIsCheckedAgainstTheDatabaseAndPublished() {
+        service.rebuild();
+        service.registered("new@mail.com", "0911111111");
+        when(userRepository.findContacts("new@mail.com", "0922222222"))
+                .thenReturn(List.of(contact("new@mail.com", "0911111111")));
+
+        assertThat(service.findRegistered("new@mail.com", "0922222222")).isEqualTo(Match.EMAIL);
+        verify(redisTemplate).convertAndSend(CONTACT_REGISTERED_CHANNEL, "new@mail.com\n0911111111");
+    }
+
+    @Test
+    void signupOnAnotherInstanceIsCheckedAgainstTheDatabase() {
+        service.rebuild();
+        service.onMessage(new DefaultMessage(CONTACT_REGISTERED_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "remote@mail.com\n0933333333".getBytes(StandardCharsets.UTF_8)), null);
+        when(userRepository.findContacts("someone@mail.com", "0933333333"))
+                .thenReturn(List.of(contact("remote@mail.com", "0933333333")));
+
+        assertThat(service.findRegistered("someone@mail.com", "0933333333")).isEqualTo(Match.PHONE_NUMBER);
+    }
+
+    @Test
+    void rebuildKeepsContactsRegisteredSinceTheLastOne() {
+        service.rebuild();
+        service.registered("new@mail.com", "0911111111");
+        when(userRepository.streamAllContacts()).thenReturn(Stream.of(
+                contact("taken@mail.com", "0900000001"),
+                contact("new@mail.com", "0911111111")));
+        service.rebuild();
+
+        when(userRepository.findByEmail("new@mail.com")).thenReturn(Optional.of(new UserEntity()));
+        assertThat(service.isEmailRegistered("new@mail.com")).isTrue();
+        // Dropped by the rebuild: answered from memory again
+        assertThat(service.isEmailRegistered("deleted@mail.com")).isFalse();
+        verify(userRepository, never()).findByEmail("deleted@mail.com");
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get("user.contact.filter.checks").tag("result", result).counter().count();
+    }
+
+    private static UserContact contact(String email, String phoneNumber) {
+        return new UserContact() {
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getPhoneNumber() {
+                return phoneNumber;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.constants.RoleEnum;
+import com.assigment.userservice.constants.StatusEnum;
+import com.assigment.userservice.dto.mapper.UserMapper;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExportServiceImplTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<UserEntity> query = mock(TypedQuery.class, RETURNS_SELF);
+
+    private final UserExportServiceImpl service =
+            new UserExportServiceImpl(entityManager, transactionManager, new UserMapper(), objectMapper, 500, 5000);
+
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+    private final AtomicInteger rowsRead = new AtomicInteger();
+
+    @BeforeEach
+    void cursor() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(entityManager.createQuery(anyString(), eq(UserEntity.class))).thenReturn(query);
+    }
+
+    @Test
+    void writesOneJsonLinePerUserStraightFromTheCursor() throws IOException {
+        rows(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = service.exportUsers(out, null, null, null);
+
+        assertThat(written).isEqualTo(3);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < lines.size(); i++) {
+            JsonNode line = objectMapper.readTree(lines.get(i));
+            assertThat(line.get("email").asText()).isEqualTo("user" + i + "@example.com");
+            assertThat(line.has("password")).isFalse();
+        }
+
+        verify(entityManager, times(3)).detach(any(UserEntity.class));
+        verify(query).setHint(HINT_FETCH_SIZE, 500);
+        verify(query).setHint(HINT_READ_ONLY, true);
+        verify(entityManager).createQuery("select u from UserEntity u order by u.userID", UserEntity.class);
+        assertThat(cursorClosed).isTrue();
+    }
+
+    @Test
+    void readsInsideOneReadOnlyTransaction() throws IOException {
+        rows(1);
+
+        service.exportUsers(new ByteArrayOutputStream(), null, null, null);
+
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void statusAndRoleFiltersAndCappedFetchSize() throws IOException {
+        rows(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = service.exportUsers(out, StatusEnum.ENABLE, RoleEnum.ADMIN, 100_000);
+
+        assertThat(written).isZero();
+        assertThat(out.size()).isZero();
+        verify(entityManager).createQuery(
+                "select u from UserEntity u where u.status = :status and u.role = :role order by u.userID", UserEntity.class);
+        verify(query).setParameter("status", StatusEnum.ENABLE);
+        verify(query).setParameter("role", RoleEnum.ADMIN);
+        verify(query).setHint(HINT_FETCH_SIZE, 5000);
+    }
+
+    @Test
+    void clientGoneStopsReadingAndClosesTheCursor() {
+        rows(10_000);
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> service.exportUsers(broken, null, null, null))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        assertThat(cursorClosed).isTrue();
+        assertThat(rowsRead.get()).isLessThan(10_000);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    private void rows(int count) {
+        Stream<UserEntity> rows = IntStream.range(0, count)
+                .mapToObj(i -> new UserEntity()
+                        .setUserID("u-" + i)
+                        .setEmail("user" + i + "@example.com")
+                        .setPassword("$2a$10$hash")
+                        .setRole(RoleEnum.USER)
+                        .setStatus(StatusEnum.ENABLE))
+                .peek(user -> rowsRead.incrementAndGet())
+                .onClose(() -> cursorClosed.set(true));
+        when(query.getResultStream()).thenReturn(rows);
+    }
+}
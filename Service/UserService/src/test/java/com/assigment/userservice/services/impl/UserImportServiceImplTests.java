@@ -0,0 +1,375 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.dto.response.UserImportResponse;
+import com.assigment.userservice.dto.response.UserImportResponse.ImportRowError;
+import com.assigment.userservice.exceptions.HashingCapacityExceededException;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.UserImportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/* ============================
+   Parsing, duplicate detection and row accounting of the bulk import, against mocked JDBC.
+   Inserted rows are captured through the import's own statement binding: one map of column values per row.
+   ============================ */
+class UserImportServiceImplTests {
+
+    private static final String CSV_HEADER = "firstName,lastName,phoneNumber,email,password";
+
+    private static final ValidatorFactory VALIDATION = Validation.buildDefaultValidatorFactory();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final RegisteredContactService registeredContactService = mock(RegisteredContactService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final Validator validator = VALIDATION.getValidator();
+
+    // Contacts the lookup query reports as belonging to existing users
+    private final Set<String> existingEmails = new HashSet<>();
+    private final Set<String> existingPhoneNumbers = new HashSet<>();
+    // Emails whose insert is skipped by ON CONFLICT DO NOTHING (taken by a concurrent signup)
+    private final Set<String> conflictingEmails = new HashSet<>();
+
+    private final List<Map<Integer, Object>> inserted = new ArrayList<>();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    private UserImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "{bcrypt}hash-" + invocation.getArgument(0));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (String email : existingEmails) {
+                handler.processRow(contactRow(email, "-"));
+            }
+            for (String phoneNumber : existingPhoneNumbers) {
+                handler.processRow(contactRow("-", phoneNumber));
+            }
+            return null;
+        }).when(namedJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    batches.incrementAndGet();
+                    Collection<Object> rows = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    int[] counts = new int[rows.size()];
+                    int i = 0;
+                    for (Object row : rows) {
+                        Map<Integer, Object> values = bind(statement -> setter.setValues(statement, row));
+                        counts[i++] = conflictingEmails.contains((String) values.get(5)) ? 0 : 1;
+                        if (counts[i - 1] == 1) {
+                            inserted.add(values);
+                        }
+                    }
+                    return new int[][]{counts};
+                });
+
+        service = service(500, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @AfterAll
+    static void closeValidation() {
+        VALIDATION.close();
+    }
+
+    /* ============================
+       CSV PARSING
+       ============================ */
+
+    @Test
+    void csvQuotingEscapedQuotesAndCrlfAreParsed() throws IOException {
+        String csv = "\uFEFF" + CSV_HEADER + "\r\n"
+                + "\"Nguyen, Van\",\"O\"\"Brien\",0900000001,a@mail.com,secret1\r\n"
+                + "\r\n"
+                + "Plain,Name,0900000002,b@mail.com,\"pass,word\"\r\n";
+
+        UserImportResponse response = service.importUsers(input(csv), Format.CSV);
+
+        assertThat(response.getReceived()).isEqualTo(2);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(inserted.get(0).get(2)).isEqualTo("Nguyen, Van");
+        assertThat(inserted.get(0).get(3)).isEqualTo("O\"Brien");
+        assertThat(inserted.get(0).get(5)).isEqualTo("a@mail.com");
+        assertThat(inserted.get(1).get(6)).isEqualTo("{bcrypt}hash-pass,word");
+    }
+
+    @Test
+    void csvHeaderNamesAreMatchedLooselyAndInAnyOrder() throws IOException {
+        String csv = "EMAIL,Password,\"First Name\",last_name,phone-number\n"
+                + "c@mail.com,secret1,First,Last,0900000003\n";
+
+        UserImportResponse response = service.importUsers(input(csv), Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(inserted.get(0).get(2)).isEqualTo("First");
+        assertThat(inserted.get(0).get(4)).isEqualTo("0900000003");
+        assertThat(inserted.get(0).get(5)).isEqualTo("c@mail.com");
+    }
+
+    @Test
+    void optionalRoleAndStatusColumnsDefaultToUserAndEnable() throws IOException {
+        String csv = CSV_HEADER + ",role,status\n"
+                + "A,A,0900000001,a@mail.com,secret1,admin,disable\n"
+                + "B,B,0900000002,b@mail.com,secret1,,\n";
+
+        service.importUsers(input(csv), Format.CSV);
+
+        assertThat(inserted.get(0).get(7)).isEqualTo("ADMIN");
+        assertThat(inserted.get(0).get(8)).isEqualTo("DISABLE");
+        assertThat(inserted.get(1).get(7)).isEqualTo("USER");
+        assertThat(inserted.get(1).get(8)).isEqualTo("ENABLE");
+    }
+
+    @Test
+    void malformedCsvRowsAreRejectedWithTheirLineNumber() throws IOException {
+        String csv = CSV_HEADER + ",role\n"
+                + "A,A,0900000001,a@mail.com,secret1,OWNER\n"
+                + "\"Unterminated,A,0900000002,b@mail.com,secret1\n"
+                + "C,C,0900000003,c@mail.com,secret1\n";
+
+        UserImportResponse response = service.importUsers(input(csv), Format.CSV);
+
+        assertThat(response.getReceived()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactly(2L, 3L);
+        assertThat(response.getErrors()).allSatisfy(error -> assertThat(error.getReason()).startsWith("Malformed CSV row"));
+    }
+
+    /* ============================
+       NDJSON AND VALIDATION
+       ============================ */
+
+    @Test
+    void invalidNdjsonRowsAreReportedAndTheRestImported() throws IOException {
+        String ndjson = json("a@mail.com", "0900000001", "secret1") + "\n"
+                + "{not json\n"
+                + "{\"firstName\":\"A\",\"lastName\":\"A\",\"phoneNumber\":\"0900000002\",\"email\":\"no-at-sign\",\"password\":\"secret1\"}\n"
+                + "{\"firstName\":\"A\",\"lastName\":\"A\",\"phoneNumber\":\"0900000003\",\"email\":\"c@mail.com\"}\n"
+                + json("d@mail.com", "0900000004", "secret1") + "\n";
+
+        UserImportResponse response = service.importUsers(input(ndjson), Format.NDJSON);
+
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(3);
+        assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(response.getErrors().get(0).getReason()).startsWith("Malformed JSON");
+        assertThat(response.getErrors().get(1).getReason()).startsWith("email:");
+        assertThat(response.getErrors().get(2).getReason()).isEqualTo("Password is required when creating a user");
+    }
+
+    @Test
+    void oversizeValuesAreRejectedPerRowBeforeTheBatch() throws IOException {
+        String longName = "x".repeat(256);
+        String ndjson = json("a@mail.com", "0900000001", "secret1") + "\n"
+                + "{\"firstName\":\"" + longName + "\",\"lastName\":\"A\",\"phoneNumber\":\"0900000002\","
+                + "\"email\":\"b@mail.com\",\"password\":\"secret1\"}\n"
+                + json("c@mail.com", "0900000003", "secret1") + "\n";
+
+        UserImportResponse response = service.importUsers(input(ndjson), Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getReason()).isEqualTo("firstName: must be at most 255 characters");
+        });
+        assertThat(inserted).extracting(values -> values.get(5)).containsExactly("a@mail.com", "c@mail.com");
+    }
+
+    /* ============================
+       DUPLICATES AND COUNTS
+       ============================ */
+
+    @Test
+    void existingAndInChunkDuplicatesAreRejectedBeforeHashing() throws IOException {
+        existingEmails.add("taken@mail.com");
+        existingPhoneNumbers.add("0999999999");
+        String ndjson = json("taken@mail.com", "0900000001", "secret1") + "\n"
+                + json("a@mail.com", "0999999999", "secret2") + "\n"
+                + json("b@mail.com", "0900000002", "secret3") + "\n"
+                + json("b@mail.com", "0900000003", "secret4") + "\n"
+                + json("c@mail.com", "0900000002", "secret5") + "\n";
+
+        UserImportResponse response = service.importUsers(input(ndjson), Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(ImportRowError::getReason).containsExactly(
+                "Email already exists", "Phone number already exists", "Email already exists", "Phone number already exists");
+        verify(passwordEncoder).encode("secret3");
+        verify(passwordEncoder, never()).encode("secret1");
+        verify(registeredContactService).registered("b@mail.com", "0900000002");
+    }
+
+    @Test
+    void rowsTakenByAConcurrentSignupAreCountedAsRejected() throws IOException {
+        conflictingEmails.add("b@mail.com");
+        String ndjson = json("a@mail.com", "0900000001", "secret1") + "\n"
+                + json("b@mail.com", "0900000002", "secret1") + "\n";
+
+        UserImportResponse response = service.importUsers(input(ndjson), Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getReason()).isEqualTo("Email or phone number already in use"));
+        verify(registeredContactService, never()).registered(eq("b@mail.com"), anyString());
+    }
+
+    @Test
+    void rowsAreWrittenInChunksAndCountedAcrossThem() throws IOException {
+        service.shutdown();
+        service = service(2, 1000);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            ndjson.append(json("user" + i + "@mail.com", "090000000" + i, "secret1")).append('\n');
+        }
+
+        UserImportResponse response = service.importUsers(input(ndjson.toString()), Format.NDJSON);
+
+        assertThat(batches).hasValue(3);
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getImported()).isEqualTo(5);
+        assertThat(response.getErrors()).isEmpty();
+    }
+
+    @Test
+    void failedBatchFallsBackToRowByRowInserts() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(255)"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatementSetter setter = invocation.getArgument(1);
+            Map<Integer, Object> values = bind(setter::setValues);
+            if ("b@mail.com".equals(values.get(5))) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            return 1;
+        });
+        String ndjson = json("a@mail.com", "0900000001", "secret1") + "\n"
+                + json("b@mail.com", "0900000002", "secret1") + "\n"
+                + json("c@mail.com", "0900000003", "secret1") + "\n";
+
+        UserImportResponse response = service.importUsers(input(ndjson), Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getReason()).startsWith("Rejected by the database");
+        });
+    }
+
+    @Test
+    void hashingBackpressureIsRetried() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new HashingCapacityExceededException("Password hashing is saturated");
+            }
+            return "{bcrypt}hash";
+        });
+
+        UserImportResponse response = service.importUsers(input(json("a@mail.com", "0900000001", "secret1")), Format.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void reportedErrorsAreCappedButAllRejectionsCounted() throws IOException {
+        service.shutdown();
+        service = service(500, 1);
+
+        UserImportResponse response = service.importUsers(input("{bad\n{bad\n"), Format.NDJSON);
+
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getErrors()).hasSize(1);
+        assertThat(response.isErrorsTruncated()).isTrue();
+    }
+
+    /* ============================
+       HELPERS
+       ============================ */
+
+    private UserImportServiceImpl service(int chunkSize, int maxReportedErrors) {
+        return new UserImportServiceImpl(jdbcTemplate, namedJdbcTemplate, mock(PlatformTransactionManager.class),
+                passwordEncoder, registeredContactService, new ObjectMapper(), validator, new SimpleMeterRegistry(),
+                chunkSize, 2, maxReportedErrors);
+    }
+
+    private interface Binding {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    // Column values the import binds, by parameter index (1 = user_id ... 5 = email, 6 = password hash)
+    private static Map<Integer, Object> bind(Binding binding) throws SQLException {
+        Map<Integer, Object> values = new HashMap<>();
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doAnswer(invocation -> values.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(statement).setString(anyInt(), any());
+        binding.bind(statement);
+        return values;
+    }
+
+    private static ResultSet contactRow(String email, String phoneNumber) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("email")).thenReturn(email);
+        when(resultSet.getString("phone_number")).thenReturn(phoneNumber);
+        return resultSet;
+    }
+
+    private static String json(String email, String phoneNumber, String password) {
+        return "{\"firstName\":\"First\",\"lastName\":\"Last\",\"phoneNumber\":\"" + phoneNumber
+                + "\",\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.userservice.dto.mapper.UserMapper;
+import com.assigment.userservice.dto.request.UserRequest;
+import com.assigment.userservice.dto.response.UserStandardResponse;
+import com.assigment.userservice.entRepo.UserContact;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.services.PrincipalService;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.RevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplContactTests {
+
+    private static final String EMAIL = "taken@example.com";
+    private static final String PHONE = "+359888000111";
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final RegisteredContactService registeredContactService = mock(RegisteredContactService.class);
+    private final UserServiceImpl service = new UserServiceImpl(repository, new UserMapper(),
+            mock(PasswordEncoder.class), mock(RevocationService.class), mock(PrincipalService.class),
+            registeredContactService);
+
+    @BeforeEach
+    void saveViolatesAUniqueConstraint() {
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        // The Bloom filter on this instance has not heard of the other user yet
+        when(registeredContactService.findRegistered(anyString(), anyString()))
+                .thenReturn(RegisteredContactService.Match.NONE);
+    }
+
+    @Test
+    void createUserNamesTheTakenEmailFromTheDatabase() {
+        when(repository.findContacts(EMAIL, PHONE)).thenReturn(List.of(contact(EMAIL, "+359888999999")));
+
+        UserStandardResponse response = service.createUser(request());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getMessage()).isEqualTo("Email already exists");
+        verify(registeredContactService, never()).findRegistered(anyString(), anyString());
+    }
+
+    @Test
+    void updateUserNamesTheTakenPhoneNumberFromTheDatabase() {
+        when(repository.findById("u-1")).thenReturn(Optional.of(new UserEntity().setUserID("u-1")));
+        when(repository.findContacts(EMAIL, PHONE)).thenReturn(List.of(contact("other@example.com", PHONE)));
+
+        UserStandardResponse response = service.updateUser("u-1", request());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getMessage()).isEqualTo("Phone number already exists");
+        verify(registeredContactService, never()).findRegistered(anyString(), anyString());
+    }
+
+    private static UserRequest request() {
+        return UserRequest.builder()
+                .firstName("Ana")
+                .lastName("Petrova")
+                .email(EMAIL)
+                .phoneNumber(PHONE)
+                .password("Passw0rd!")
+                .build();
+    }
+
+    static UserContact contact(String email, String phoneNumber) {
+        return new UserContact() {
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getPhoneNumber() {
+                return phoneNumber;
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.assigment.userservice.services.impl;
+
+import com.assigment.common.InvalidCursorException;
+import com.assigment.common.PageCursor;
+import com.assigment.userservice.dto.mapper.UserMapper;
+import com.assigment.userservice.dto.response.UserCursorPageResponse;
+import com.assigment.userservice.dto.response.UserResponse;
+import com.assigment.userservice.entRepo.UserEntity;
+import com.assigment.userservice.entRepo.UserRepository;
+import com.assigment.userservice.exceptions.GlobalExceptionHandler;
+import com.assigment.userservice.services.PrincipalService;
+import com.assigment.userservice.services.RegisteredContactService;
+import com.assigment.userservice.services.RevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplCursorTests {
+
+    private static final String BASE_URL = "http://users/api/user/list";
+
+    private static final Comparator<UserEntity> LISTING_ORDER =
+            Comparator.comparing((UserEntity user) -> ((Timestamp) user.getCreatedAt()).toInstant())
+                    .thenComparing(UserEntity::getUserID);
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final UserServiceImpl service = new UserServiceImpl(repository, new UserMapper(),
+            mock(PasswordEncoder.class), mock(RevocationService.class), mock(PrincipalService.class),
+            mock(RegisteredContactService.class));
+
+    // Seven users, five of them created in the same microsecond: only the id orders those
+    private final List<UserEntity> table = List.of(
+            user("u-7", "2024-01-01T11:00:00Z"),
+            user("u-3", "2024-01-01T10:00:00.000001Z"),
+            user("u-5", "2024-01-01T10:00:00.000001Z"),
+            user("u-1", "2024-01-01T09:00:00Z"),
+            user("u-4", "2024-01-01T10:00:00.000001Z"),
+            user("u-6", "2024-01-01T10:00:00.000001Z"),
+            user("u-2", "2024-01-01T10:00:00.000001Z"));
+
+    @BeforeEach
+    void keysetQueries() {
+        when(repository.findFirstPage(anyInt())).thenAnswer(invocation ->
+                ascending(user -> true, invocation.getArgument(0)));
+        when(repository.findPageAfter(any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            UserEntity cursor = user(invocation.getArgument(1), invocation.<Timestamp>getArgument(0));
+            return ascending(user -> LISTING_ORDER.compare(user, cursor) > 0, invocation.getArgument(2));
+        });
+        when(repository.findPageBefore(any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            UserEntity cursor = user(invocation.getArgument(1), invocation.<Timestamp>getArgument(0));
+            return table.stream()
+                    .filter(user -> LISTING_ORDER.compare(user, cursor) < 0)
+                    .sorted(LISTING_ORDER.reversed())
+                    .limit(invocation.<Integer>getArgument(2))
+                    .toList();
+        });
+    }
+
+    @Test
+    void forwardPagesVisitEveryUserOnceAcrossCreatedAtTies() {
+        List<String> seen = new ArrayList<>();
+        UserCursorPageResponse page = service.findAllUsersByCursor("", 2, false, BASE_URL);
+        assertThat(page.isHasPrevious()).isFalse();
+        seen.addAll(emails(page));
+        while (page.isHasNext()) {
+            page = service.findAllUsersByCursor(page.getNextCursor(), 2, false, BASE_URL);
+            seen.addAll(emails(page));
+        }
+
+        assertThat(seen).containsExactly("u-1", "u-2", "u-3", "u-4", "u-5", "u-6", "u-7");
+        assertThat(page.getNextPageUrl()).isNull();
+    }
+
+    @Test
+    void backwardPagesReturnTheSamePagesInListingOrder() {
+        UserCursorPageResponse first = service.findAllUsersByCursor("", 3, false, BASE_URL);
+        UserCursorPageResponse second = service.findAllUsersByCursor(first.getNextCursor(), 3, false, BASE_URL);
+        UserCursorPageResponse third = service.findAllUsersByCursor(second.getNextCursor(), 3, false, BASE_URL);
+        assertThat(emails(third)).containsExactly("u-7");
+
+        UserCursorPageResponse back = service.findAllUsersByCursor(third.getPreviousCursor(), 3, false, BASE_URL);
+        assertThat(emails(back)).isEqualTo(emails(second)).containsExactly("u-4", "u-5", "u-6");
+        assertThat(back.isHasNext()).isTrue();
+
+        UserCursorPageResponse start = service.findAllUsersByCursor(back.getPreviousCursor(), 3, false, BASE_URL);
+        assertThat(emails(start)).isEqualTo(emails(first)).containsExactly("u-1", "u-2", "u-3");
+        assertThat(start.isHasPrevious()).isFalse();
+        assertThat(start.getPreviousCursor()).isNull();
+    }
+
+    @Test
+    void cursorKeepsSubMillisecondCreatedAt() {
+        Timestamp createdAt = Timestamp.from(Instant.parse("2024-01-01T10:00:00.000001Z"));
+        PageCursor cursor = PageCursor.decode(PageCursor.after(createdAt, "u-3").encode());
+
+        assertThat(cursor.direction()).isEqualTo(PageCursor.Direction.AFTER);
+        assertThat(cursor.createdAtTimestamp()).isEqualTo(createdAt);
+        assertThat(cursor.id()).isEqualTo("u-3");
+    }
+
+    @Test
+    void oversizedPageIsCapped() {
+        UserCursorPageResponse page = service.findAllUsersByCursor("", 1_000_000, false, BASE_URL);
+
+        verify(repository).findFirstPage(UserServiceImpl.MAX_CURSOR_PAGE_SIZE + 1);
+        assertThat(page.getSize()).isEqualTo(UserServiceImpl.MAX_CURSOR_PAGE_SIZE);
+    }
+
+    @Test
+    void pageLinksCarryTheCappedSize() {
+        UserCursorPageResponse page = service.findAllUsersByCursor("", 2, false, BASE_URL);
+
+        assertThat(page.getNextPageUrl()).isEqualTo(BASE_URL + "?size=2&cursor=" + page.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorsAreRejectedAsBadRequest() {
+        List<String> cursors = List.of(
+                "not a cursor!",
+                token("1:a:1704103200"),
+                token("1:x:1704103200:0:u-1"),
+                token("2:a:1704103200:0:u-1"),
+                token("1:a:yesterday:0:u-1"),
+                token("1:a:1704103200:0:"),
+                token("1:b:" + Long.MAX_VALUE + ":" + Long.MAX_VALUE + ":u-1"));
+
+        for (String cursor : cursors) {
+            assertThatThrownBy(() -> service.findAllUsersByCursor(cursor, 5, false, BASE_URL))
+                    .as(cursor)
+                    .isInstanceOf(InvalidCursorException.class);
+        }
+        assertThat(new GlobalExceptionHandler()
+                .handleInvalidCursor(new InvalidCursorException("Malformed page cursor"))
+                .getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private List<UserEntity> ascending(Predicate<UserEntity> filter, int limit) {
+        return table.stream().filter(filter).sorted(LISTING_ORDER).limit(limit).toList();
+    }
+
+    private static List<String> emails(UserCursorPageResponse page) {
+        return page.getUsers().stream().map(UserResponse::getEmail).toList();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UserEntity user(String id, String createdAt) {
+        return user(id, Timestamp.from(Instant.parse(createdAt)));
+    }
+
+    private static UserEntity user(String id, Timestamp createdAt) {
+        return UserEntity.builder().userID(id).email(id).createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,90 @@
+// Platform-thread vs virtual-thread comparison for UserService and CourseService (k6: https://k6.io).
+//
+// Calls the services directly (not through the gateway), so only their own threading is measured.
+// Both runs need the same hardware, data and spring.datasource.hikari.maximum-pool-size, otherwise the
+// comparison measures something else. The gap shows once concurrency exceeds Tomcat's 200 platform threads.
+//
+//   1. spring.threads.virtual.enabled: false   (UserService.yml, CourseService.yml), restart both services
+//      k6 run -e MODE=platform -e EMAIL=... -e PASSWORD=... load/virtual-threads.js
+//   2. spring.threads.virtual.enabled: true, restart both services
+//      k6 run -e MODE=virtual  -e EMAIL=... -e PASSWORD=... load/virtual-threads.js
+//   3. Compare load/results/platform.json with load/results/virtual.json: throughput (http_reqs rate),
+//      http_req_duration p95/p99 per scenario, and http_req_failed. In the virtual run, also check the
+//      services' logs and jvm.threads.virtual.pinned for pinning reported by VirtualThreadPinningMonitor.
+//
+// Options: USER_URL (http://localhost:8090), COURSE_URL (http://localhost:8092), RATE (peak requests/s per
+// scenario, default 1500), DURATION (time at peak, default 2m).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const USER_URL = __ENV.USER_URL || 'http://localhost:8090';
+const COURSE_URL = __ENV.COURSE_URL || 'http://localhost:8092';
+const MODE = __ENV.MODE || 'unlabelled';
+const RATE = Number(__ENV.RATE || 1500);
+const DURATION = __ENV.DURATION || '2m';
+
+// Same shape for both scenarios: warm up, ramp to the peak, hold it
+function rampTo(exec) {
+    return {
+        executor: 'ramping-arrival-rate',
+        exec,
+        startRate: 10,
+        timeUnit: '1s',
+        preAllocatedVUs: 500,
+        maxVUs: 3000,
+        stages: [
+            { target: Math.round(RATE / 10), duration: '30s' },
+            { target: RATE, duration: '1m' },
+            { target: RATE, duration: DURATION },
+        ],
+    };
+}
+
+export const options = {
+    scenarios: {
+        // JWT filter + principal lookup + one JPA read
+        user_me: rampTo('userMe'),
+        // JPA page read (CourseService's own GET /course, not the gateway's static pages)
+        course_list: rampTo('courseList'),
+    },
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{scenario:user_me}': ['p(95)<500'],
+        'http_req_duration{scenario:course_list}': ['p(95)<500'],
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const response = http.post(`${USER_URL}/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const token = response.json('token.accessToken');
+    if (!token) {
+        throw new Error(`Login failed (${response.status}): set EMAIL and PASSWORD to an existing user`);
+    }
+    return { headers: { Authorization: `Bearer ${token}` } };
+}
+
+export function userMe(data) {
+    const response = http.get(`${USER_URL}/api/user/`, { headers: data.headers, tags: { name: 'GET /api/user' } });
+    check(response, { 'user 200': (r) => r.status === 200 });
+}
+
+export function courseList(data) {
+    const page = Math.floor(Math.random() * 5);
+    const response = http.get(`${COURSE_URL}/course?page=${page}&size=5`,
+        { headers: data.headers, tags: { name: 'GET /course' } });
+    check(response, { 'course 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    return {
+        [`load/results/${MODE}.json`]: JSON.stringify(data, null, 2),
+        stdout: `\n${MODE}: ${Math.round(data.metrics.http_reqs.values.rate)} req/s, `
+            + `p95 ${Math.round(data.metrics.http_req_duration.values['p(95)'])} ms, `
+            + `p99 ${Math.round(data.metrics.http_req_duration.values['p(99)'])} ms, `
+            + `failed ${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%\n`,
+    };
+}